@@ -0,0 +1,12 @@
+-- Réplica local do product-db (docker compose --profile replica up).
+-- Replica tudo desde o início via GTID, inclusive o CREATE DATABASE e as migrations do Flyway.
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'product-db',
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'root',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+START REPLICA;
+
+-- depois da inicialização do container: só a replicação escreve
+SET PERSIST super_read_only = ON;
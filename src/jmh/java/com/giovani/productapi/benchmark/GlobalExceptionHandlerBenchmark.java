@@ -0,0 +1,91 @@
+package com.giovani.productapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.giovani.productapi.controller.ProductController;
+import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.exceptions.GlobalExceptionHandler;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Custo dos caminhos de erro mais comuns: 404 (criação da exceção, handler e serialização do corpo,
+ * como acontece em cada id inexistente) e 400 de validação. {@code notFoundLegacy} reproduz o
+ * caminho anterior (exceção com stack trace e corpo em {@code HashMap}) para comparar vazão e
+ * {@code gc.alloc.rate.norm}. A exceção é criada a {@code depth} frames de profundidade, porque o
+ * custo do stack trace cresce com a pilha; uma requisição no Tomcat + Spring MVC passa de 100 frames.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="GlobalExceptionHandlerBenchmark"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    @Param({"10", "120"})
+    private int depth;
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MethodArgumentNotValidException validationException;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ProductRequest request = ProductRequest.builder().name("").price(BigDecimal.ZERO).build();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "productRequest");
+        bindingResult.addError(new FieldError("productRequest", "name", "must not be blank"));
+        bindingResult.addError(new FieldError("productRequest", "price", "must be greater than 0.0"));
+        MethodParameter parameter = new MethodParameter(
+                ProductController.class.getMethod("create", ProductRequest.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        ResourceNotFoundException ex = atDepth(depth,
+                () -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+        return objectMapper.writeValueAsBytes(handler.handleNotFound(ex).getBody());
+    }
+
+    @Benchmark
+    public byte[] notFoundLegacy() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        RuntimeException ex = atDepth(depth, () -> new RuntimeException("Produto não encontrado com ID: " + id));
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        return objectMapper.writeValueAsBytes(ResponseEntity.status(HttpStatus.NOT_FOUND).body(body).getBody());
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validation() {
+        return handler.handleValidation(validationException);
+    }
+
+    private static <T> T atDepth(int depth, Supplier<T> supplier) {
+        return depth <= 0 ? supplier.get() : atDepth(depth - 1, supplier);
+    }
+}
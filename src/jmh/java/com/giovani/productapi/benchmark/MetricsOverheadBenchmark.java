@@ -0,0 +1,68 @@
+package com.giovani.productapi.benchmark;
+
+import com.giovani.productapi.ProductapiApplication;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação por requisição: GET /api/v1/products/{id} servido do cache, com e sem
+ * as observações HTTP e as estatísticas do Hibernate. A diferença entre {@code metrics=on} e
+ * {@code metrics=off} é o overhead do Micrometer no caminho quente.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"on", "off"})
+    private String metrics;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean enabled = "on".equals(metrics);
+        context = new SpringApplicationBuilder(ProductapiApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--management.observations.enable.http.server.requests=" + enabled,
+                        "--spring.jpa.properties.hibernate.generate_statistics=" + enabled);
+        Long id = context.getBean(ProductService.class).create(ProductRequest.builder()
+                .name("Produto")
+                .description("Produto do benchmark")
+                .price(BigDecimal.TEN)
+                .build()).getId();
+
+        String port = context.getBean(Environment.class).getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/products/" + id)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String findById() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -0,0 +1,291 @@
+package com.giovani.productapi.benchmark;
+
+import com.giovani.productapi.ProductapiApplication;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.service.ProductService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sobrecarga com o banco lento: GET /api/v1/products/{id} sem cache, em carga aberta (taxa fixa de
+ * chegada, como usuários reais, que não esperam a resposta anterior para chegar), com e sem o limite
+ * adaptativo de concorrência. O banco é simulado sobre o H2 do perfil test: cada conexão custa
+ * {@code --fast-db} e, depois de {@code --fast-seconds}, passa a custar {@code --slow-db}, com no máximo
+ * {@code --db-concurrency} conexões em uso (o semáforo de {@code productapi.db.max-concurrency}). Com o
+ * banco lento a capacidade fica abaixo da taxa oferecida.
+ * <p>
+ * Goodput é a taxa de respostas 2xx dentro do SLO (o timeout do cliente), reportada por janela, para
+ * mostrar se ela se mantém ou desaba quando o banco fica lento. Não é um benchmark JMH: a carga é de
+ * taxa fixa, e o que interessa é a série no tempo, não a média. Cada modo começa com {@code --warmup}
+ * segundos a meia taxa e banco rápido, para o JIT.
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec@overload -Doverload.args="--rate 300 --slow-seconds 30"}
+ * Resultados em target/overload-result.json.
+ */
+public class OverloadBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    private final int rate;
+    private final Duration slo;
+    private final Duration fastDb;
+    private final Duration slowDb;
+    private final int dbConcurrency;
+    private final int fastSeconds;
+    private final int slowSeconds;
+    private final int window;
+    private final int warmupSeconds;
+
+    private volatile long dbLatencyNanos;
+
+    OverloadBenchmark(int rate, Duration slo, Duration fastDb, Duration slowDb, int dbConcurrency,
+                      int fastSeconds, int slowSeconds, int window, int warmupSeconds) {
+        this.rate = rate;
+        this.slo = slo;
+        this.fastDb = fastDb;
+        this.slowDb = slowDb;
+        this.dbConcurrency = dbConcurrency;
+        this.fastSeconds = fastSeconds;
+        this.slowSeconds = slowSeconds;
+        this.window = window;
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = 300;
+        Duration slo = Duration.ofSeconds(1);
+        Duration fastDb = Duration.ofMillis(2);
+        Duration slowDb = Duration.ofMillis(25);
+        int dbConcurrency = 4;
+        int fastSeconds = 10;
+        int slowSeconds = 30;
+        int window = 5;
+        int warmupSeconds = 20;
+        List<String> modes = List.of("off", "on");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rate" -> rate = Integer.parseInt(args[++i]);
+                case "--slo" -> slo = Duration.ofMillis(Long.parseLong(args[++i]));
+                case "--fast-db" -> fastDb = Duration.ofMillis(Long.parseLong(args[++i]));
+                case "--slow-db" -> slowDb = Duration.ofMillis(Long.parseLong(args[++i]));
+                case "--db-concurrency" -> dbConcurrency = Integer.parseInt(args[++i]);
+                case "--fast-seconds" -> fastSeconds = Integer.parseInt(args[++i]);
+                case "--slow-seconds" -> slowSeconds = Integer.parseInt(args[++i]);
+                case "--window" -> window = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "--modes" -> modes = Arrays.asList(args[++i].split(","));
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + args[i]);
+            }
+        }
+
+        OverloadBenchmark benchmark = new OverloadBenchmark(rate, slo, fastDb, slowDb, dbConcurrency,
+                fastSeconds, slowSeconds, window, warmupSeconds);
+        System.out.printf(Locale.ROOT, "taxa %d req/s, SLO %d ms, banco %d ms -> %d ms após %d s, %d conexões "
+                        + "(capacidade com o banco lento ~%d req/s)%n%n", rate, slo.toMillis(), fastDb.toMillis(),
+                slowDb.toMillis(), fastSeconds, dbConcurrency, dbConcurrency * 1000 / Math.max(1, slowDb.toMillis()));
+        StringBuilder json = new StringBuilder("[\n");
+        for (String mode : modes) {
+            Result result = benchmark.run("on".equals(mode));
+            result.print(mode, window, fastSeconds);
+            json.append(result.json(mode, window)).append(",\n");
+        }
+        json.setLength(json.length() - 2);
+        json.append("\n]\n");
+        Files.writeString(Path.of("target", "overload-result.json"), json);
+    }
+
+    private Result run(boolean limiter) throws Exception {
+        dbLatencyNanos = fastDb.toNanos();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductapiApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(slowDatabase()))
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate=ERROR",
+                        "--productapi.cache.type=none",
+                        "--productapi.concurrency.enabled=" + limiter,
+                        "--productapi.db.max-concurrency=" + dbConcurrency,
+                        "--productapi.db.acquire-timeout=5s",
+                        "--spring.datasource.hikari.maximum-pool-size=" + (dbConcurrency * 2));
+        try {
+            ProductService productService = context.getBean(ProductService.class);
+            long minId = Long.MAX_VALUE;
+            for (int i = 0; i < PRODUCTS; i++) {
+                minId = Math.min(minId, productService.create(ProductRequest.builder()
+                        .name("Produto " + i)
+                        .description("Produto do teste de sobrecarga")
+                        .price(BigDecimal.TEN)
+                        .build()).getId());
+            }
+            String port = context.getBean(Environment.class).getProperty("local.server.port");
+            String baseUri = "http://localhost:" + port + "/api/v1/products/";
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // aquecimento com o banco rápido e metade da taxa, fora da medição: com o JIT ainda frio,
+            // a taxa cheia já derrubaria a aplicação antes do banco ficar lento
+            load(client, baseUri, minId, rate / 2, warmupSeconds, null);
+            return load(client, baseUri, minId, rate, fastSeconds + slowSeconds, new Result(fastSeconds + slowSeconds));
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Dispara {@code requestsPerSecond} requisições por segundo durante {@code seconds}, sem esperar as
+     * respostas, e espera as pendentes terminarem (no máximo duas vezes o SLO).
+     */
+    private Result load(HttpClient client, String baseUri, long minId, int requestsPerSecond, int seconds,
+                        Result result)
+            throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long start = System.nanoTime();
+        long total = (long) seconds * requestsPerSecond;
+        AtomicInteger pending = new AtomicInteger();
+        for (long i = 0; i < total; i++) {
+            long due = start + i * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (result != null && due - start >= TimeUnit.SECONDS.toNanos(fastSeconds)) {
+                dbLatencyNanos = slowDb.toNanos();
+            }
+            int second = (int) TimeUnit.NANOSECONDS.toSeconds(due - start);
+            long id = minId + ThreadLocalRandom.current().nextInt(PRODUCTS);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + id)).timeout(slo).build();
+            long sent = System.nanoTime();
+            pending.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (result != null) {
+                    result.record(second, response == null ? -1 : response.statusCode(), System.nanoTime() - sent);
+                }
+                pending.decrementAndGet();
+            });
+        }
+        long deadline = System.nanoTime() + slo.toNanos() * 2;
+        while (pending.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return result;
+    }
+
+    private BeanPostProcessor slowDatabase() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        LockSupport.parkNanos(dbLatencyNanos);
+                        return super.getConnection();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Contagens por segundo de disparo: 2xx dentro do SLO, 503 e o resto (timeout, 5xx, erro de rede).
+     */
+    static final class Result {
+
+        private final AtomicInteger[] good;
+        private final AtomicInteger[] shed;
+        private final AtomicInteger[] failed;
+        private final ConcurrentLinkedQueue<Long> goodLatencies = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Long> shedLatencies = new ConcurrentLinkedQueue<>();
+
+        Result(int seconds) {
+            good = counters(seconds);
+            shed = counters(seconds);
+            failed = counters(seconds);
+        }
+
+        private static AtomicInteger[] counters(int seconds) {
+            AtomicInteger[] counters = new AtomicInteger[seconds];
+            Arrays.setAll(counters, i -> new AtomicInteger());
+            return counters;
+        }
+
+        void record(int second, int status, long nanos) {
+            if (status >= 200 && status < 300) {
+                good[second].incrementAndGet();
+                goodLatencies.add(nanos);
+            } else if (status == 503) {
+                shed[second].incrementAndGet();
+                shedLatencies.add(nanos);
+            } else {
+                failed[second].incrementAndGet();
+            }
+        }
+
+        void print(String mode, int window, int fastSeconds) {
+            System.out.printf(Locale.ROOT, "limite %s%n%-10s %10s %10s %10s%n", mode, "janela", "goodput/s", "503/s",
+                    "outros/s");
+            for (int from = 0; from < good.length; from += window) {
+                int to = Math.min(good.length, from + window);
+                System.out.printf(Locale.ROOT, "%3d-%3d s%s %9.1f %10.1f %10.1f%n", from, to,
+                        from >= fastSeconds ? "*" : " ", rate(good, from, to), rate(shed, from, to),
+                        rate(failed, from, to));
+            }
+            System.out.printf(Locale.ROOT, "goodput com o banco lento (*): %.1f req/s; 2xx p50 %d ms, p99 %d ms; "
+                            + "503 p99 %d ms%n%n", rate(good, fastSeconds, good.length),
+                    percentile(goodLatencies, 0.5), percentile(goodLatencies, 0.99), percentile(shedLatencies, 0.99));
+        }
+
+        String json(String mode, int window) {
+            List<String> windows = new ArrayList<>();
+            for (int from = 0; from < good.length; from += window) {
+                int to = Math.min(good.length, from + window);
+                windows.add(String.format(Locale.ROOT, "{\"from\": %d, \"goodput\": %.1f, \"shed\": %.1f, \"failed\": %.1f}",
+                        from, rate(good, from, to), rate(shed, from, to), rate(failed, from, to)));
+            }
+            return String.format(Locale.ROOT, "  {\"limiter\": \"%s\", \"p99Ms\": %d, \"windows\": [%s]}", mode,
+                    percentile(goodLatencies, 0.99), String.join(", ", windows));
+        }
+
+        private static double rate(AtomicInteger[] counters, int from, int to) {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += counters[i].get();
+            }
+            return to > from ? (double) sum / (to - from) : 0;
+        }
+
+        private static long percentile(ConcurrentLinkedQueue<Long> latencies, double quantile) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(sorted[(int) Math.min(sorted.length - 1, quantile * sorted.length)]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.giovani.productapi.benchmark;
+
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    private ProductRequest request;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        request = ProductRequest.builder()
+                .name("Notebook Dell XPS 13")
+                .description("Intel Core i7, 16 GB RAM, SSD 512 GB")
+                .price(new BigDecimal("8999.90"))
+                .build();
+        product = Product.builder()
+                .id(42L)
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .imageUrl("https://cdn.example.com/products/42.png")
+                .version(3L)
+                .updatedAt(Instant.parse("2025-05-07T20:30:46Z"))
+                .build();
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return ProductMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return ProductMapper.toResponse(product);
+    }
+}
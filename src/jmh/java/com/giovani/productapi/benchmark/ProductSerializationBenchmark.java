@@ -0,0 +1,65 @@
+package com.giovani.productapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialização das respostas de lista com o mesmo ObjectMapper que o Spring MVC monta.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ProductSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ProductResponse> products;
+    private PageResponse<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        products = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> ProductResponse.builder()
+                        .id(id)
+                        .name("Produto " + id)
+                        .description("Descrição do produto " + id + " com alguns detalhes técnicos")
+                        .price(BigDecimal.valueOf(id * 137, 2))
+                        .imageUrl("https://cdn.example.com/products/" + id + ".png")
+                        .version(1L)
+                        .updatedAt(Instant.parse("2025-05-07T20:30:46Z"))
+                        .build())
+                .toList();
+        page = PageResponse.<ProductResponse>builder()
+                .content(products)
+                .page(0)
+                .size(size)
+                .totalElements(size * 50L)
+                .totalPages(50)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
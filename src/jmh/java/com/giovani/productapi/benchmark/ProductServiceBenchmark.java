@@ -0,0 +1,124 @@
+package com.giovani.productapi.benchmark;
+
+import com.giovani.productapi.ProductapiApplication;
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.pagination.KeysetCursor;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductBatchService;
+import com.giovani.productapi.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService} de ponta a ponta contra o H2 do perfil de teste, com o catálogo
+ * populado pelo endpoint de lote. {@code cache=none} mede o caminho até o banco.
+ * {@code findMissing} repete ids inexistentes (varredura de bots): com {@code caffeine}, a partir
+ * do segundo acesso o 404 sai do cache negativo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int MISSING_IDS = 10_000;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"caffeine", "none"})
+    private String cache;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Pageable deepPage;
+    private String deepCursor;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--productapi.search.engine=database",
+                        "--productapi.cache.type=" + cache);
+        productService = context.getBean(ProductService.class);
+
+        ProductBatchService batchService = context.getBean(ProductBatchService.class);
+        for (int from = 0; from < rows; from += 5_000) {
+            List<ProductRequest> chunk = new ArrayList<>(5_000);
+            for (int i = from; i < Math.min(from + 5_000, rows); i++) {
+                chunk.add(ProductRequest.builder()
+                        .name("Produto " + i)
+                        .description("Descrição do produto " + i)
+                        .price(BigDecimal.valueOf(1 + i % 10_000, 2))
+                        .build());
+            }
+            batchService.create(chunk);
+        }
+
+        ProductRepository repository = context.getBean(ProductRepository.class);
+        minId = repository.findAll(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0).getId();
+        maxId = repository.findAll(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"))).getContent().get(0).getId();
+        int lastPage = rows / PAGE_SIZE - 1;
+        deepPage = PageRequest.of(lastPage, PAGE_SIZE, Sort.by("id"));
+        deepCursor = KeysetCursor.after(ProductSortField.ID, Product.builder().id(maxId - PAGE_SIZE).build()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> findAllFirstPage() {
+        return productService.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public PageResponse<ProductResponse> findAllDeepOffsetPage() {
+        return productService.findAll(deepPage);
+    }
+
+    @Benchmark
+    public CursorPageResponse<ProductResponse> findAllDeepCursorPage() {
+        return productService.findAll(deepCursor, PAGE_SIZE, ProductSortField.ID);
+    }
+
+    @Benchmark
+    public ProductResponse findById() {
+        return productService.findById(ThreadLocalRandom.current().nextLong(minId, maxId + 1));
+    }
+
+    @Benchmark
+    public Object findMissing() {
+        try {
+            return productService.findById(maxId + 1 + ThreadLocalRandom.current().nextInt(MISSING_IDS));
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+}
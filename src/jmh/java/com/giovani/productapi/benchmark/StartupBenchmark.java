@@ -0,0 +1,257 @@
+package com.giovani.productapi.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Partida a frio do jar empacotado em cada modo: tempo do {@code exec} até a primeira resposta 200
+ * de GET /api/v1/products (time-to-first-request) e RSS do processo logo depois. Não é um benchmark
+ * JMH: cada medição é um processo novo. Reporta a mediana de {@code --runs} partidas por modo e
+ * grava o resultado em target/startup-result.json.
+ * <ul>
+ *     <li>{@code jvm}: perfil prod, como a imagem padrão</li>
+ *     <li>{@code fast}: perfis prod,fast-startup</li>
+ *     <li>{@code cds}: fast + arquivo AppCDS treinado como no Dockerfile</li>
+ *     <li>{@code aot}, {@code aot-cds}: idem com {@code -Dspring.aot.enabled=true} (jar de {@code -Pfast-startup})</li>
+ *     <li>{@code native}: target/productapi de {@code -Pnative native:compile}, se existir</li>
+ * </ul>
+ * Por padrão o banco é um H2 em memória, para medir só a aplicação; {@code --mysql} usa o
+ * datasource do perfil prod (docker-compose).
+ * {@code ./mvnw -Pfast-startup,benchmark -DskipTests package exec:exec@startup -Dstartup.args="--runs 5"}
+ */
+public class StartupBenchmark {
+
+    private static final List<String> MODES = List.of("jvm", "fast", "cds", "aot", "aot-cds", "native");
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/com/giovani/productapi/ProductapiApplication__ApplicationContextInitializer.class";
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path target;
+    private final Path jar;
+    private final boolean mysql;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    StartupBenchmark(Path target, boolean mysql) throws IOException {
+        this.target = target;
+        this.mysql = mysql;
+        try (Stream<Path> files = Files.list(target)) {
+            this.jar = files.filter(file -> file.getFileName().toString().matches("productapi-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Jar não encontrado em " + target + "; rode o package antes"));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 3;
+        List<String> modes = MODES;
+        boolean mysql = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--modes" -> modes = Arrays.asList(args[++i].split(","));
+                case "--mysql" -> mysql = true;
+                default -> throw new IllegalArgumentException("Argumento desconhecido: " + args[i]);
+            }
+        }
+
+        int runCount = runs;
+        StartupBenchmark benchmark = new StartupBenchmark(Path.of("target"), mysql);
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            List<String> command = benchmark.command(mode);
+            if (command == null) {
+                continue;
+            }
+            long[] millis = new long[runs];
+            long[] rss = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] sample = benchmark.measure(command);
+                millis[run] = sample[0];
+                rss[run] = sample[1];
+                System.out.printf(Locale.ROOT, "%-8s #%d  %6d ms  %7d KB%n", mode, run + 1, sample[0], sample[1]);
+            }
+            results.put(mode, new long[]{median(millis), median(rss)});
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-8s %22s %12s%n", "modo", "time-to-first-request", "RSS");
+        StringBuilder json = new StringBuilder("[\n");
+        results.forEach((mode, result) -> {
+            System.out.printf(Locale.ROOT, "%-8s %19d ms %9d KB%n", mode, result[0], result[1]);
+            json.append(String.format(Locale.ROOT,
+                    "  {\"mode\": \"%s\", \"runs\": %d, \"timeToFirstRequestMs\": %d, \"rssKb\": %d},%n",
+                    mode, runCount, result[0], result[1]));
+        });
+        if (!results.isEmpty()) {
+            json.setLength(json.length() - System.lineSeparator().length() - 1);
+            json.append('\n');
+        }
+        json.append("]\n");
+        Files.writeString(benchmark.target.resolve("startup-result.json"), json);
+    }
+
+    /**
+     * Linha de comando do modo, ou nulo quando o build não tem o que o modo precisa.
+     */
+    private List<String> command(String mode) throws Exception {
+        List<String> command = new ArrayList<>();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String profiles = "prod,fast-startup";
+        boolean aot = mode.startsWith("aot");
+        if (aot && !hasAotClasses()) {
+            System.out.println(mode + ": jar sem processamento AOT (build com -Pfast-startup); ignorado");
+            return null;
+        }
+        switch (mode) {
+            case "jvm" -> {
+                profiles = "prod";
+                command.addAll(List.of(java, "-jar", jar.toString()));
+            }
+            case "fast", "aot" -> command.addAll(List.of(java, "-Dspring.aot.enabled=" + aot, "-jar", jar.toString()));
+            case "cds", "aot-cds" -> {
+                Path archive = trainCds(java, aot);
+                command.addAll(List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=" + aot,
+                        "-jar", archive.resolveSibling("app.jar").toString()));
+            }
+            case "native" -> {
+                Path executable = target.resolve("productapi");
+                if (!Files.isExecutable(executable)) {
+                    System.out.println("native: target/productapi não existe (build com -Pnative native:compile); ignorado");
+                    return null;
+                }
+                command.add(executable.toString());
+            }
+            default -> throw new IllegalArgumentException("Modo desconhecido: " + mode + " (modos: " + MODES + ")");
+        }
+        command.add("--spring.profiles.active=" + profiles);
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--logging.level.root=WARN");
+        if (!mysql) {
+            command.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        }
+        return command;
+    }
+
+    /**
+     * Extrai o jar e treina o arquivo AppCDS como no Dockerfile (uma vez por modo).
+     */
+    private Path trainCds(String java, boolean aot) throws Exception {
+        Path directory = target.resolve(aot ? "startup-aot-cds" : "startup-cds");
+        Path archive = directory.resolve("app.jsa");
+        if (Files.exists(archive)) {
+            return archive;
+        }
+        Files.createDirectories(directory);
+        Files.copy(jar, directory.resolve("source.jar"), StandardCopyOption.REPLACE_EXISTING);
+        run(directory, java, "-Djarmode=tools", "-jar", "source.jar", "extract", "--destination", ".",
+                "--application-filename", "app.jar", "--force");
+        run(directory, java, "-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=" + aot, "-jar", "app.jar",
+                "--spring.profiles.active=prod,fast-startup", "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:cds", "--spring.datasource.driver-class-name=org.h2.Driver");
+        return archive;
+    }
+
+    private long[] measure(List<String> command) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/products?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(target.resolve("startup-app.log").toFile())
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("A aplicação saiu com código " + process.exitValue()
+                            + "; ver target/startup-app.log");
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("A aplicação não respondeu em " + TIMEOUT);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // ainda subindo
+                }
+                Thread.sleep(20);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{millis, rssKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean hasAotClasses() throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static long rssKb(long pid) throws Exception {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? -1 : Long.parseLong(output);
+    }
+
+    private static void run(Path directory, String... command) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("train.log").toFile())
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " falhou; ver " + directory.resolve("train.log"));
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
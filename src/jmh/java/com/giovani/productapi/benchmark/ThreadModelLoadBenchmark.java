@@ -0,0 +1,83 @@
+package com.giovani.productapi.benchmark;
+
+import com.giovani.productapi.ProductapiApplication;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga do modo de threads: 256 clientes simultâneos em GET /api/v1/products/{id} sem
+ * cache, para que toda requisição bloqueie no JDBC. {@code SampleTime} reporta vazão e percentis
+ * (p99 em {@code ·p0.99}). Os dois modos usam o mesmo pool do Hikari; {@code platform} limita o
+ * Tomcat a 64 threads para reproduzir o esgotamento de threads de requisição.
+ * <p>
+ * O modo {@code virtual} só tem efeito em Java 21:
+ * {@code ./mvnw -Pjava21,benchmark test-compile exec:exec -Djmh.args="ThreadModelLoadBenchmark"}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class ThreadModelLoadBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUri;
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProductapiApplication.class)
+                .run("--spring.profiles.active=test" + ("virtual".equals(threads) ? ",virtual-threads" : ""),
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=64",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--productapi.cache.type=none",
+                        "--spring.datasource.hikari.maximum-pool-size=20");
+        ProductService productService = context.getBean(ProductService.class);
+        minId = Long.MAX_VALUE;
+        for (int i = 0; i < PRODUCTS; i++) {
+            minId = Math.min(minId, productService.create(ProductRequest.builder()
+                    .name("Produto " + i)
+                    .description("Produto do teste de carga")
+                    .price(BigDecimal.TEN)
+                    .build()).getId());
+        }
+
+        String port = context.getBean(Environment.class).getProperty("local.server.port");
+        baseUri = "http://localhost:" + port + "/api/v1/products/";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findById() throws Exception {
+        long id = minId + ThreadLocalRandom.current().nextInt(PRODUCTS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + id)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,9 +1,28 @@
 package com.giovani.productapi;
 
+import com.giovani.productapi.cache.ProductCacheProperties;
+import com.giovani.productapi.concurrency.ConcurrencyLimitProperties;
+import com.giovani.productapi.config.BatchProperties;
+import com.giovani.productapi.config.DatabaseConcurrencyProperties;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.datasource.ReplicaProperties;
+import com.giovani.productapi.feed.ChangeFeedProperties;
+import com.giovani.productapi.idempotency.IdempotencyProperties;
+import com.giovani.productapi.image.ImageProperties;
+import com.giovani.productapi.imports.ImportProperties;
+import com.giovani.productapi.jdbc.SqlTraceProperties;
+import com.giovani.productapi.snapshot.SnapshotProperties;
+import com.giovani.productapi.stats.ProductStatsProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({PaginationProperties.class, BatchProperties.class, ProductCacheProperties.class,
+		DatabaseConcurrencyProperties.class, ReplicaProperties.class, ChangeFeedProperties.class,
+		IdempotencyProperties.class, ImageProperties.class, ProductStatsProperties.class, ImportProperties.class,
+		ConcurrencyLimitProperties.class, SqlTraceProperties.class,
+		SnapshotProperties.class})
 public class ProductapiApplication {
 
 	public static void main(String[] args) {
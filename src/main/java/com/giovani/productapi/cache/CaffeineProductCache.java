@@ -0,0 +1,138 @@
+package com.giovani.productapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.giovani.productapi.dto.CacheStatsResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cache local limitado por tamanho e TTL. O Caffeine usa W-TinyLFU para decidir quem entra
+ * quando o cache está cheio, o que protege o conjunto quente de SKUs contra varreduras pontuais.
+ * As estatísticas também são publicadas no Micrometer como {@code cache.*{cache="products"}}.
+ * <p>
+ * Ids inexistentes ficam num segundo cache, menor e de TTL curto ({@code cache="products-missing"}),
+ * para que varreduras de ids aleatórios respondam 404 sem ir ao banco. O valor é a própria exceção
+ * (sem stack trace, com o corpo pronto), reaproveitada a cada consulta. Um id criado em outra
+ * instância pode continuar 404 aqui por até {@code missing-ttl}.
+ * <p>
+ * {@link #put} só troca uma entrada por outra de versão igual ou maior, e ids excluídos ficam num
+ * terceiro cache pelo mesmo {@code missing-ttl} recusando novas entradas, o que impede uma carga lenta
+ * de reinstalar um produto atualizado ou excluído enquanto ela lia o banco.
+ */
+@Component
+@ConditionalOnProperty(prefix = "productapi.cache", name = "type", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineProductCache implements ProductCache, MeterBinder {
+
+    private final Cache<Long, ProductResponse> cache;
+    private final Cache<Long, ResourceNotFoundException> missing;
+    private final Cache<Long, Boolean> deleted;
+
+    @Autowired
+    public CaffeineProductCache(ProductCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    CaffeineProductCache(ProductCacheProperties properties, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(properties.missingMaximumSize())
+                .expireAfterWrite(properties.missingTtl())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.deleted = Caffeine.newBuilder()
+                .maximumSize(properties.missingMaximumSize())
+                .expireAfterWrite(properties.missingTtl())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public Optional<ProductResponse> get(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    @Override
+    public void put(ProductResponse product) {
+        Long id = product.getId();
+        if (deleted.getIfPresent(id) != null) {
+            return;
+        }
+        cache.asMap().compute(id, (key, current) -> deleted.getIfPresent(key) != null ? current
+                : current == null || version(product) >= version(current) ? product : current);
+        missing.invalidate(id);
+    }
+
+    @Override
+    public void evict(Long id) {
+        cache.invalidate(id);
+        missing.invalidate(id);
+    }
+
+    @Override
+    public void evictAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+        missing.invalidateAll(ids);
+    }
+
+    @Override
+    public void evictDeleted(Long id, ResourceNotFoundException notFound) {
+        // a marca entra antes da remoção: um put concorrente ou vê a marca ou é removido logo depois
+        deleted.put(id, Boolean.TRUE);
+        cache.invalidate(id);
+        missing.put(id, notFound);
+    }
+
+    @Override
+    public Optional<ResourceNotFoundException> getMissing(Long id) {
+        return Optional.ofNullable(missing.getIfPresent(id));
+    }
+
+    @Override
+    public void putMissing(Long id, ResourceNotFoundException notFound) {
+        missing.put(id, notFound);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+        CaffeineCacheMetrics.monitor(registry, missing, "products-missing");
+    }
+
+    @Override
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .type("caffeine")
+                .size(cache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .build();
+    }
+
+    private static long version(ProductResponse product) {
+        return product.getVersion() == null ? -1 : product.getVersion();
+    }
+}
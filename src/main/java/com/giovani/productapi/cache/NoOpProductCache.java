@@ -0,0 +1,57 @@
+package com.giovani.productapi.cache;
+
+import com.giovani.productapi.dto.CacheStatsResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@ConditionalOnProperty(prefix = "productapi.cache", name = "type", havingValue = "none")
+public class NoOpProductCache implements ProductCache {
+
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public Optional<ProductResponse> get(Long id) {
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(ProductResponse product) {
+    }
+
+    @Override
+    public void evict(Long id) {
+    }
+
+    @Override
+    public void evictAll(Collection<Long> ids) {
+    }
+
+    @Override
+    public void evictDeleted(Long id, ResourceNotFoundException notFound) {
+    }
+
+    @Override
+    public Optional<ResourceNotFoundException> getMissing(Long id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void putMissing(Long id, ResourceNotFoundException notFound) {
+    }
+
+    @Override
+    public CacheStatsResponse stats() {
+        return CacheStatsResponse.builder()
+                .type("none")
+                .misses(misses.sum())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.giovani.productapi.cache;
+
+import com.giovani.productapi.dto.CacheStatsResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cache de {@link ProductResponse} por id usado pelo {@code ProductService}. A implementação ativa
+ * é escolhida por {@code productapi.cache.type}, então um backend distribuído pode ser plugado sem
+ * mudar o serviço nem os controllers.
+ */
+public interface ProductCache {
+
+    Optional<ProductResponse> get(Long id);
+
+    /**
+     * Guarda o produto, a menos que o cache já tenha uma versão mais nova dele ou que ele tenha sido
+     * excluído há pouco ({@link #evictDeleted}): assim uma leitura lenta do banco que termina depois de
+     * uma escrita não sobrescreve o estado novo.
+     */
+    void put(ProductResponse product);
+
+    void evict(Long id);
+
+    void evictAll(Collection<Long> ids);
+
+    /**
+     * Produto excluído: sai do cache, passa a responder {@code notFound} e fica bloqueado para
+     * {@link #put} por {@code missing-ttl}, para que uma carga em andamento não o traga de volta.
+     */
+    void evictDeleted(Long id, ResourceNotFoundException notFound);
+
+    /**
+     * 404 já montado (a exceção com a mensagem) para um id consultado recentemente e não encontrado no banco.
+     * {@link #put} e {@link #evict} do mesmo id apagam a marca; fora isso ela dura {@code missing-ttl}.
+     */
+    Optional<ResourceNotFoundException> getMissing(Long id);
+
+    void putMissing(Long id, ResourceNotFoundException notFound);
+
+    CacheStatsResponse stats();
+}
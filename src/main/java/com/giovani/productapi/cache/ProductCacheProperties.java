@@ -0,0 +1,19 @@
+package com.giovani.productapi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param missingMaximumSize ids inexistentes lembrados (cache negativo); 0 desliga
+ * @param missingTtl         por quanto tempo um id inexistente responde 404 sem consultar o banco
+ */
+@ConfigurationProperties(prefix = "productapi.cache")
+public record ProductCacheProperties(
+        @DefaultValue("caffeine") String type,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("100000") long missingMaximumSize,
+        @DefaultValue("30s") Duration missingTtl) {
+}
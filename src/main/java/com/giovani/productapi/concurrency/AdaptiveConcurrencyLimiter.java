@@ -0,0 +1,111 @@
+package com.giovani.productapi.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orçamento de requisições simultâneas de um tipo (leitura ou escrita), com o limite ajustado por
+ * {@link VegasLimit}. Quem não consegue permissão é rejeitado na hora, sem fila: esperar aqui só
+ * somaria latência a uma requisição que o cliente provavelmente já desistiu de esperar.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final String type;
+    private final VegasLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String type, ConcurrencyLimitProperties.Limit limits, int probeMultiplier) {
+        this.type = type;
+        this.limit = new VegasLimit(limits.initial(), limits.min(), limits.max(), probeMultiplier);
+    }
+
+    /**
+     * @return a permissão, que deve ser devolvida com {@link Permit#release(boolean)} ou
+     * {@link Permit#ignore()}; {@code null} quando o limite já está em uso
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.limit()) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime(), current + 1);
+            }
+        }
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Requisições simultâneas permitidas no momento")
+                .tag("type", type)
+                .register(registry);
+        Gauge.builder("productapi.concurrency.inflight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requisições em andamento")
+                .tag("type", type)
+                .register(registry);
+        FunctionCounter.builder("productapi.concurrency.rejected", this, AdaptiveConcurrencyLimiter::rejected)
+                .description("Requisições rejeitadas com 503 por falta de permissão")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Devolve a permissão e alimenta o limite com a latência da requisição.
+         *
+         * @param dropped a requisição falhou por erro do servidor (5xx ou exceção)
+         */
+        public void release(boolean dropped) {
+            if (free()) {
+                limit.update(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            }
+        }
+
+        /**
+         * Devolve a permissão sem amostra de latência (requisição que não chegou a usar o servidor de fato).
+         */
+        public void ignore() {
+            free();
+        }
+
+        private boolean free() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
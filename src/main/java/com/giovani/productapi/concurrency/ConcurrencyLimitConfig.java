@@ -0,0 +1,44 @@
+package com.giovani.productapi.concurrency;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Limite adaptativo depois do filtro de Idempotency-Key: repetições respondidas da memória não
+ * ocupam permissão, e a espera por uma requisição igual em andamento (até {@code wait-timeout})
+ * não entra na amostra de latência nem segura uma permissão de escrita.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "productapi.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter("read", properties.reads(), properties.probeMultiplier());
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter writeConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimiter("write", properties.writes(), properties.probeMultiplier());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties,
+            @Qualifier("readConcurrencyLimiter") AdaptiveConcurrencyLimiter reads,
+            @Qualifier("writeConcurrencyLimiter") AdaptiveConcurrencyLimiter writes,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(reads, writes, exceptionResolver, properties.retryAfter()));
+        registration.addUrlPatterns("/api/v1/products", "/api/v1/products/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 25);
+        return registration;
+    }
+}
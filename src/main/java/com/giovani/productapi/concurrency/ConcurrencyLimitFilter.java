@@ -0,0 +1,100 @@
+package com.giovani.productapi.concurrency;
+
+import com.giovani.productapi.exceptions.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Limite adaptativo de concorrência nas rotas de produto, com orçamentos separados: leituras
+ * ({@code GET /api/v1/products}, {@code /cursor} e {@code /{id}}) e escritas ({@code POST /api/v1/products},
+ * {@code PUT}/{@code PATCH}/{@code DELETE /{id}}). Escritas lentas não tiram permissões das leituras,
+ * que costumam ser servidas pelo cache. Sem permissão, a resposta é 503 com {@code Retry-After} na hora,
+ * pelo GlobalExceptionHandler. As demais rotas (exportação, feed, lote, busca) passam direto: têm seus
+ * próprios limites ou não são curtas o bastante para uma amostra de latência fazer sentido.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PRODUCTS = "/api/v1/products";
+    private static final String MESSAGE = "Serviço sobrecarregado. Tente novamente em instantes.";
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes,
+                                  HandlerExceptionResolver exceptionResolver, Duration retryAfter) {
+        this.reads = reads;
+        this.writes = writes;
+        this.exceptionResolver = exceptionResolver;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return limiterFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceOverloadedException(MESSAGE, retryAfter));
+            return;
+        }
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // a resposta segue em outra thread; a latência até aqui não representa a requisição
+                permit.ignore();
+            } else {
+                permit.release(dropped);
+            }
+        }
+    }
+
+    AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(PRODUCTS)) {
+            return null;
+        }
+        String rest = path.substring(PRODUCTS.length());
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        boolean collection = rest.isEmpty();
+        boolean item = !collection && isId(rest);
+        return switch (request.getMethod()) {
+            case "GET", "HEAD" -> collection || item || rest.equals("/cursor") ? reads : null;
+            case "POST" -> collection ? writes : null;
+            case "PUT", "PATCH", "DELETE" -> item ? writes : null;
+            default -> null;
+        };
+    }
+
+    // "/123"
+    private static boolean isId(String rest) {
+        if (rest.length() < 2 || rest.charAt(0) != '/') {
+            return false;
+        }
+        for (int i = 1; i < rest.length(); i++) {
+            if (!Character.isDigit(rest.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.giovani.productapi.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled         liga o limite adaptativo em {@code /api/v1/products}
+ * @param reads           orçamento das leituras (busca por id, listagens)
+ * @param writes          orçamento das escritas (criação, atualização, exclusão)
+ * @param retryAfter      valor do {@code Retry-After} das respostas 503
+ * @param probeMultiplier a referência de latência sem fila é refeita a cada {@code probeMultiplier * limite} amostras
+ */
+@ConfigurationProperties(prefix = "productapi.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Limit reads,
+        @DefaultValue Limit writes,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("30") int probeMultiplier) {
+
+    /**
+     * @param initial limite na subida da aplicação, antes de haver amostras
+     * @param min     piso; mesmo com o banco parado, algumas requisições passam para medir a recuperação
+     * @param max     teto
+     */
+    public record Limit(
+            @DefaultValue("20") int initial,
+            @DefaultValue("2") int min,
+            @DefaultValue("200") int max) {
+    }
+}
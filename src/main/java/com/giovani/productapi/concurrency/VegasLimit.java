@@ -0,0 +1,73 @@
+package com.giovani.productapi.concurrency;
+
+/**
+ * Limite de concorrência no estilo TCP Vegas. A menor latência observada é a referência sem fila
+ * ({@code rttNoLoad}); numa amostra com {@code inFlight} requisições em andamento, a fila estimada é
+ * {@code inFlight * (1 - rttNoLoad / rtt)}. Fila pequena com o limite em uso faz o limite subir
+ * ({@code + log10(limite)}); fila grande faz descer. Falhas (5xx, exceção) reduzem o limite
+ * multiplicativamente, porque o banco parado não aparece na latência de quem já falhou.
+ * <p>
+ * A referência é refeita periodicamente (a cada {@code probeMultiplier * limite} amostras) para que
+ * uma mudança duradoura na latência base, como um catálogo maior, não seja tratada para sempre como fila.
+ * Amostras com o limite sobrando (menos da metade em uso) não aumentam o limite: sem demanda, a
+ * latência baixa não prova que o banco aguenta mais.
+ */
+final class VegasLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeMultiplier;
+
+    private volatile double limit;
+    private long rttNoLoad;
+    private long samplesSinceProbe;
+
+    VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeMultiplier = probeMultiplier;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param rttNanos latência da requisição
+     * @param inFlight requisições em andamento quando ela entrou (incluindo ela)
+     * @param dropped  a requisição falhou por erro do servidor
+     */
+    synchronized void update(long rttNanos, int inFlight, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samplesSinceProbe >= probeMultiplier * current) {
+            samplesSinceProbe = 0;
+            rttNoLoad = rttNanos;
+            return;
+        }
+        if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+            rttNoLoad = rttNanos;
+            return;
+        }
+
+        double queue = inFlight * (1 - (double) rttNoLoad / rttNanos);
+        double step = Math.max(1, Math.log10(current));
+        if (queue >= 6 * step) {
+            limit = Math.max(minLimit, current - step);
+        } else if (queue <= 3 * step && inFlight * 2 >= current) {
+            limit = Math.min(maxLimit, current + step);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.giovani.productapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "productapi.batch")
+public record BatchProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("10000") int maxItems) {
+}
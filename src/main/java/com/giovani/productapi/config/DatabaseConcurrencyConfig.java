@@ -0,0 +1,35 @@
+package com.giovani.productapi.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DatabaseConcurrencyConfig {
+
+    /**
+     * Envolve o DataSource da aplicação (bean {@code dataSource}) com {@link ConcurrencyLimitingDataSource}
+     * quando {@code productapi.db.max-concurrency} é maior que zero. Pools internos, como os do
+     * roteamento primário/réplica, ficam de fora para a permissão não ser cobrada duas vezes.
+     */
+    @Bean
+    static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            ObjectProvider<DatabaseConcurrencyProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                DatabaseConcurrencyProperties limits = properties.getObject();
+                return limits.enabled()
+                        ? new ConcurrencyLimitingDataSource(dataSource, limits.maxConcurrency(), limits.acquireTimeout())
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.giovani.productapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limite de acessos simultâneos ao banco. {@code maxConcurrency = 0} desliga o limite.
+ */
+@ConfigurationProperties(prefix = "productapi.db")
+public record DatabaseConcurrencyProperties(
+        @DefaultValue("0") int maxConcurrency,
+        @DefaultValue("5s") Duration acquireTimeout) {
+
+    public boolean enabled() {
+        return maxConcurrency > 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.giovani.productapi.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Perfil {@code fast-startup}: com {@code spring.main.lazy-initialization} os beans só são criados
+ * no primeiro uso. Ficam de fora o que não pode esperar a primeira requisição: o banco (migrations
+ * e bootstrap do Hibernate, que custariam segundos na primeira chamada) e os {@link MeterBinder},
+ * que agendam as tarefas em segundo plano (reconciliação, limpeza do feed, atraso da réplica).
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerInfrastructure() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class,
+                FlywayMigrationInitializer.class, EntityManagerFactory.class, MeterBinder.class);
+    }
+}
@@ -0,0 +1,17 @@
+package com.giovani.productapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "productapi.pagination")
+public record PaginationProperties(
+        @DefaultValue("20") int defaultSize,
+        @DefaultValue("100") int maxSize) {
+
+    public int clamp(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+}
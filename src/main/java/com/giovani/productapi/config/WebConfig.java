@@ -0,0 +1,19 @@
+package com.giovani.productapi.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.config.PageableHandlerMethodArgumentResolverCustomizer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Bean
+    public PageableHandlerMethodArgumentResolverCustomizer pageableCustomizer(PaginationProperties pagination) {
+        return resolver -> {
+            resolver.setMaxPageSize(pagination.maxSize());
+            resolver.setFallbackPageable(PageRequest.of(0, pagination.defaultSize()));
+        };
+    }
+}
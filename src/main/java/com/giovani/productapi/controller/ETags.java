@@ -0,0 +1,65 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ETags derivados da coluna {@code version}: fortes para um produto, fracos para listas
+ * (hash das versões dos itens da página).
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    static String ofList(List<ProductResponse> products, Object... meta) {
+        long hash = 1;
+        for (ProductResponse product : products) {
+            hash = 31 * hash + product.getId();
+            hash = 31 * hash + (product.getVersion() == null ? 0 : product.getVersion());
+        }
+        for (Object value : meta) {
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Lista com {@code fields=}: hash dos valores das linhas (a versão pode não ter sido pedida).
+     */
+    static String ofRows(List<Map<String, Object>> rows, Object... meta) {
+        long hash = 1;
+        for (Map<String, Object> row : rows) {
+            hash = 31 * hash + row.hashCode();
+        }
+        for (Object value : meta) {
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Versão esperada a partir de {@code If-Match}; {@code null} quando o cabeçalho está ausente ou é {@code *}.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido: " + ifMatch);
+        }
+    }
+}
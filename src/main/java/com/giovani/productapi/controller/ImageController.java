@@ -0,0 +1,147 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.image.Blob;
+import com.giovani.productapi.image.ImageFormat;
+import com.giovani.productapi.image.ImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+@Tag(name = "Imagens", description = "Upload e download das imagens de produtos")
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class ImageController {
+
+    // atributos do Tomcat para entregar o arquivo com sendfile (FileChannel.transferTo), sem copiar pela JVM
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // abaixo disso a cópia comum sai mais barata que preparar o sendfile
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // o nome é o hash do conteúdo: a URL nunca muda de conteúdo
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final ImageService imageService;
+
+    @Operation(summary = "Enviar a imagem de um produto (corpo binário, recebido em streaming)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagem gravada e imageUrl atualizado"),
+            @ApiResponse(responseCode = "400", description = "Imagem vazia, grande demais ou em formato não suportado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping(value = "/products/{id}/image", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ProductResponse> upload(@PathVariable Long id, HttpServletRequest request,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws IOException {
+        return uploaded(imageService.upload(id, request.getInputStream(), ETags.parseIfMatch(ifMatch)));
+    }
+
+    @Operation(summary = "Enviar a imagem de um produto (multipart, campo file)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagem gravada e imageUrl atualizado"),
+            @ApiResponse(responseCode = "400", description = "Imagem vazia, grande demais ou em formato não suportado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping(value = "/products/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductResponse> uploadMultipart(@PathVariable Long id, @RequestPart("file") MultipartFile file,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws IOException {
+        // o container grava a parte em disco (file-size-threshold=0); aqui ela é lida em streaming
+        try (InputStream in = file.getInputStream()) {
+            return uploaded(imageService.upload(id, in, ETags.parseIfMatch(ifMatch)));
+        }
+    }
+
+    @Operation(summary = "Baixar uma imagem ou miniatura (URL imutável, aceita Range)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Imagem completa"),
+            @ApiResponse(responseCode = "206", description = "Trecho pedido no Range"),
+            @ApiResponse(responseCode = "304", description = "Imagem já está no cache do cliente"),
+            @ApiResponse(responseCode = "404", description = "Imagem não encontrada ou miniatura ainda não gerada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/images/{name}")
+    public ResponseEntity<Resource> download(@PathVariable String name, WebRequest webRequest,
+                                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + name + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        Blob blob = imageService.find(name).orElse(null);
+        if (blob == null) {
+            if (ImageService.isThumbnail(name)) {
+                imageService.requestThumbnail(name);
+                throw new ResourceNotFoundException("Miniatura ainda não gerada: " + name);
+            }
+            throw new ResourceNotFoundException("Imagem não encontrada: " + name);
+        }
+        MediaType contentType = ImageService.formatOf(name).map(ImageFormat::mediaType)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        if (canSendfile(request, blob)) {
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setContentLengthLong(blob.length());
+            request.setAttribute(SENDFILE_FILENAME, blob.resource().getFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, blob.length());
+            return null;
+        }
+        // Range vira ResourceRegion (206) no conversor do Spring; sem Range, cópia em streaming
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(blob.resource());
+    }
+
+    private static boolean canSendfile(HttpServletRequest request, Blob blob) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && blob.length() >= SENDFILE_MIN_SIZE
+                && blob.resource().isFile()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+    }
+
+    private static ResponseEntity<ProductResponse> uploaded(ProductResponse product) {
+        return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product);
+    }
+}
@@ -0,0 +1,70 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.dto.ImportErrorResponse;
+import com.giovani.productapi.dto.ImportJobResponse;
+import com.giovani.productapi.imports.ImportFormat;
+import com.giovani.productapi.imports.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+@Tag(name = "Importação", description = "Importação assíncrona de catálogos grandes (CSV ou NDJSON)")
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final ImportService importService;
+
+    @Operation(summary = "Enviar um arquivo para importação (corpo recebido em streaming; a importação roda em segundo plano)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Arquivo recebido; acompanhe pelo Location"),
+            @ApiResponse(responseCode = "400", description = "Arquivo vazio ou acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportJobResponse> submit(HttpServletRequest request) throws IOException {
+        ImportJobResponse job = importService.submit(request.getInputStream(), ImportFormat.from(request.getContentType()));
+        return ResponseEntity.accepted().location(URI.create("/api/v1/imports/" + job.getId())).body(job);
+    }
+
+    @Operation(summary = "Situação, progresso e vazão de uma importação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação encontrada"),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> find(@PathVariable String id) {
+        return ResponseEntity.ok(importService.find(id));
+    }
+
+    @Operation(summary = "Registros rejeitados de uma importação, em ordem de linha (after = cursor next da página anterior)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de erros"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Importação não encontrada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<CursorPageResponse<ImportErrorResponse>> errors(@PathVariable String id,
+                                                                          @RequestParam(required = false) Long after,
+                                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(importService.errors(id, after, size));
+    }
+}
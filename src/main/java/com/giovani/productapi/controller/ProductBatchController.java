@@ -0,0 +1,78 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.BatchResponse;
+import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.dto.ProductBatchUpdateRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.service.ProductBatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@Tag(name = "Produtos em lote", description = "Criação, atualização e exclusão de produtos em lote")
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/products/batch")
+@RequiredArgsConstructor
+public class ProductBatchController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final ProductBatchService batchService;
+
+    @Operation(summary = "Criar produtos em lote (array JSON)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResponse> create(@RequestBody List<ProductRequest> requests) {
+        return ResponseEntity.ok(batchService.create(requests));
+    }
+
+    @Operation(summary = "Criar produtos em lote (NDJSON, um produto por linha)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(consumes = APPLICATION_NDJSON)
+    public ResponseEntity<BatchResponse> createNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(batchService.createNdjson(request.getInputStream()));
+    }
+
+    @Operation(summary = "Atualizar produtos em lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping
+    public ResponseEntity<BatchResponse> update(@RequestBody List<ProductBatchUpdateRequest> requests) {
+        return ResponseEntity.ok(batchService.update(requests));
+    }
+
+    @Operation(summary = "Excluir produtos em lote pelos IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping
+    public ResponseEntity<BatchResponse> delete(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(batchService.delete(ids));
+    }
+}
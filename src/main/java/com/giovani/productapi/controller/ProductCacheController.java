@@ -0,0 +1,28 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.dto.CacheStatsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Cache", description = "Observabilidade do cache de produtos")
+@RestController
+@RequestMapping("/api/v1/products/cache")
+@RequiredArgsConstructor
+public class ProductCacheController {
+
+    private final ProductCache productCache;
+
+    @Operation(summary = "Estatísticas de acerto, erro e despejo do cache de produtos")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso")
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsResponse> stats() {
+        return ResponseEntity.ok(productCache.stats());
+    }
+}
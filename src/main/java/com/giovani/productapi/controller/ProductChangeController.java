@@ -0,0 +1,74 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.feed.ChangeFeedFormat;
+import com.giovani.productapi.feed.ProductChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+@Tag(name = "Feed de mudanças", description = "Mudanças do catálogo em ordem, a partir de um offset")
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/products/changes")
+@RequiredArgsConstructor
+public class ProductChangeController {
+
+    private final ProductChangeFeed changeFeed;
+
+    @Operation(summary = "Acompanhar mudanças via Server-Sent Events (retoma pelo Last-Event-ID)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feed aberto"),
+            @ApiResponse(responseCode = "400", description = "Offset inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "410", description = "Offset fora da retenção: recarregar o catálogo e assinar sem offset",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Limite de conexões no feed atingido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> events(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return open(lastEventId != null ? lastEventId : after, ChangeFeedFormat.SSE);
+    }
+
+    @Operation(summary = "Acompanhar mudanças em NDJSON (retoma com after = último offset lido)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feed aberto"),
+            @ApiResponse(responseCode = "400", description = "Offset inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "410", description = "Offset fora da retenção: recarregar o catálogo e assinar sem offset",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Limite de conexões no feed atingido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> ndjson(@RequestParam(required = false) Long after) {
+        return open(after, ChangeFeedFormat.NDJSON);
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> open(Long after, ChangeFeedFormat format) {
+        long offset = after == null ? 0 : after;
+        if (offset < 0) {
+            throw new BadRequestException("Offset inválido: " + offset);
+        }
+        // sem offset o cliente começa pelo que estiver guardado; com offset, ele não pode ter perdido nada
+        if (after != null) {
+            changeFeed.checkRetained(offset);
+        }
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(changeFeed.subscribe(offset, format));
+    }
+}
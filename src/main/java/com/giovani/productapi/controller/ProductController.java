@@ -1,10 +1,23 @@
 package com.giovani.productapi.controller;
 
+import com.giovani.productapi.dto.CursorPageResponse;
 import com.giovani.productapi.dto.ErrorResponse;
+import com.giovani.productapi.dto.MultiGetResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductPatchRequest;
 import com.giovani.productapi.dto.ProductRequest;
 import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.export.ExportFormat;
+import com.giovani.productapi.export.ProductExportService;
+import com.giovani.productapi.idempotency.IdempotencyFilter;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductField;
+import com.giovani.productapi.repository.ProductVersion;
+import com.giovani.productapi.search.ProductSearchCriteria;
 import com.giovani.productapi.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,69 +25,230 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Tag(name = "Produtos", description = "API para gerenciamento de produtos")
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String FIELDS_DESCRIPTION =
+            "Campos da resposta separados por vírgula (ex.: id,name,price); só eles são lidos do banco";
+
     private final ProductService productService;
+    private final ProductExportService exportService;
 
-    @Operation(summary = "Criar um novo produto")
+    @Operation(summary = "Criar um novo produto", parameters = @Parameter(in = ParameterIn.HEADER,
+            name = IdempotencyFilter.HEADER, description = "Repetições com a mesma chave devolvem a resposta original"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Produto criado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Requisição inválida",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Requisição com a mesma Idempotency-Key em andamento",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outra requisição",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping
     public ResponseEntity<ProductResponse> create(@RequestBody @Valid ProductRequest request) {
-        return new ResponseEntity<>(productService.create(request), HttpStatus.CREATED);
+        ProductResponse product = productService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(product.getVersion())).body(product);
     }
 
-    @Operation(summary = "Listar todos os produtos")
-    @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso")
+    @Operation(summary = "Listar produtos paginados por offset")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página não mudou desde o ETag informado"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido em fields ou na ordenação",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<PageResponse<?>> findAll(
+            @ParameterObject @SortDefault("id") Pageable pageable,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        if (selected != null) {
+            PageResponse<Map<String, Object>> page = productService.findAll(pageable, selected);
+            return ResponseEntity.ok()
+                    .eTag(ETags.ofRows(page.getContent(), page.getPage(), page.getSize(), page.getTotalElements()))
+                    .body(page);
+        }
+        PageResponse<ProductResponse> page = productService.findAll(pageable);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList(page.getContent(), page.getPage(), page.getSize(), page.getTotalElements()))
+                .body(page);
+    }
+
+    @Operation(summary = "Listar produtos paginados por cursor (keyset)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor, campo de ordenação ou fields inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<?>> findAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        if (selected != null) {
+            CursorPageResponse<Map<String, Object>> page =
+                    productService.findAll(cursor, size, ProductSortField.from(sortBy), selected);
+            return ResponseEntity.ok()
+                    .eTag(ETags.ofRows(page.getContent(), page.getNext(), page.getPrev()))
+                    .body(page);
+        }
+        CursorPageResponse<ProductResponse> page = productService.findAll(cursor, size, ProductSortField.from(sortBy));
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList(page.getContent(), page.getNext(), page.getPrev()))
+                .body(page);
+    }
+
+    @Operation(summary = "Pesquisar produtos por texto (nome/descrição) e faixa de preço")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de resultados"),
+            @ApiResponse(responseCode = "400", description = "Filtros ou ordenação inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<ProductResponse>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @ParameterObject @SortDefault("id") Pageable pageable) {
+        return ResponseEntity.ok(productService.search(new ProductSearchCriteria(q, minPrice, maxPrice), pageable));
+    }
+
+    @Operation(summary = "Buscar vários produtos pelos IDs (ids=1,2,3)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponse> findAllById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllById(ids));
+    }
+
+    @Operation(summary = "Buscar vários produtos pelos IDs enviados no corpo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<MultiGetResponse> lookup(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllById(ids));
+    }
+
+    @Operation(summary = "Exportar o catálogo completo em NDJSON ou CSV (streaming)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @Operation(summary = "Buscar um produto pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado"),
+            @ApiResponse(responseCode = "304", description = "Produto não mudou desde o ETag/data informados"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id));
+    public ResponseEntity<ProductResponse> findById(@PathVariable Long id, WebRequest request) {
+        // requisição condicional: só a versão é consultada, sem carregar nem serializar o produto
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ProductVersion current = productService.findVersion(id);
+            long lastModified = current.updatedAt() == null ? -1 : current.updatedAt().toEpochMilli();
+            if (request.checkNotModified(ETags.of(current.version()), lastModified)) {
+                return null;
+            }
+        }
+        ProductResponse product = productService.findById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.of(product.getVersion()));
+        if (product.getUpdatedAt() != null) {
+            response.lastModified(product.getUpdatedAt());
+        }
+        return response.body(product);
     }
 
     @Operation(summary = "Atualizar um produto pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}")
-    public ResponseEntity<ProductResponse> update(@PathVariable Long id, @RequestBody @Valid ProductRequest request) {
-        return ResponseEntity.ok(productService.update(id, request));
+    public ResponseEntity<ProductResponse> update(@PathVariable Long id, @RequestBody @Valid ProductRequest request,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductResponse product = productService.update(id, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product);
+    }
+
+    @Operation(summary = "Atualizar parcialmente um produto (JSON Merge Patch)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido ou não alterável",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ProductResponse> patch(@PathVariable Long id, @RequestBody ProductPatchRequest patch,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductResponse product = productService.patch(id, patch, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product);
     }
 
     @Operation(summary = "Excluir um produto pelo ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Produto excluído com sucesso"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long id) {
-        productService.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productService.delete(id, ETags.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
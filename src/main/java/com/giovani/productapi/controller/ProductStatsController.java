@@ -0,0 +1,32 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.ProductStatsResponse;
+import com.giovani.productapi.stats.ProductStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Estatísticas", description = "Agregados do catálogo de produtos")
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/v1/products/stats")
+@RequiredArgsConstructor
+public class ProductStatsController {
+
+    private final ProductStatistics statistics;
+
+    @Operation(summary = "Quantidade, preço mínimo/máximo/médio e histograma de preços",
+            description = "Lido de agregados mantidos pelas escritas e reconciliados periodicamente com o banco, "
+                    + "sem consultar a tabela de produtos.")
+    @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso")
+    @GetMapping
+    public ResponseEntity<ProductStatsResponse> stats() {
+        return ResponseEntity.ok(statistics.snapshot());
+    }
+}
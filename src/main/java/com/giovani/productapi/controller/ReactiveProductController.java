@@ -0,0 +1,106 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Contrato de {@code /api/v1/products} do {@link ProductController} sobre WebFlux, ativo no
+ * perfil {@code reactive}. Lote, exportação, busca e cursor continuam só na variante servlet.
+ */
+@Tag(name = "Produtos", description = "API para gerenciamento de produtos")
+@RestController
+@RequestMapping("/api/v1/products")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveProductController {
+
+    // quantas linhas o stream pede ao banco por vez; o resto espera a demanda do cliente
+    private static final int STREAM_PREFETCH = 256;
+
+    private final ReactiveProductService productService;
+
+    @Operation(summary = "Criar um novo produto")
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponse>> create(@RequestBody @Valid ProductRequest request) {
+        return productService.create(request)
+                .map(product -> ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(product.getVersion())).body(product));
+    }
+
+    @Operation(summary = "Listar produtos paginados por offset")
+    @GetMapping
+    public Mono<ResponseEntity<PageResponse<ProductResponse>>> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "id") String sort) {
+        String[] parts = sort.split(",");
+        boolean descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+        return productService.findAll(page, size, ProductSortField.from(parts[0].trim()), descending)
+                .map(result -> ResponseEntity.ok()
+                        .eTag(ETags.ofList(result.getContent(), result.getPage(), result.getSize(), result.getTotalElements()))
+                        .body(result));
+    }
+
+    @Operation(summary = "Catálogo completo em streaming (NDJSON ou SSE), com backpressure")
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ProductResponse> stream() {
+        return productService.stream().limitRate(STREAM_PREFETCH);
+    }
+
+    @Operation(summary = "Buscar um produto pelo ID")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> findById(@PathVariable Long id, ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        // requisição condicional: só a versão é consultada, sem carregar nem serializar o produto
+        if (headers.getIfNoneMatch().isEmpty() && headers.getIfModifiedSince() < 0) {
+            return found(id);
+        }
+        return productService.findVersion(id).flatMap(current -> exchange.checkNotModified(
+                        ETags.of(current.version()), current.updatedAt() == null ? Instant.EPOCH : current.updatedAt())
+                ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<ProductResponse>build())
+                : found(id));
+    }
+
+    @Operation(summary = "Atualizar um produto pelo ID")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> update(@PathVariable Long id, @RequestBody @Valid ProductRequest request,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.update(id, request, ETags.parseIfMatch(ifMatch))
+                .map(product -> ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product));
+    }
+
+    @Operation(summary = "Excluir um produto pelo ID")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return productService.delete(id, ETags.parseIfMatch(ifMatch))
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    private Mono<ResponseEntity<ProductResponse>> found(Long id) {
+        return productService.findById(id).map(product -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.of(product.getVersion()));
+            if (product.getUpdatedAt() != null) {
+                response.lastModified(product.getUpdatedAt());
+            }
+            return response.body(product);
+        });
+    }
+}
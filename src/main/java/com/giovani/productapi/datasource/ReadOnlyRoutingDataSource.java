@@ -0,0 +1,30 @@
+package com.giovani.productapi.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Destino das conexões somente leitura: a réplica, exceto quando ela está atrasada além do
+ * limite ou quando a requisição precisa ler as próprias escritas. Nesses casos vai ao primário.
+ */
+class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReadYourWrites.isSticky() || !lagMonitor.isHealthy() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
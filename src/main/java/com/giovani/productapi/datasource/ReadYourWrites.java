@@ -0,0 +1,44 @@
+package com.giovani.productapi.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca a thread atual para ler do primário, mesmo em transações somente leitura. É ligada pelo
+ * {@link ReadYourWritesFilter} quando o cliente escreveu há pouco, para que ele não leia da
+ * réplica um estado anterior à própria escrita.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void stickToPrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isSticky() {
+        return PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+
+    /**
+     * Executa {@code read} lendo do primário e devolve a thread ao estado anterior. Para leituras cujo
+     * resultado é guardado (o cache de produtos): da réplica ele poderia estar até {@code max-lag} atrasado.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isSticky()) {
+            return read.get();
+        }
+        stickToPrimary();
+        try {
+            return read.get();
+        } finally {
+            clear();
+        }
+    }
+}
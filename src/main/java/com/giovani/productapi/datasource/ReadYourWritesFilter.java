@@ -0,0 +1,69 @@
+package com.giovani.productapi.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes entre requisições: uma escrita devolve o cookie {@value #COOKIE} com o
+ * instante até o qual o cliente deve ler do primário. Requisições com o cookie ainda válido
+ * ignoram a réplica, cobrindo o atraso de replicação logo após a própria escrita.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "productapi-primary-until";
+
+    private static final Set<String> WRITES = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (WRITES.contains(request.getMethod())) {
+            // antes do chain: depois o corpo já pode ter sido enviado e o cookie não entra mais
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + stickyWindow.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        } else if (primaryUntil(request) > now) {
+            ReadYourWrites.stickToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.giovani.productapi.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o atraso da réplica em intervalos fixos. Enquanto o atraso passar de {@code max-lag}, ou
+ * não puder ser medido (consulta falhou, replicação parada), as leituras vão para o primário.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder, DisposableBean {
+
+    private static final String SHOW_REPLICA_STATUS = "SHOW REPLICA STATUS";
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    // -1 = desconhecido; começa assim até a primeira medição
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = properties.lagQuery().isBlank() ? SHOW_REPLICA_STATUS : properties.lagQuery();
+        this.maxLagSeconds = properties.maxLag().toSeconds();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration interval = properties.lagCheckInterval();
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isHealthy() {
+        long lag = lagSeconds;
+        return lag >= 0 && lag <= maxLagSeconds;
+    }
+
+    public long lagSeconds() {
+        return lagSeconds;
+    }
+
+    public void refresh() {
+        long previous = lagSeconds;
+        try {
+            Long measured = replica.query(lagQuery, ReplicaLagMonitor::readLag);
+            lagSeconds = measured == null ? -1 : measured;
+        } catch (RuntimeException e) {
+            lagSeconds = -1;
+            if (previous >= 0) {
+                log.warn("Não foi possível medir o atraso da réplica; leituras vão para o primário", e);
+            }
+        }
+        if (isHealthy() != (previous >= 0 && previous <= maxLagSeconds)) {
+            log.info("Réplica {} (atraso: {}s)", isHealthy() ? "disponível para leitura" : "fora da rotação", lagSeconds);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.datasource.replica.lag", this, ReplicaLagMonitor::lagSeconds)
+                .description("Atraso da réplica em segundos (-1 = desconhecido)")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static Long readLag(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        Object value = hasColumn(rs, "Seconds_Behind_Source") ? rs.getObject("Seconds_Behind_Source") : rs.getObject(1);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static boolean hasColumn(ResultSet rs, String label) throws SQLException {
+        for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+            if (label.equalsIgnoreCase(rs.getMetaData().getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
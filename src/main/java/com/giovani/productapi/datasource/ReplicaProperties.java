@@ -0,0 +1,23 @@
+package com.giovani.productapi.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Réplica de leitura. {@code lagQuery} vazio usa {@code SHOW REPLICA STATUS} (MySQL 8.0.22+);
+ * qualquer outra consulta deve devolver o atraso em segundos na primeira coluna.
+ */
+@ConfigurationProperties(prefix = "productapi.datasource.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maxPoolSize,
+        @DefaultValue("2s") Duration maxLag,
+        @DefaultValue("") String lagQuery,
+        @DefaultValue("1s") Duration lagCheckInterval,
+        @DefaultValue("5s") Duration stickyWindow) {
+}
@@ -0,0 +1,32 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de um item de uma operação em lote")
+public class BatchItemResult {
+
+    @Schema(description = "Posição do item na requisição (base 0)")
+    private int index;
+
+    private Long id;
+
+    private BatchItemStatus status;
+
+    @Schema(description = "Motivo da falha, quando houver")
+    private String message;
+
+    @Schema(description = "Erros de validação agrupados por campo")
+    private Map<String, String> errors;
+
+    public boolean isSuccess() {
+        return status == BatchItemStatus.CREATED || status == BatchItemStatus.UPDATED || status == BatchItemStatus.DELETED;
+    }
+}
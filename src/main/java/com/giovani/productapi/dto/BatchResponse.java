@@ -0,0 +1,30 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de uma operação em lote, item a item")
+public class BatchResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResult> results;
+
+    public static BatchResponse of(List<BatchItemResult> results) {
+        int succeeded = (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        return BatchResponse.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+}
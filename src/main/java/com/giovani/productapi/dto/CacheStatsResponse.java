@@ -0,0 +1,24 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Estatísticas do cache de produtos")
+public class CacheStatsResponse {
+
+    @Schema(description = "Implementação ativa", example = "caffeine")
+    private String type;
+
+    @Schema(description = "Quantidade estimada de entradas")
+    private long size;
+
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+}
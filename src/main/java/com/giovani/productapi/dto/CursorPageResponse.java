@@ -0,0 +1,24 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de resultados por cursor (keyset)")
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+
+    @Schema(description = "Cursor opaco para a próxima página (ausente na última)")
+    private String next;
+
+    @Schema(description = "Cursor opaco para a página anterior (ausente na primeira)")
+    private String prev;
+}
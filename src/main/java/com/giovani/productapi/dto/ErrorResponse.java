@@ -1,5 +1,6 @@
 package com.giovani.productapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -11,6 +12,7 @@ import java.util.Map;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Detalhes de erro")
 public class ErrorResponse {
 
@@ -22,4 +24,12 @@ public class ErrorResponse {
 
     @Schema(description = "Erros de validação agrupados por campo")
     private Map<String, String> errors;
+
+    public static ErrorResponse of(String message) {
+        return new ErrorResponse(LocalDateTime.now(), message, null);
+    }
+
+    public static ErrorResponse ofErrors(Map<String, String> errors) {
+        return new ErrorResponse(LocalDateTime.now(), null, errors);
+    }
 }
\ No newline at end of file
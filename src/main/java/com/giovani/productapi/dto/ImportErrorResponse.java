@@ -0,0 +1,18 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Registro rejeitado numa importação")
+public class ImportErrorResponse {
+
+    @Schema(description = "Linha do arquivo onde o registro começa (base 1)")
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,54 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Situação de uma importação em massa")
+public class ImportJobResponse {
+
+    private String id;
+
+    @Schema(description = "PENDING, RUNNING, COMPLETED ou FAILED")
+    private String status;
+
+    @Schema(description = "CSV ou NDJSON")
+    private String format;
+
+    @Schema(description = "Tamanho do arquivo enviado, em bytes")
+    private long fileSize;
+
+    @Schema(description = "Bytes do arquivo já gravados; a retomada recomeça daqui")
+    private long bytesProcessed;
+
+    @Schema(description = "Percentual do arquivo já gravado", example = "42.5")
+    private double progress;
+
+    @Schema(description = "Linhas do arquivo já gravadas (inclui o cabeçalho CSV)")
+    private long linesProcessed;
+
+    private long created;
+
+    private long updated;
+
+    @Schema(description = "Registros rejeitados; os detalhes estão em /errors")
+    private long failed;
+
+    @Schema(description = "Registros por segundo desde o início da importação")
+    private Double rowsPerSecond;
+
+    @Schema(description = "Motivo da falha ou da última nova tentativa, quando houver")
+    private String message;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Produtos encontrados, na ordem pedida, e IDs inexistentes")
+public class MultiGetResponse {
+
+    private List<ProductResponse> products;
+
+    @Schema(description = "IDs pedidos que não existem")
+    private List<Long> missing;
+}
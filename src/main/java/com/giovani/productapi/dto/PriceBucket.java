@@ -0,0 +1,23 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Faixa do histograma de preços: [from, to)")
+public class PriceBucket {
+
+    @Schema(description = "Limite inferior (inclusivo)", example = "100.00")
+    private BigDecimal from;
+
+    @Schema(description = "Limite superior (exclusivo); nulo na última faixa", example = "500.00")
+    private BigDecimal to;
+
+    private long count;
+}
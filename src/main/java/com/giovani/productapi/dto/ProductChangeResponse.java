@@ -0,0 +1,22 @@
+package com.giovani.productapi.dto;
+
+import com.giovani.productapi.event.ProductChangedEvent;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeResponse {
+
+    private Long offset;
+    private ProductChangedEvent.Type type;
+    private Long productId;
+    private Long version;
+    private Instant occurredAt;
+    // null em exclusões
+    private ProductResponse product;
+}
@@ -0,0 +1,54 @@
+package com.giovani.productapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Corpo de um JSON Merge Patch (RFC 7396). Campo ausente não muda; campo presente, inclusive
+ * com {@code null}, é gravado. Os setters registram quais campos vieram no documento.
+ */
+@Getter
+@NoArgsConstructor
+@Schema(description = "JSON Merge Patch: só os campos enviados são alterados; null limpa a descrição")
+public class ProductPatchRequest {
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal price;
+
+    @JsonIgnore
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    @JsonIgnore
+    private final Set<String> unknownFields = new LinkedHashSet<>();
+
+    public void setName(String name) {
+        this.name = name;
+        changes.put("name", name);
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        changes.put("description", description);
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        changes.put("price", price);
+    }
+
+    @JsonAnySetter
+    void unknownField(String field, Object value) {
+        unknownFields.add(field);
+    }
+}
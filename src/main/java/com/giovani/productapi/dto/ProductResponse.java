@@ -3,6 +3,7 @@ package com.giovani.productapi.dto;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -16,4 +17,6 @@ public class ProductResponse {
     private String description;
     private BigDecimal price;
     private String imageUrl;
+    private Long version;
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.giovani.productapi.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Estatísticas do catálogo de produtos")
+public class ProductStatsResponse {
+
+    @Schema(description = "Quantidade de produtos")
+    private long count;
+
+    @Schema(description = "Menor preço; nulo com o catálogo vazio", example = "9.90")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Maior preço; nulo com o catálogo vazio", example = "4500.00")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Preço médio; nulo com o catálogo vazio", example = "312.45")
+    private BigDecimal averagePrice;
+
+    @Schema(description = "Histograma de preços por faixa")
+    private List<PriceBucket> histogram;
+
+    @Schema(description = "Momento da última reconciliação com o banco")
+    private Instant reconciledAt;
+}
@@ -2,8 +2,10 @@ package com.giovani.productapi.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Getter
@@ -13,8 +15,10 @@ import java.math.BigDecimal;
 @Builder
 public class Product {
 
+    // sequência pooled (tabela emulada no MySQL): aloca ids em blocos e permite batch de INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,5 +29,14 @@ public class Product {
     @Column(nullable = false)
     private BigDecimal price;
 
-    private String imageUrl; // depois armazenaremos no S3
+    // URL imutável em /api/v1/images (hash do conteúdo); o arquivo fica no BlobStore
+    private String imageUrl;
+
+    // controle de concorrência otimista; também vira o ETag do recurso
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
\ No newline at end of file
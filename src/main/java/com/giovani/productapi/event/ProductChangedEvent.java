@@ -0,0 +1,27 @@
+package com.giovani.productapi.event;
+
+import com.giovani.productapi.dto.ProductResponse;
+
+/**
+ * Publicado depois que uma escrita de produto foi gravada. Em exclusões {@code product} é {@code null}.
+ */
+public record ProductChangedEvent(Type type, Long id, ProductResponse product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(ProductResponse product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductResponse product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.giovani.productapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Conflito com o estado atual (ex.: Idempotency-Key ainda em andamento); criada sem stack trace.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,43 +1,198 @@
 package com.giovani.productapi.exceptions;
 
+import com.giovani.productapi.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Corpos de erro tipados ({@link ErrorResponse}, campos nulos omitidos), sem mapas intermediários.
+ * O 404 usa a mensagem já montada na {@link ResourceNotFoundException}, com o horário desta resposta.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // contadores registrados uma vez; no caminho de erro só há o increment
+    private final Counter notFound;
+    private final Counter badRequest;
+    private final Counter validation;
+    private final Counter preconditionFailed;
+    private final Counter conflict;
+    private final Counter gone;
+    private final Counter unprocessable;
+    private final Counter unavailable;
+    private final Counter shed;
+    private final Counter internal;
+
+    @Autowired
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.notFound = errorCounter(meterRegistry, "not_found");
+        this.badRequest = errorCounter(meterRegistry, "bad_request");
+        this.validation = errorCounter(meterRegistry, "validation");
+        this.preconditionFailed = errorCounter(meterRegistry, "precondition_failed");
+        this.conflict = errorCounter(meterRegistry, "conflict");
+        this.gone = errorCounter(meterRegistry, "gone");
+        this.unprocessable = errorCounter(meterRegistry, "unprocessable");
+        this.unavailable = errorCounter(meterRegistry, "unavailable");
+        this.shed = errorCounter(meterRegistry, "shed");
+        this.internal = errorCounter(meterRegistry, "internal");
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Object> handleNotFound(ResourceNotFoundException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+    public ResponseEntity<ErrorResponse> handleNotFound(ResourceNotFoundException ex) {
+        notFound.increment();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler({BadRequestException.class, PropertyReferenceException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex) {
+        badRequest.increment();
+        return ResponseEntity.badRequest().body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    // JSON malformado ou com tipo errado; a mensagem do Jackson não é exposta
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadable(HttpMessageNotReadableException ex) {
+        badRequest.increment();
+        return ResponseEntity.badRequest().body(ErrorResponse.of("Corpo da requisição inválido"));
+    }
+
+    // multipart acima de spring.servlet.multipart.max-file-size / max-request-size
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        badRequest.increment();
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ErrorResponse.of("Arquivo excede o tamanho máximo permitido"));
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handlePayloadTooLarge(PayloadTooLargeException ex) {
+        badRequest.increment();
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        preconditionFailed.increment();
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(OptimisticLockingFailureException ex) {
+        conflict.increment();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of("Produto alterado por outra requisição. Recarregue e tente novamente."));
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ConflictException ex) {
+        conflict.increment();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<ErrorResponse> handleGone(GoneException ex) {
+        gone.increment();
+        return ResponseEntity.status(HttpStatus.GONE).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    @ExceptionHandler(UnprocessableEntityException.class)
+    public ResponseEntity<ErrorResponse> handleUnprocessable(UnprocessableEntityException ex) {
+        unprocessable.increment();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ErrorResponse.of(ex.getMessage()));
+    }
+
+    // sem conexão disponível no prazo (pool ou semáforo de acesso ao banco esgotados), pool de threads cheio
+    // ou escrita que demorou demais para commitar (ProductChangeLog)
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            RejectedExecutionException.class, TransactionTimedOutException.class})
+    public ResponseEntity<ErrorResponse> handleUnavailable(RuntimeException ex) {
+        unavailable.increment();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.of("Serviço sobrecarregado. Tente novamente em instantes."));
+    }
+
+    // rejeitada pelo limite adaptativo de concorrência, sem esperar por banco ou thread
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(ServiceOverloadedException ex) {
+        shed.increment();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ErrorResponse.of(ex.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Object> handleValidation(MethodArgumentNotValidException ex) {
-        Map<String, Object> errors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(err ->
+    public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
+        return validationError(ex.getBindingResult());
+    }
+
+    // equivalente no WebFlux (perfil reactive)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(WebExchangeBindException ex) {
+        return validationError(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
+        internal.increment();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ErrorResponse.of("Erro interno. Contate o suporte."));
+    }
+
+    // PATCH valida só os campos enviados, fora do binding do Spring
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(ConstraintViolationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage())
+        );
+        return validationError(errors);
+    }
+
+    private ResponseEntity<ErrorResponse> validationError(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(err ->
                 errors.put(err.getField(), err.getDefaultMessage())
         );
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("errors", errors);
-        return ResponseEntity.badRequest().body(response);
+        return validationError(errors);
     }
 
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<Object> handleGeneric(Exception ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", "Erro interno. Contate o suporte.");
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+    private ResponseEntity<ErrorResponse> validationError(Map<String, String> errors) {
+        validation.increment();
+        return ResponseEntity.badRequest().body(ErrorResponse.ofErrors(errors));
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("product.api.errors")
+                .description("Respostas de erro emitidas pelo GlobalExceptionHandler")
+                .tag("type", type)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,16 @@
+package com.giovani.productapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * O recurso pedido existiu mas não está mais disponível (ex.: offset do feed fora da retenção);
+ * criada sem stack trace.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class GoneException extends RuntimeException {
+
+    public GoneException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.giovani.productapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Corpo acima do limite aceito antes de chegar ao controller (ex.: escrita com Idempotency-Key);
+ * criada sem stack trace.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message, null, false, false);
+    }
+}
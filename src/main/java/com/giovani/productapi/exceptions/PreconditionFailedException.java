@@ -0,0 +1,15 @@
+package com.giovani.productapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * If-Match divergente é fluxo normal de concorrência otimista; criada sem stack trace.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
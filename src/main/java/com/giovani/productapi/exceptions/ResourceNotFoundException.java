@@ -3,10 +3,16 @@ package com.giovani.productapi.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Sem stack trace: ids inexistentes chegam em volume (bots, links antigos) e o rastro de um 404 nunca é lido.
+ * Uma instância guardada (o cache de ids inexistentes do {@code ProductCache}) reaproveita só a mensagem já
+ * montada; o corpo da resposta, com o {@code timestamp} do momento, é criado a cada 404 pelo
+ * {@code GlobalExceptionHandler}.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
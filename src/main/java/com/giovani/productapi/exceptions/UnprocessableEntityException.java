@@ -0,0 +1,15 @@
+package com.giovani.productapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Requisição bem formada, mas recusada (ex.: Idempotency-Key reutilizada); criada sem stack trace.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class UnprocessableEntityException extends RuntimeException {
+
+    public UnprocessableEntityException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,121 @@
+package com.giovani.productapi.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.giovani.productapi.mapper.ProductMapper.toResponse;
+
+/**
+ * Exporta o catálogo inteiro linha a linha: as entidades vêm de um cursor do banco,
+ * são desanexadas do contexto de persistência logo após o mapeamento e o buffer de saída
+ * é descarregado a cada {@link #FLUSH_EVERY} linhas, então a memória fica constante.
+ */
+@Service
+@RegisterReflectionForBinding(ProductResponse.class)
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    static final int FLUSH_EVERY = 1000;
+
+    private static final String CSV_HEADER = "id,name,description,price,imageUrl";
+
+    private final ProductRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Product> products = repository.streamAll()) {
+            long written = switch (format) {
+                case NDJSON -> writeNdjson(products.iterator(), writer);
+                case CSV -> writeCsv(products.iterator(), writer);
+            };
+            writer.flush();
+            return written;
+        }
+    }
+
+    private long writeNdjson(Iterator<Product> products, Writer writer) throws IOException {
+        long count = 0;
+        try (SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (products.hasNext()) {
+                sequence.write(next(products));
+                if (++count % FLUSH_EVERY == 0) {
+                    sequence.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Product> products, Writer writer) throws IOException {
+        long count = 0;
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (products.hasNext()) {
+            ProductResponse product = next(products);
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writeCsvField(writer, product.getName());
+            writer.write(',');
+            writeCsvField(writer, product.getDescription());
+            writer.write(',');
+            writer.write(product.getPrice().toPlainString());
+            writer.write(',');
+            writeCsvField(writer, product.getImageUrl());
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        return count;
+    }
+
+    private ProductResponse next(Iterator<Product> products) {
+        Product product = products.next();
+        entityManager.detach(product);
+        return toResponse(product);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
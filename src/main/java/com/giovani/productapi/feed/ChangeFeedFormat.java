@@ -0,0 +1,81 @@
+package com.giovani.productapi.feed;
+
+import com.giovani.productapi.dto.ProductChangeResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Codificação do feed. Um lote de mudanças vira um único {@link ResponseBodyEmitter#send(Set)},
+ * ou seja, um único flush na conexão.
+ */
+public enum ChangeFeedFormat {
+
+    /**
+     * Um evento {@code change} por mudança, com {@code id} = offset: o {@code Last-Event-ID}
+     * que o navegador reenvia ao reconectar retoma o feed de onde parou. O heartbeat é um comentário.
+     */
+    SSE(MediaType.TEXT_EVENT_STREAM) {
+        @Override
+        Set<DataWithMediaType> encode(List<ProductChangeResponse> changes) {
+            Set<DataWithMediaType> data = new LinkedHashSet<>();
+            for (ProductChangeResponse change : changes) {
+                data.addAll(SseEmitter.event()
+                        .id(String.valueOf(change.getOffset()))
+                        .name("change")
+                        .data(change, MediaType.APPLICATION_JSON)
+                        .build());
+            }
+            return data;
+        }
+
+        @Override
+        Set<DataWithMediaType> heartbeat() {
+            return SseEmitter.event().comment("heartbeat").build();
+        }
+    },
+
+    /**
+     * Uma mudança JSON por linha; o consumidor retoma com {@code after} = último offset lido.
+     * O heartbeat é uma linha em branco, que os leitores de NDJSON (inclusive o nosso lote) ignoram.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON) {
+        @Override
+        Set<DataWithMediaType> encode(List<ProductChangeResponse> changes) {
+            Set<DataWithMediaType> data = new LinkedHashSet<>();
+            for (ProductChangeResponse change : changes) {
+                data.add(new DataWithMediaType(change, MediaType.APPLICATION_JSON));
+                data.add(new DataWithMediaType("\n", MediaType.TEXT_PLAIN));
+            }
+            return data;
+        }
+
+        @Override
+        Set<DataWithMediaType> heartbeat() {
+            return Set.of(new DataWithMediaType("\n", MediaType.TEXT_PLAIN));
+        }
+    };
+
+    private final MediaType mediaType;
+
+    ChangeFeedFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public ResponseBodyEmitter emitter() {
+        return this == SSE ? new SseEmitter() : new ResponseBodyEmitter();
+    }
+
+    abstract Set<DataWithMediaType> encode(List<ProductChangeResponse> changes);
+
+    abstract Set<DataWithMediaType> heartbeat();
+}
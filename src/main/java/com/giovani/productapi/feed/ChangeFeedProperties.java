@@ -0,0 +1,27 @@
+package com.giovani.productapi.feed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param batchSize      máximo de mudanças lidas (e enviadas com um único flush) por consulta
+ * @param pollInterval   espera entre consultas quando o feed está em dia; escritas neste nó acordam antes
+ * @param heartbeat      intervalo sem mudanças após o qual o feed envia um heartbeat
+ * @param settle         quanto esperar por um offset ausente antes de tratá-lo como rollback; escritas que
+ *                       demoram mais que a metade disso para commitar depois de gravar a mudança são desfeitas
+ *                       ({@link ProductChangeLog}), então deve ficar acima do tempo de commit esperado sob carga
+ * @param maxSubscribers conexões simultâneas no feed (uma thread cada)
+ * @param retention      idade a partir da qual as mudanças são apagadas; zero desliga a limpeza. Retomar de
+ *                       um offset já apagado responde 410
+ */
+@ConfigurationProperties(prefix = "productapi.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("15s") Duration heartbeat,
+        @DefaultValue("10s") Duration settle,
+        @DefaultValue("32") int maxSubscribers,
+        @DefaultValue("7d") Duration retention) {
+}
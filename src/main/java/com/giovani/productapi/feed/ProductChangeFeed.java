@@ -0,0 +1,242 @@
+package com.giovani.productapi.feed;
+
+import com.giovani.productapi.dto.ProductChangeResponse;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.GoneException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Entrega o outbox {@code product_change} a partir de um offset. Cada conexão tem uma thread de um
+ * pool limitado a {@code max-subscribers}; ela lê lotes de {@code batch-size}, envia cada lote com um
+ * único flush e, quando está em dia, espera a próxima escrita deste nó ou o {@code poll-interval}
+ * (escritas de outros nós) — sem mudanças por {@code heartbeat}, envia um heartbeat.
+ * <p>
+ * Offsets vêm de auto_increment e não são visíveis em ordem de commit: uma transação pode commitar o
+ * offset 11 antes de outra commitar o 10. Por isso o feed para no primeiro buraco e só o pula quando a
+ * linha seguinte é mais velha que {@code settle} (o buraco foi um rollback: o {@link ProductChangeLog}
+ * recusa o commit de uma escrita mais lenta que isso). As leituras vão sempre ao primário, fora de
+ * transação somente-leitura, para que o atraso da réplica não se confunda com buraco.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class ProductChangeFeed implements MeterBinder, DisposableBean {
+
+    private final ProductChangeLog changeLog;
+    private final ChangeFeedProperties properties;
+    private final ThreadPoolExecutor subscribers;
+    private final ScheduledExecutorService cleanup;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Object signal = new Object();
+    // incrementado a cada commit de escrita neste nó; evita perder o sinal entre a leitura e a espera
+    private long generation;
+
+    public ProductChangeFeed(ProductChangeLog changeLog, ChangeFeedProperties properties) {
+        this.changeLog = changeLog;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.subscribers = new ThreadPoolExecutor(0, properties.maxSubscribers(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "change-feed-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!properties.retention().isZero() && !properties.retention().isNegative()) {
+            cleanup.scheduleWithFixedDelay(this::prune, 1, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Começa a enviar as mudanças posteriores a {@code after} pelo emitter.
+     *
+     * @throws RejectedExecutionException quando já há {@code max-subscribers} conexões abertas
+     */
+    public ResponseBodyEmitter subscribe(long after, ChangeFeedFormat format) {
+        ResponseBodyEmitter emitter = format.emitter();
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+        subscribers.execute(() -> stream(after, format, emitter, open));
+        return emitter;
+    }
+
+    /**
+     * Confere se o feed ainda tem tudo depois de {@code after}: um offset abaixo do mais antigo guardado
+     * perderia as mudanças apagadas pela retenção sem que o cliente soubesse.
+     *
+     * @throws GoneException quando mudanças depois de {@code after} já foram apagadas
+     */
+    public void checkRetained(long after) {
+        long first = changeLog.firstOffset();
+        if (first > 0 && after < first - 1) {
+            throw new GoneException("Offset " + after + " fora da retenção do feed (mais antigo disponível: "
+                    + first + "). Recarregue o catálogo e assine de novo sem offset.");
+        }
+    }
+
+    /**
+     * Lê até {@code batch-size} mudanças depois de {@code after}, parando no primeiro offset ausente
+     * que ainda pode ser uma transação em andamento.
+     */
+    public List<ProductChangeResponse> read(long after) {
+        List<ProductChangeResponse> rows = changeLog.read(after, properties.batchSize());
+        return new ArrayList<>(rows.subList(0, settled(after, rows)));
+    }
+
+    /**
+     * Segue o feed só com offset e id do produto: entrega a {@code visitor} todas as mudanças visíveis
+     * depois de {@code after}, inclusive as que estão além de um buraco recente, e devolve o offset até
+     * onde não há buraco pendente — de onde a próxima chamada deve continuar para não perder uma
+     * transação que ainda vai commitar um offset menor.
+     */
+    public long follow(long after, Consumer<ProductChangeResponse> visitor) {
+        long offset = after;
+        while (true) {
+            List<ProductChangeResponse> rows = changeLog.readProductIds(offset, properties.batchSize());
+            rows.forEach(visitor);
+            int ready = settled(offset, rows);
+            if (ready > 0) {
+                offset = rows.get(ready - 1).getOffset();
+            }
+            if (ready < rows.size() || rows.size() < properties.batchSize()) {
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * Ponto de partida para {@link #follow} sem histórico: o último offset mais velho que {@code settle}.
+     */
+    public long settledOffset() {
+        return changeLog.lastOffsetBefore(Instant.now().minus(properties.settle()));
+    }
+
+    /**
+     * Quantas das primeiras {@code rows} podem ser entregues: para no primeiro offset ausente que
+     * ainda pode ser uma transação em andamento.
+     */
+    private int settled(long after, List<ProductChangeResponse> rows) {
+        Instant settled = Instant.now().minus(properties.settle());
+        long expected = after + 1;
+        for (int i = 0; i < rows.size(); i++) {
+            ProductChangeResponse row = rows.get(i);
+            if (row.getOffset() != expected && row.getOccurredAt().isAfter(settled)) {
+                return i;
+            }
+            expected = row.getOffset() + 1;
+        }
+        return rows.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (signal) {
+            generation++;
+            signal.notifyAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.changes.subscribers", active, AtomicInteger::get)
+                .description("Conexões abertas no feed de mudanças")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.shutdownNow();
+        cleanup.shutdownNow();
+    }
+
+    private void stream(long after, ChangeFeedFormat format, ResponseBodyEmitter emitter, AtomicBoolean open) {
+        active.incrementAndGet();
+        long offset = after;
+        long lastSent = System.nanoTime();
+        try {
+            while (open.get() && !Thread.currentThread().isInterrupted()) {
+                long seen = generation();
+                List<ProductChangeResponse> batch = read(offset);
+                if (!batch.isEmpty()) {
+                    emitter.send(format.encode(batch));
+                    offset = batch.get(batch.size() - 1).getOffset();
+                    lastSent = System.nanoTime();
+                    if (batch.size() == properties.batchSize()) {
+                        continue;
+                    }
+                } else if (System.nanoTime() - lastSent >= properties.heartbeat().toNanos()) {
+                    emitter.send(format.heartbeat());
+                    lastSent = System.nanoTime();
+                }
+                await(seen);
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // cliente desconectou ou o emitter expirou: ele retoma pelo último offset recebido
+            log.debug("Feed de mudanças encerrado no offset {}", offset, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.warn("Falha no feed de mudanças no offset {}", offset, e);
+            emitter.completeWithError(e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private long generation() {
+        synchronized (signal) {
+            return generation;
+        }
+    }
+
+    private void await(long seen) throws InterruptedException {
+        long deadline = System.nanoTime() + Math.min(properties.pollInterval().toNanos(), properties.heartbeat().toNanos());
+        synchronized (signal) {
+            long remaining;
+            while (generation == seen && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+            }
+        }
+    }
+
+    private void prune() {
+        try {
+            int removed = changeLog.prune(Instant.now().minus(properties.retention()));
+            if (removed > 0) {
+                log.info("Feed de mudanças: {} mudanças fora da retenção removidas", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível limpar o feed de mudanças", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.giovani.productapi.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductChangeResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Outbox das escritas de produto (tabela {@code product_change}). As linhas são gravadas com JDBC
+ * puro na transação de quem escreveu o produto: se a escrita sofre rollback, a mudança some junto.
+ * <p>
+ * O feed trata como rollback um offset ausente quando a linha seguinte é mais velha que {@code settle}.
+ * Para que isso valha, a transação que grava uma mudança precisa commitar até {@code settle / 2} depois
+ * da gravação; passado o prazo, o commit é recusado com {@link TransactionTimedOutException} e a escrita
+ * é desfeita, em vez de aparecer num offset que o feed já pulou. A outra metade cobre a diferença entre o
+ * horário gravado numa linha e o momento em que ela recebe o offset, e a diferença de relógio entre nós.
+ */
+@Component
+@RegisterReflectionForBinding(ProductResponse.class)
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ProductChangeLog {
+
+    private static final String INSERT =
+            "insert into product_change (product_id, type, version, payload, created_at) values (?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER =
+            "select id, product_id, type, version, payload, created_at from product_change where id > ? order by id limit ?";
+    private static final String SELECT_PRODUCT_IDS_AFTER =
+            "select id, product_id, created_at from product_change where id > ? order by id limit ?";
+    private static final String SELECT_FIRST = "select coalesce(min(id), 0) from product_change";
+    private static final String SELECT_LAST_BEFORE =
+            "select coalesce(max(id), 0) from product_change where created_at < ?";
+    private static final String DELETE_BEFORE = "delete from product_change where created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties properties;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ProductChangedEvent change) {
+        append(List.of(change));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Collection<ProductChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.id());
+            ps.setString(2, change.type().name());
+            if (change.product() == null) {
+                ps.setNull(3, Types.BIGINT);
+                ps.setNull(4, Types.CLOB);
+            } else {
+                ps.setLong(3, change.product().getVersion());
+                ps.setString(4, write(change.product()));
+            }
+            ps.setTimestamp(5, now);
+        });
+        limitCommit();
+    }
+
+    /**
+     * Mudanças com offset maior que {@code after}, em ordem de offset.
+     */
+    public List<ProductChangeResponse> read(long after, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, this::map, after, limit);
+    }
+
+    /**
+     * Como {@link #read}, mas só com o offset, o id do produto e o horário, sem o payload.
+     */
+    public List<ProductChangeResponse> readProductIds(long after, int limit) {
+        return jdbcTemplate.query(SELECT_PRODUCT_IDS_AFTER, (rs, row) -> ProductChangeResponse.builder()
+                .offset(rs.getLong("id"))
+                .productId(rs.getLong("product_id"))
+                .occurredAt(rs.getTimestamp("created_at").toInstant())
+                .build(), after, limit);
+    }
+
+    /**
+     * Maior offset gravado antes de {@code before}: ponto de partida de quem começa a seguir o feed
+     * sem histórico, já que as mudanças mais velhas que {@code settle} não têm mais buraco pendente.
+     */
+    public long lastOffsetBefore(Instant before) {
+        Long offset = jdbcTemplate.queryForObject(SELECT_LAST_BEFORE, Long.class, Timestamp.from(before));
+        return offset == null ? 0 : offset;
+    }
+
+    /**
+     * Menor offset ainda guardado, ou 0 com a tabela vazia: abaixo dele as mudanças já foram apagadas
+     * pela retenção.
+     */
+    public long firstOffset() {
+        Long offset = jdbcTemplate.queryForObject(SELECT_FIRST, Long.class);
+        return offset == null ? 0 : offset;
+    }
+
+    public int prune(Instant before) {
+        return jdbcTemplate.update(DELETE_BEFORE, Timestamp.from(before));
+    }
+
+    // um prazo por transação, contado da primeira mudança gravada nela
+    private void limitCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        long deadline = System.nanoTime() + properties.settle().toNanos() / 2;
+        TransactionSynchronizationManager.bindResource(this, deadline);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new TransactionTimedOutException("Escrita não commitou em " + properties.settle().dividedBy(2)
+                            + " depois de gravar no feed de mudanças (productapi.changes.settle / 2)");
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeLog.this);
+            }
+        });
+    }
+
+    private ProductChangeResponse map(ResultSet rs, int row) throws SQLException {
+        String payload = rs.getString("payload");
+        return ProductChangeResponse.builder()
+                .offset(rs.getLong("id"))
+                .type(ProductChangedEvent.Type.valueOf(rs.getString("type")))
+                .productId(rs.getLong("product_id"))
+                .version(rs.getObject("version", Long.class))
+                .occurredAt(rs.getTimestamp("created_at").toInstant())
+                .product(payload == null ? null : read(payload))
+                .build();
+    }
+
+    private String write(ProductResponse product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o produto " + product.getId(), e);
+        }
+    }
+
+    private ProductResponse read(String payload) {
+        try {
+            return objectMapper.readValue(payload, ProductResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido no feed de mudanças", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.giovani.productapi.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Idempotency-Key nas escritas de produto. Os erros do filtro (chave inválida, reutilizada ou em
+ * andamento) passam pelo {@link HandlerExceptionResolver} do MVC e chegam ao GlobalExceptionHandler.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "productapi.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                                             ObjectMapper objectMapper) {
+        return new IdempotencyStore(properties,
+                properties.durable() ? new JdbcIdempotencyRepository(jdbcTemplate, objectMapper) : null);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store, IdempotencyProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, exceptionResolver, properties.maxBody()));
+        registration.addUrlPatterns("/api/v1/products", "/api/v1/products/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,236 @@
+package com.giovani.productapi.idempotency;
+
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.exceptions.PayloadTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Escritas com o cabeçalho {@value #HEADER} são executadas uma única vez por chave: a resposta
+ * (status, cabeçalhos relevantes e corpo) é guardada e devolvida nas repetições, marcada com
+ * {@value #REPLAYED}. Respostas 5xx não são guardadas, para que a repetição possa tentar de novo.
+ * Requisições sem o cabeçalho passam direto.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> WRITES = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LOCATION, HttpHeaders.LAST_MODIFIED);
+
+    private final IdempotencyStore store;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final DataSize maxBody;
+
+    public IdempotencyFilter(IdempotencyStore store, HandlerExceptionResolver exceptionResolver, DataSize maxBody) {
+        this.store = store;
+        this.exceptionResolver = exceptionResolver;
+        this.maxBody = maxBody;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !WRITES.contains(request.getMethod()) || isBinaryUpload(request);
+    }
+
+    /**
+     * Uploads de imagem não são lidos para a memória; o PUT da imagem já é idempotente (chave = hash do conteúdo).
+     */
+    private static boolean isBinaryUpload(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("multipart/") || type.startsWith("image/")
+                || type.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        CachedBodyRequest cached;
+        String fingerprint;
+        Optional<StoredResponse> replay;
+        try {
+            // a chave é conferida antes de o corpo ser lido para a memória
+            if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+                throw new BadRequestException(HEADER + " deve ter entre 1 e " + MAX_KEY_LENGTH + " caracteres");
+            }
+            cached = new CachedBodyRequest(request, maxBody);
+            fingerprint = fingerprint(request.getMethod(), request.getRequestURI(), request.getQueryString(), cached.body);
+            replay = store.begin(key, fingerprint);
+        } catch (RuntimeException e) {
+            if (exceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+            return;
+        }
+        if (replay.isPresent()) {
+            write(replay.get(), response);
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(cached, captured);
+            if (captured.getStatus() < 500 && !request.isAsyncStarted()) {
+                store.complete(key, capture(fingerprint, captured));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(key);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static StoredResponse capture(String fingerprint, ContentCachingResponseWrapper response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : STORED_HEADERS) {
+            String value = name.equals(HttpHeaders.CONTENT_TYPE) ? response.getContentType() : response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return new StoredResponse(fingerprint, response.getStatus(), headers, response.getContentAsByteArray());
+    }
+
+    private static void write(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    /**
+     * Método, URI (com query) e SHA-256 do corpo: a mesma chave com outra requisição é rejeitada.
+     */
+    static String fingerprint(String method, String uri, String query, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(uri.getBytes(StandardCharsets.UTF_8));
+            if (query != null) {
+                digest.update((byte) '?');
+                digest.update(query.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lê o corpo inteiro antes do chain: ele entra na impressão digital e é reentregue ao controller.
+     * Acima de {@code max-body} a leitura para, pelo Content-Length ou ao passar do limite num corpo chunked.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, DataSize maxBody) throws IOException {
+            super(request);
+            int limit = (int) Math.min(maxBody.toBytes(), Integer.MAX_VALUE - 8);
+            if (request.getContentLengthLong() > limit) {
+                throw tooLarge(maxBody);
+            }
+            InputStream in = request.getInputStream();
+            this.body = in.readNBytes(limit);
+            if (in.read() != -1) {
+                throw tooLarge(maxBody);
+            }
+        }
+
+        private static PayloadTooLargeException tooLarge(DataSize maxBody) {
+            return new PayloadTooLargeException("Corpo excede " + maxBody.toBytes() + " bytes em escritas com " + HEADER);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.giovani.productapi.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param ttl         por quanto tempo a resposta de uma chave é devolvida nas repetições
+ * @param maxMemory   limite das respostas guardadas em memória (as mais frias saem primeiro)
+ * @param durable     guarda também na tabela {@code idempotency_key}, compartilhada entre instâncias
+ * @param waitTimeout quanto uma repetição espera a primeira requisição terminar antes do 409
+ * @param lease       validade da reserva de uma chave em andamento no banco; a instância dona a renova a
+ *                    cada {@code lease / 3} até gravar a resposta, então ela só vence se a instância cair
+ * @param maxBody     maior corpo lido para a memória numa escrita com a chave (entra na impressão digital);
+ *                    acima disso a escrita é recusada com 413 antes de reservar a chave
+ */
+@ConfigurationProperties(prefix = "productapi.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("32MB") DataSize maxMemory,
+        @DefaultValue("true") boolean durable,
+        @DefaultValue("10s") Duration waitTimeout,
+        @DefaultValue("1m") Duration lease,
+        @DefaultValue("10MB") DataSize maxBody) {
+}
@@ -0,0 +1,268 @@
+package com.giovani.productapi.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.giovani.productapi.exceptions.ConflictException;
+import com.giovani.productapi.exceptions.UnprocessableEntityException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chave → resposta. O caminho quente é um {@code getIfPresent} no Caffeine, sem lock; a primeira
+ * requisição de uma chave se registra num {@link ConcurrentHashMap} (lock só no bin da chave) e as
+ * repetições concorrentes nesta instância esperam o mesmo {@link CompletableFuture}. Com
+ * {@code durable}, a tabela {@code idempotency_key} coordena as instâncias e cobre o que saiu da memória.
+ * <p>
+ * A linha reservada vale por {@code lease} e é renovada por esta instância enquanto a requisição
+ * roda e até a resposta estar gravada. A gravação da resposta sai do caminho da requisição (uma
+ * thread em segundo plano) e, se falhar, é repetida a cada renovação; até lá as outras instâncias
+ * recebem 409 em vez de executar a escrita de novo. A reserva só vence se esta instância cair.
+ */
+@Slf4j
+public class IdempotencyStore implements DisposableBean {
+
+    private static final long POLL_MILLIS = 50;
+
+    private final IdempotencyProperties properties;
+    private final JdbcIdempotencyRepository durable;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    // chaves reservadas por esta instância na tabela cujo lease precisa ser renovado
+    private final Set<String> leased = ConcurrentHashMap.newKeySet();
+    // respostas já entregues que ainda não estão na tabela
+    private final ConcurrentMap<String, StoredResponse> unsaved = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService background;
+
+    IdempotencyStore(IdempotencyProperties properties, JdbcIdempotencyRepository durable) {
+        this.properties = properties;
+        this.durable = durable;
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(properties.maxMemory().toBytes())
+                .weigher((String key, StoredResponse response) -> key.length() + response.body().length)
+                .expireAfterWrite(properties.ttl())
+                .executor(Runnable::run)
+                .build();
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (durable != null) {
+            long renewal = Math.max(1, properties.lease().toMillis() / 3);
+            background.scheduleWithFixedDelay(this::renew, renewal, renewal, TimeUnit.MILLISECONDS);
+            background.scheduleWithFixedDelay(this::prune, 10, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Reserva a chave para esta requisição ou devolve a resposta já gravada para ela.
+     *
+     * @return vazio quando a chave ficou com o chamador, que deve chamar {@link #complete} ou {@link #abandon}
+     * @throws UnprocessableEntityException se a chave já foi usada com outra requisição
+     * @throws ConflictException            se a primeira requisição não terminou dentro de {@code wait-timeout}
+     */
+    Optional<StoredResponse> begin(String key, String fingerprint) {
+        long deadline = System.nanoTime() + properties.waitTimeout().toNanos();
+        while (true) {
+            StoredResponse done = completed.getIfPresent(key);
+            if (done != null) {
+                return Optional.of(check(done, fingerprint));
+            }
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                StoredResponse response = await(running, deadline);
+                if (response != null) {
+                    return Optional.of(check(response, fingerprint));
+                }
+                // a primeira requisição desistiu (erro 5xx): tenta assumir a chave
+                continue;
+            }
+            try {
+                StoredResponse response = completed.getIfPresent(key);
+                if (response == null && durable != null) {
+                    response = claim(key, fingerprint, deadline);
+                    if (response == null) {
+                        leased.add(key);
+                    }
+                }
+                if (response != null) {
+                    completed.put(key, response);
+                    release(key, mine, response);
+                    return Optional.of(check(response, fingerprint));
+                }
+                return Optional.empty();
+            } catch (RuntimeException e) {
+                release(key, mine, null);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Guarda a resposta e libera as repetições desta instância na hora; a gravação na tabela é
+     * feita em segundo plano.
+     */
+    void complete(String key, StoredResponse response) {
+        completed.put(key, response);
+        release(key, inFlight.get(key), response);
+        if (durable != null) {
+            unsaved.put(key, response);
+            background.execute(() -> save(key));
+        }
+    }
+
+    void abandon(String key) {
+        try {
+            if (durable != null) {
+                durable.release(key);
+                leased.remove(key);
+            }
+        } finally {
+            release(key, inFlight.get(key), null);
+        }
+    }
+
+    /**
+     * Espera as gravações pendentes antes de parar; o que não for gravado volta a ser executável
+     * nas outras instâncias quando o lease vencer.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        background.shutdown();
+        if (!background.awaitTermination(5, TimeUnit.SECONDS)) {
+            background.shutdownNow();
+        }
+        if (!unsaved.isEmpty()) {
+            log.warn("Idempotência: {} respostas não gravadas na parada", unsaved.size());
+        }
+    }
+
+    /**
+     * Insere a chave na tabela; se outra instância já a tem, espera a resposta dela.
+     */
+    private StoredResponse claim(String key, String fingerprint, long deadline) {
+        while (true) {
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            if (durable.tryInsert(key, fingerprint, now, now.plus(properties.lease()))) {
+                return null;
+            }
+            JdbcIdempotencyRepository.Entry entry = durable.find(key).orElse(null);
+            if (entry == null) {
+                continue;
+            }
+            // resposta vencida ou reserva de uma instância que parou de renovar
+            if (entry.expiresAt().isBefore(now)) {
+                durable.remove(key, entry.expiresAt());
+                continue;
+            }
+            if (!entry.pending()) {
+                return entry.response();
+            }
+            if (!entry.fingerprint().equals(fingerprint)) {
+                throw reused();
+            }
+            if (System.nanoTime() >= deadline) {
+                throw inProgress();
+            }
+            sleep();
+        }
+    }
+
+    private void save(String key) {
+        StoredResponse response = unsaved.get(key);
+        if (response == null) {
+            return;
+        }
+        try {
+            durable.complete(key, response, Instant.now().truncatedTo(ChronoUnit.MICROS).plus(properties.ttl()));
+            unsaved.remove(key, response);
+            leased.remove(key);
+        } catch (RuntimeException e) {
+            // a reserva continua sendo renovada: as outras instâncias recebem 409 até a próxima tentativa
+            log.warn("Não foi possível gravar a resposta da Idempotency-Key {}; nova tentativa na renovação do lease",
+                    key, e);
+        }
+    }
+
+    private void renew() {
+        try {
+            if (!leased.isEmpty()) {
+                durable.renew(List.copyOf(leased),
+                        Instant.now().truncatedTo(ChronoUnit.MICROS).plus(properties.lease()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível renovar o lease das Idempotency-Keys em andamento", e);
+        }
+        unsaved.keySet().forEach(this::save);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void release(String key, CompletableFuture<StoredResponse> future, StoredResponse response) {
+        if (future != null) {
+            inFlight.remove(key, future);
+            future.complete(response);
+        }
+    }
+
+    private void prune() {
+        try {
+            int removed = durable.prune(Instant.now());
+            if (removed > 0) {
+                log.info("Idempotência: {} chaves vencidas removidas", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível limpar as chaves de idempotência vencidas", e);
+        }
+    }
+
+    private static StoredResponse check(StoredResponse response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw reused();
+        }
+        return response;
+    }
+
+    private static UnprocessableEntityException reused() {
+        return new UnprocessableEntityException("Idempotency-Key já usada com outra requisição");
+    }
+
+    private static ConflictException inProgress() {
+        return new ConflictException("Requisição com a mesma Idempotency-Key ainda em andamento. Tente novamente em instantes.");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+}
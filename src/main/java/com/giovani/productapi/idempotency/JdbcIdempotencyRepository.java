@@ -0,0 +1,114 @@
+package com.giovani.productapi.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tabela {@code idempotency_key}. A chave primária é o lock entre instâncias: só uma consegue
+ * inserir a linha (com {@code status} nulo) e as demais esperam ela gravar a resposta. Numa linha
+ * pendente {@code expires_at} é o fim do lease da instância dona; depois da resposta, o fim do {@code ttl}.
+ */
+class JdbcIdempotencyRepository {
+
+    private static final TypeReference<Map<String, String>> HEADERS = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    JdbcIdempotencyRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    record Entry(String fingerprint, StoredResponse response, Instant expiresAt) {
+
+        boolean pending() {
+            return response == null;
+        }
+    }
+
+    boolean tryInsert(String key, String fingerprint, Instant now, Instant leaseUntil) {
+        try {
+            jdbcTemplate.update("insert into idempotency_key (idempotency_key, fingerprint, created_at, expires_at) "
+                    + "values (?, ?, ?, ?)", key, fingerprint, Timestamp.from(now), Timestamp.from(leaseUntil));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    Optional<Entry> find(String key) {
+        return jdbcTemplate.query("select fingerprint, status, headers, body, expires_at "
+                + "from idempotency_key where idempotency_key = ?", this::map, key).stream().findFirst();
+    }
+
+    void complete(String key, StoredResponse response, Instant expiresAt) {
+        jdbcTemplate.update("update idempotency_key set status = ?, headers = ?, body = ?, expires_at = ? "
+                        + "where idempotency_key = ? and status is null",
+                response.status(), write(response.headers()), response.body(), Timestamp.from(expiresAt), key);
+    }
+
+    /**
+     * Estende o lease das chaves pendentes desta instância (um batch JDBC).
+     */
+    void renew(List<String> keys, Instant leaseUntil) {
+        Timestamp until = Timestamp.from(leaseUntil);
+        jdbcTemplate.batchUpdate("update idempotency_key set expires_at = ? where idempotency_key = ? and status is null",
+                keys, keys.size(), (statement, key) -> {
+                    statement.setTimestamp(1, until);
+                    statement.setString(2, key);
+                });
+    }
+
+    void release(String key) {
+        jdbcTemplate.update("delete from idempotency_key where idempotency_key = ? and status is null", key);
+    }
+
+    /**
+     * Remove uma linha vencida ou abandonada, desde que não tenha sido renovada depois de lida.
+     */
+    void remove(String key, Instant expiresAt) {
+        jdbcTemplate.update("delete from idempotency_key where idempotency_key = ? and expires_at = ?",
+                key, Timestamp.from(expiresAt));
+    }
+
+    int prune(Instant now) {
+        return jdbcTemplate.update("delete from idempotency_key where expires_at < ?", Timestamp.from(now));
+    }
+
+    private Entry map(ResultSet rs, int row) throws SQLException {
+        String fingerprint = rs.getString("fingerprint");
+        Integer status = rs.getObject("status", Integer.class);
+        StoredResponse response = status == null ? null
+                : new StoredResponse(fingerprint, status, read(rs.getString("headers")), rs.getBytes("body"));
+        return new Entry(fingerprint, response, rs.getTimestamp("expires_at").toInstant());
+    }
+
+    private String write(Map<String, String> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar os cabeçalhos", e);
+        }
+    }
+
+    private Map<String, String> read(String headers) {
+        try {
+            return headers == null ? Map.of() : objectMapper.readValue(headers, HEADERS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cabeçalhos inválidos na tabela idempotency_key", e);
+        }
+    }
+}
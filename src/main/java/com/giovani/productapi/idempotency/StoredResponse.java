@@ -0,0 +1,9 @@
+package com.giovani.productapi.idempotency;
+
+import java.util.Map;
+
+/**
+ * Resposta guardada para uma Idempotency-Key, com a impressão digital da requisição que a gerou.
+ */
+record StoredResponse(String fingerprint, int status, Map<String, String> headers, byte[] body) {
+}
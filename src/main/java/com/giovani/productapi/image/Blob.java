@@ -0,0 +1,9 @@
+package com.giovani.productapi.image;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Conteúdo guardado num {@link BlobStore}. O {@code resource} só abre o conteúdo quando lido.
+ */
+public record Blob(String key, long length, Resource resource) {
+}
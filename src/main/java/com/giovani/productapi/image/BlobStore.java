@@ -0,0 +1,30 @@
+package com.giovani.productapi.image;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Armazenamento de arquivos por chave. As chaves são derivadas do hash do conteúdo, então um
+ * {@link #put} nunca muda o conteúdo de uma chave existente e o que foi gravado pode ser cacheado para sempre.
+ */
+public interface BlobStore {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Grava o arquivo já recebido em {@code content}; o store pode movê-lo em vez de copiar.
+     */
+    void put(String key, Path content, MediaType contentType) throws IOException;
+
+    Optional<Blob> find(String key) throws IOException;
+
+    /**
+     * Onde os uploads são recebidos antes do {@link #put}. No mesmo disco do store, o put vira um rename.
+     */
+    default Path stagingDirectory() throws IOException {
+        return Path.of(System.getProperty("java.io.tmpdir"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.giovani.productapi.image;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+/**
+ * Formatos aceitos no upload, reconhecidos pelos primeiros bytes (o Content-Type do cliente não é confiável).
+ */
+public enum ImageFormat {
+
+    JPEG("jpg", MediaType.IMAGE_JPEG),
+    PNG("png", MediaType.IMAGE_PNG),
+    GIF("gif", MediaType.IMAGE_GIF),
+    WEBP("webp", MediaType.parseMediaType("image/webp"));
+
+    /** Bytes lidos do início do arquivo para reconhecer o formato. */
+    static final int SIGNATURE_LENGTH = 12;
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ImageFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    static Optional<ImageFormat> detect(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return Optional.of(JPEG);
+        }
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return Optional.of(PNG);
+        }
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return Optional.of(GIF);
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    static Optional<ImageFormat> fromExtension(String extension) {
+        for (ImageFormat format : values()) {
+            if (format.extension.equals(extension)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,37 @@
+package com.giovani.productapi.image;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * @param store            {@code local} (sistema de arquivos em {@code local-root}) ou {@code s3}
+ * @param maxSize          tamanho máximo de uma imagem enviada
+ * @param thumbnailSize    lado máximo da miniatura, em pixels
+ * @param thumbnailThreads threads que geram miniaturas
+ * @param thumbnailQueue   miniaturas aguardando geração; acima disso o pedido é descartado e refeito sob demanda
+ */
+@ConfigurationProperties(prefix = "productapi.images")
+public record ImageProperties(
+        @DefaultValue("local") String store,
+        @DefaultValue("data/images") Path localRoot,
+        @DefaultValue("10MB") DataSize maxSize,
+        @DefaultValue("256") int thumbnailSize,
+        @DefaultValue("2") int thumbnailThreads,
+        @DefaultValue("100") int thumbnailQueue,
+        @DefaultValue S3 s3) {
+
+    /**
+     * Qualquer serviço compatível com S3 (AWS, MinIO, ...). {@code endpoint} vazio usa o da AWS na região.
+     */
+    public record S3(
+            String endpoint,
+            @DefaultValue("us-east-1") String region,
+            String bucket,
+            String accessKey,
+            String secretKey,
+            @DefaultValue("true") boolean pathStyle) {
+    }
+}
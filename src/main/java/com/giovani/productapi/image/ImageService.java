@@ -0,0 +1,158 @@
+package com.giovani.productapi.image;
+
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Recebe a imagem de um produto em streaming: o corpo vai para um arquivo temporário no staging do
+ * {@link BlobStore} enquanto é calculado o SHA-256, sem passar inteiro pela memória. O hash é a chave
+ * do blob, então o mesmo arquivo enviado duas vezes (ou para dois produtos) é gravado uma vez só.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class ImageService {
+
+    public static final String URL_PREFIX = "/api/v1/images/";
+
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}(-thumb)?\\.(jpg|png|gif|webp)");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BlobStore store;
+    private final ThumbnailGenerator thumbnails;
+    private final ProductService productService;
+    private final long maxSize;
+
+    public ImageService(BlobStore store, ThumbnailGenerator thumbnails, ProductService productService,
+                        ImageProperties properties) {
+        this.store = store;
+        this.thumbnails = thumbnails;
+        this.productService = productService;
+        this.maxSize = properties.maxSize().toBytes();
+    }
+
+    /**
+     * Grava a imagem e aponta o {@code imageUrl} do produto para ela.
+     *
+     * @throws BadRequestException se o corpo estiver vazio, passar de {@code max-size} ou não for JPEG, PNG, GIF ou WebP
+     */
+    public ProductResponse upload(Long productId, InputStream body, Long expectedVersion) {
+        // produto inexistente falha antes de receber o corpo
+        productService.findVersion(productId);
+
+        Path staged = null;
+        try {
+            staged = Files.createTempFile(store.stagingDirectory(), "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] head = new byte[ImageFormat.SIGNATURE_LENGTH];
+            int headLength = 0;
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(staged), digest)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BadRequestException("Imagem excede o limite de " + maxSize + " bytes");
+                    }
+                    if (headLength < head.length) {
+                        int copied = Math.min(read, head.length - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, copied);
+                        headLength += copied;
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("Imagem vazia");
+            }
+            ImageFormat format = ImageFormat.detect(head, headLength)
+                    .orElseThrow(() -> new BadRequestException("Formato de imagem não suportado (use JPEG, PNG, GIF ou WebP)"));
+
+            String key = HexFormat.of().formatHex(digest.digest()) + "." + format.extension();
+            if (!store.exists(key)) {
+                store.put(key, staged, format.mediaType());
+            }
+            thumbnails.schedule(key);
+            return productService.updateImage(productId, URL_PREFIX + key, expectedVersion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a imagem do produto " + productId, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    /**
+     * Imagem ou miniatura pelo nome publicado em {@code imageUrl}; nomes fora do padrão não existem.
+     */
+    public Optional<Blob> find(String name) {
+        if (!NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        try {
+            return store.find(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a imagem " + name, e);
+        }
+    }
+
+    /**
+     * Agenda a miniatura que ainda não existe, se {@code name} for o nome de uma miniatura.
+     */
+    public void requestThumbnail(String name) {
+        if (!NAME.matcher(name).matches() || !name.endsWith(ThumbnailGenerator.SUFFIX)) {
+            return;
+        }
+        String hash = name.substring(0, name.length() - ThumbnailGenerator.SUFFIX.length());
+        try {
+            for (ImageFormat format : ImageFormat.values()) {
+                String original = hash + "." + format.extension();
+                if (store.exists(original)) {
+                    thumbnails.schedule(original);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível agendar a miniatura {}", name, e);
+        }
+    }
+
+    public static boolean isThumbnail(String name) {
+        return name.endsWith(ThumbnailGenerator.SUFFIX);
+    }
+
+    public static Optional<ImageFormat> formatOf(String name) {
+        return ImageFormat.fromExtension(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            // o LocalBlobStore move o arquivo; os demais deixam para apagar aqui
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o upload temporário {}", file, e);
+        }
+    }
+}
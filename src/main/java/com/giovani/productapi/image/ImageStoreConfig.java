@@ -0,0 +1,30 @@
+package com.giovani.productapi.image;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+/**
+ * {@link BlobStore} das imagens conforme {@code productapi.images.store}.
+ */
+@Configuration
+@Profile("!reactive")
+public class ImageStoreConfig {
+
+    @Bean
+    public BlobStore imageStore(ImageProperties properties) throws IOException {
+        return switch (properties.store()) {
+            case "local" -> new LocalBlobStore(properties.localRoot());
+            case "s3" -> {
+                if (properties.s3().bucket() == null || properties.s3().bucket().isBlank()) {
+                    throw new IllegalStateException("productapi.images.s3.bucket é obrigatório com store=s3");
+                }
+                yield new S3BlobStore(properties.s3());
+            }
+            default -> throw new IllegalStateException("productapi.images.store inválido: " + properties.store()
+                    + " (use local ou s3)");
+        };
+    }
+}
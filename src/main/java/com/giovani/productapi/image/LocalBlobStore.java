@@ -0,0 +1,65 @@
+package com.giovani.productapi.image;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Blobs em {@code root/<2 primeiros caracteres>/<chave>}. O upload é recebido em {@code root/.staging}
+ * e entra no store com um rename atômico: quem lê nunca vê um arquivo pela metade.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalBlobStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.staging = Files.createDirectories(this.root.resolve(".staging"));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(path(key));
+    }
+
+    @Override
+    public void put(String key, Path content, MediaType contentType) throws IOException {
+        Path target = path(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(content, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Path copy = Files.createTempFile(staging, "copy-", ".tmp");
+            Files.copy(content, copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(copy, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public Optional<Blob> find(String key) throws IOException {
+        Path path = path(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Blob(key, Files.size(path), new FileSystemResource(path)));
+    }
+
+    @Override
+    public Path stagingDirectory() {
+        return staging;
+    }
+
+    private Path path(String key) {
+        if (key.length() < 3 || !key.matches("[0-9a-z.-]+") || key.startsWith(".")) {
+            throw new IllegalArgumentException("Chave de blob inválida: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+}
@@ -0,0 +1,184 @@
+package com.giovani.productapi.image;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.http.MediaType;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Blobs num bucket compatível com S3. O objeto só é baixado quando o {@link Blob} é lido, e um
+ * {@code skip} antes da primeira leitura vira um GET com {@code Range}: respostas 206 não trazem o prefixo.
+ */
+public class S3BlobStore implements BlobStore, DisposableBean {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final S3Client client;
+    private final String bucket;
+
+    public S3BlobStore(ImageProperties.S3 properties) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(properties.region()))
+                .forcePathStyle(properties.pathStyle())
+                // checksums CRC só quando a operação exige: MinIO e outros compatíveis não aceitam todos
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+                .credentialsProvider(properties.accessKey() == null || properties.accessKey().isBlank()
+                        ? DefaultCredentialsProvider.create()
+                        : StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(properties.accessKey(), properties.secretKey())));
+        if (properties.endpoint() != null && !properties.endpoint().isBlank()) {
+            builder.endpointOverride(URI.create(properties.endpoint()));
+        }
+        this.client = builder.build();
+        this.bucket = properties.bucket();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        return head(key).isPresent();
+    }
+
+    @Override
+    public void put(String key, Path content, MediaType contentType) throws IOException {
+        try {
+            client.putObject(request -> request.bucket(bucket).key(key)
+                    .contentType(contentType.toString())
+                    .cacheControl(IMMUTABLE), RequestBody.fromFile(content));
+        } catch (S3Exception e) {
+            throw new IOException("Falha ao gravar " + key + " no bucket " + bucket, e);
+        }
+    }
+
+    @Override
+    public Optional<Blob> find(String key) throws IOException {
+        return head(key).map(head -> new Blob(key, head.contentLength(), new ObjectResource(key, head.contentLength())));
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+
+    private Optional<HeadObjectResponse> head(String key) throws IOException {
+        try {
+            return Optional.of(client.headObject(request -> request.bucket(bucket).key(key)));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Falha ao consultar " + key + " no bucket " + bucket, e);
+        }
+    }
+
+    private class ObjectResource extends AbstractResource {
+
+        private final String key;
+        private final long length;
+
+        ObjectResource(String key, long length) {
+            this.key = key;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new RangedObjectStream(key);
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getFilename() {
+            return key;
+        }
+
+        @Override
+        public String getDescription() {
+            return "s3://" + bucket + "/" + key;
+        }
+    }
+
+    /**
+     * Abre o GET só na primeira leitura, a partir do offset acumulado pelos {@code skip} anteriores.
+     */
+    private class RangedObjectStream extends InputStream {
+
+        private final String key;
+        private long offset;
+        private InputStream object;
+
+        RangedObjectStream(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (object == null) {
+                offset += Math.max(0, n);
+                return Math.max(0, n);
+            }
+            return object.skip(n);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            return open().read(buffer, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (object != null) {
+                object.close();
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (object == null) {
+                GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+                if (offset > 0) {
+                    request.range("bytes=" + offset + "-");
+                }
+                try {
+                    object = client.getObject(request.build());
+                } catch (S3Exception e) {
+                    throw new IOException("Falha ao ler " + key + " do bucket " + bucket, e);
+                }
+            }
+            return object;
+        }
+    }
+}
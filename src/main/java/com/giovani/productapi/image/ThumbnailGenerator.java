@@ -0,0 +1,159 @@
+package com.giovani.productapi.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Miniaturas JPEG geradas fora da requisição, num pool de {@code thumbnail-threads} com fila de
+ * {@code thumbnail-queue}. Fila cheia descarta o pedido; a miniatura é pedida de novo no primeiro download.
+ * A imagem é decodificada com subamostragem, então uma foto grande não é carregada inteira na memória.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class ThumbnailGenerator implements DisposableBean {
+
+    static final String SUFFIX = "-thumb.jpg";
+
+    // acima disso a imagem é ignorada (protege contra "bombas" de descompressão)
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final BlobStore store;
+    private final int size;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailGenerator(BlobStore store, ImageProperties properties) {
+        this.store = store;
+        this.size = properties.thumbnailSize();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.thumbnailThreads(), properties.thumbnailThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.thumbnailQueue()), runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    static String thumbnailKey(String originalKey) {
+        return originalKey.substring(0, originalKey.indexOf('.')) + SUFFIX;
+    }
+
+    /**
+     * Agenda a miniatura da imagem {@code originalKey}, se ainda não estiver agendada.
+     */
+    public void schedule(String originalKey) {
+        String thumbnailKey = thumbnailKey(originalKey);
+        if (!pending.add(thumbnailKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(originalKey, thumbnailKey);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Falha ao gerar a miniatura de {}", originalKey, e);
+                } finally {
+                    pending.remove(thumbnailKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(thumbnailKey);
+            log.debug("Fila de miniaturas cheia; {} fica para depois", originalKey);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void generate(String originalKey, String thumbnailKey) throws IOException {
+        if (store.exists(thumbnailKey)) {
+            return;
+        }
+        Blob original = store.find(originalKey).orElse(null);
+        BufferedImage source = original == null ? null : decode(original.resource());
+        if (source == null) {
+            log.debug("Sem miniatura para {}: imagem ausente ou formato sem decodificador", originalKey);
+            return;
+        }
+        Path file = Files.createTempFile(store.stagingDirectory(), "thumb-", ".tmp");
+        try {
+            ImageIO.write(scale(source), "jpg", file.toFile());
+            store.put(thumbnailKey, file, MediaType.IMAGE_JPEG);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private BufferedImage decode(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream(); ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    log.warn("Imagem {} com {}x{} pixels ignorada para miniatura", resource.getFilename(), width, height);
+                    return null;
+                }
+                // lê no máximo ~2x o tamanho final; o resto da redução é feito com interpolação
+                int step = Math.max(1, Math.max(width, height) / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            // JPEG não tem transparência: fundo branco
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
@@ -0,0 +1,156 @@
+package com.giovani.productapi.imports;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.feed.ProductChangeLog;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.stats.ProductStatistics;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.giovani.productapi.mapper.ProductMapper.toEntity;
+import static com.giovani.productapi.mapper.ProductMapper.toResponse;
+
+/**
+ * Grava um bloco validado numa transação: upsert dos produtos (registro com {@code id} existente é
+ * atualizado; sem {@code id}, ou com um que não existe, vira produto novo com id da sequência), outbox
+ * do feed, erros do bloco e o ponto de retomada do job. Como o progresso só avança junto com os
+ * produtos, um bloco nunca é gravado duas vezes. Se o bloco falhar, os registros são gravados um a um,
+ * cada um na sua transação, como em {@code ProductBatchService}.
+ */
+class ImportChunkWriter {
+
+    static final String WRITE_FAILED = "Falha ao gravar o produto";
+
+    private final ProductRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcImportJobRepository jobs;
+    private final ProductChangeLog changeLog;
+    private final ProductStatistics statistics;
+    private final ProductCache cache;
+    private final ApplicationEventPublisher events;
+
+    ImportChunkWriter(ProductRepository repository, TransactionTemplate transactionTemplate,
+                      JdbcImportJobRepository jobs, ProductChangeLog changeLog, ProductStatistics statistics,
+                      ProductCache cache, ApplicationEventPublisher events) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobs = jobs;
+        this.changeLog = changeLog;
+        this.statistics = statistics;
+        this.cache = cache;
+        this.events = events;
+    }
+
+    /**
+     * Contagens gravadas; {@code owned} falso quando o job deixou de ser deste dono no meio do caminho
+     * (o que foi gravado antes disso está nas contagens).
+     */
+    record Written(long created, long updated, long failed, boolean owned) {
+
+        static final Written LOST = new Written(0, 0, 0, false);
+
+        Written plus(Written other) {
+            return new Written(created + other.created, updated + other.updated, failed + other.failed, other.owned);
+        }
+    }
+
+    /**
+     * @param errorSlots quantos erros ainda podem ser guardados para consulta neste job
+     */
+    Written write(String jobId, String owner, List<ImportRecord> chunk, long errorSlots) {
+        try {
+            return writeInTransaction(jobId, owner, chunk, errorSlots);
+        } catch (RuntimeException e) {
+            Written total = new Written(0, 0, 0, true);
+            for (ImportRecord record : chunk) {
+                Written one;
+                try {
+                    one = writeInTransaction(jobId, owner, List.of(record), errorSlots - total.failed());
+                } catch (RuntimeException recordFailure) {
+                    // o registro fica como erro e o progresso avança mesmo assim
+                    one = writeInTransaction(jobId, owner, List.of(record.withError(WRITE_FAILED)),
+                            errorSlots - total.failed());
+                }
+                total = total.plus(one);
+                if (!one.owned()) {
+                    break;
+                }
+            }
+            return total;
+        }
+    }
+
+    private Written writeInTransaction(String jobId, String owner, List<ImportRecord> chunk, long errorSlots) {
+        List<ProductChangedEvent> changes = new ArrayList<>();
+        Written written = transactionTemplate.execute(status -> {
+            List<ImportRecord> errors = new ArrayList<>();
+            List<ImportRecord> updates = new ArrayList<>();
+            List<ImportRecord> creates = new ArrayList<>();
+            Set<Long> ids = new LinkedHashSet<>();
+            for (ImportRecord record : chunk) {
+                if (record.error() != null) {
+                    errors.add(record);
+                } else if (record.id() != null) {
+                    updates.add(record);
+                    ids.add(record.id());
+                } else {
+                    creates.add(record);
+                }
+            }
+
+            Map<Long, Product> found = ids.isEmpty() ? Map.of() : repository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            long updated = 0;
+            // o mesmo id duas vezes no bloco: as duas atualizações são aplicadas em ordem e vale a última
+            for (ImportRecord record : updates) {
+                Product product = found.get(record.id());
+                if (product == null) {
+                    creates.add(record);
+                    continue;
+                }
+                statistics.record(product.getPrice(), record.request().getPrice());
+                product.setName(record.request().getName());
+                product.setDescription(record.request().getDescription());
+                product.setPrice(record.request().getPrice());
+                updated++;
+            }
+            List<Product> created = repository.saveAll(creates.stream().map(record -> toEntity(record.request())).toList());
+            repository.flush();
+
+            created.forEach(product -> {
+                changes.add(ProductChangedEvent.created(toResponse(product)));
+                statistics.record(null, product.getPrice());
+            });
+            found.values().forEach(product -> changes.add(ProductChangedEvent.updated(toResponse(product))));
+            changeLog.append(changes);
+
+            if (errorSlots > 0 && !errors.isEmpty()) {
+                jobs.insertErrors(jobId, errors.subList(0, (int) Math.min(errors.size(), errorSlots)));
+            }
+            ImportRecord last = chunk.get(chunk.size() - 1);
+            if (!jobs.advance(jobId, owner, last.endOffset(), last.endLine(), created.size(), updated, errors.size())) {
+                status.setRollbackOnly();
+                return Written.LOST;
+            }
+            return new Written(created.size(), updated, errors.size(), true);
+        });
+        if (!written.owned()) {
+            return written;
+        }
+        // put e não evict: uma leitura em andamento não devolve ao cache a versão anterior ao bloco,
+        // e ids novos perdem a marca de inexistente
+        changes.forEach(change -> cache.put(change.product()));
+        changes.forEach(events::publishEvent);
+        return written;
+    }
+}
@@ -0,0 +1,30 @@
+package com.giovani.productapi.imports;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.feed.ProductChangeLog;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.stats.ProductStatistics;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@Profile("!reactive")
+public class ImportConfig {
+
+    @Bean
+    JdbcImportJobRepository importJobRepository(JdbcTemplate jdbcTemplate) {
+        return new JdbcImportJobRepository(jdbcTemplate);
+    }
+
+    @Bean
+    ImportChunkWriter importChunkWriter(ProductRepository repository, TransactionTemplate transactionTemplate,
+                                        JdbcImportJobRepository jobs, ProductChangeLog changeLog,
+                                        ProductStatistics statistics, ProductCache cache,
+                                        ApplicationEventPublisher events) {
+        return new ImportChunkWriter(repository, transactionTemplate, jobs, changeLog, statistics, cache, events);
+    }
+}
@@ -0,0 +1,39 @@
+package com.giovani.productapi.imports;
+
+import com.giovani.productapi.exceptions.BadRequestException;
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+
+    CSV("csv", MediaType.parseMediaType("text/csv")),
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ImportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static ImportFormat from(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new BadRequestException("Formato de importação não suportado: " + contentType
+                + " (use text/csv ou application/x-ndjson)");
+    }
+}
@@ -0,0 +1,33 @@
+package com.giovani.productapi.imports;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory         onde os arquivos enviados ficam até a importação terminar; com várias instâncias,
+ *                          um volume compartilhado, para que qualquer uma retome o job
+ * @param maxSize           tamanho máximo de um arquivo
+ * @param chunkSize         registros por transação; o progresso é gravado a cada bloco
+ * @param validationThreads threads que validam os blocos, compartilhadas entre os jobs
+ * @param inFlightChunks    blocos lidos e ainda não gravados por job; com isso cheio, a leitura espera
+ * @param maxConcurrentJobs jobs executados ao mesmo tempo nesta instância
+ * @param maxErrors         erros guardados por job para consulta; os demais só entram na contagem
+ * @param lease             um job sem renovação por esse tempo é considerado abandonado e retomado
+ * @param pollInterval      intervalo da busca por jobs pendentes ou abandonados
+ */
+@ConfigurationProperties(prefix = "productapi.imports")
+public record ImportProperties(
+        @DefaultValue("data/imports") Path directory,
+        @DefaultValue("5GB") DataSize maxSize,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("2") int validationThreads,
+        @DefaultValue("4") int inFlightChunks,
+        @DefaultValue("2") int maxConcurrentJobs,
+        @DefaultValue("10000") int maxErrors,
+        @DefaultValue("1m") Duration lease,
+        @DefaultValue("5s") Duration pollInterval) {
+}
@@ -0,0 +1,347 @@
+package com.giovani.productapi.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.giovani.productapi.dto.ProductRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê um arquivo de importação em blocos de registros, contando bytes e linhas consumidos para que a
+ * leitura possa recomeçar exatamente depois do último registro gravado. Só o registro corrente fica na
+ * memória; um registro acima de {@value #MAX_RECORD_BYTES} bytes (ou com aspas sem fechamento) vira erro.
+ * <p>
+ * CSV: cabeçalho obrigatório com {@code name} e {@code price}; {@code id} e {@code description} são
+ * opcionais e as demais colunas são ignoradas (o arquivo da exportação serve). NDJSON: um objeto por linha.
+ */
+final class ImportReader implements Closeable {
+
+    static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TOO_LARGE = "Registro maior que " + MAX_RECORD_BYTES + " bytes";
+    private static final String UNCLOSED = "Aspas sem fechamento ou registro maior que " + MAX_RECORD_BYTES + " bytes";
+
+    private final FileChannel channel;
+    private final ImportFormat format;
+    private final ObjectReader json;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private boolean truncated;
+
+    // bytes e linhas consumidos desde o início do arquivo
+    private long offset;
+    private long lineNumber;
+
+    private Map<String, Integer> columns;
+
+    private ImportReader(Path file, ImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.format = format;
+        this.json = objectMapper.readerFor(ProductRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Abre o arquivo posicionado em {@code offset} (o cabeçalho CSV é sempre lido do início).
+     *
+     * @throws InvalidFileException se o cabeçalho CSV não tiver as colunas obrigatórias
+     */
+    static ImportReader open(Path file, ImportFormat format, ObjectMapper objectMapper, long offset, long line)
+            throws IOException {
+        ImportReader reader = new ImportReader(file, format, objectMapper);
+        try {
+            if (format == ImportFormat.CSV) {
+                reader.readHeader();
+            }
+            if (offset > reader.offset) {
+                reader.seek(offset, line);
+            }
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Até {@code max} registros; vazio no fim do arquivo.
+     */
+    List<ImportRecord> next(int max) throws IOException {
+        List<ImportRecord> records = new ArrayList<>(Math.min(max, 1024));
+        while (records.size() < max) {
+            ImportRecord record = format == ImportFormat.CSV ? nextCsv() : nextJson();
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+        String header = readLine();
+        if (header == null || truncated) {
+            throw new InvalidFileException("Arquivo CSV sem cabeçalho");
+        }
+        List<String> names = split(header);
+        columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i) == null ? "" : names.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new InvalidFileException("Cabeçalho CSV deve ter as colunas name e price: " + header);
+        }
+    }
+
+    private ImportRecord nextCsv() throws IOException {
+        while (true) {
+            long first = lineNumber + 1;
+            String text = readLine();
+            if (text == null) {
+                return null;
+            }
+            if (truncated) {
+                return ImportRecord.failed(first, lineNumber, offset, TOO_LARGE);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            // aspas em número ímpar: um campo entre aspas continua na próxima linha
+            StringBuilder record = new StringBuilder(text);
+            int quotes = quotes(text);
+            while (quotes % 2 != 0) {
+                String more = readLine();
+                if (more == null || truncated || record.length() + more.length() > MAX_RECORD_BYTES) {
+                    return ImportRecord.failed(first, lineNumber, offset, UNCLOSED);
+                }
+                record.append('\n').append(more);
+                quotes += quotes(more);
+            }
+            return csvRecord(first, split(record.toString()));
+        }
+    }
+
+    private ImportRecord csvRecord(long first, List<String> fields) {
+        Long id = null;
+        String idText = column(fields, "id");
+        if (idText != null && !idText.isBlank()) {
+            try {
+                id = parseId(idText.trim());
+            } catch (NumberFormatException e) {
+                return ImportRecord.failed(first, lineNumber, offset, "id inválido: " + idText);
+            }
+        }
+        BigDecimal price = null;
+        String priceText = column(fields, "price");
+        if (priceText != null && !priceText.isBlank()) {
+            try {
+                price = new BigDecimal(priceText.trim());
+            } catch (NumberFormatException e) {
+                return ImportRecord.failed(first, lineNumber, offset, "price inválido: " + priceText);
+            }
+        }
+        ProductRequest request = ProductRequest.builder()
+                .name(column(fields, "name"))
+                .description(column(fields, "description"))
+                .price(price)
+                .build();
+        return new ImportRecord(first, lineNumber, offset, id, request, null);
+    }
+
+    private ImportRecord nextJson() throws IOException {
+        while (true) {
+            long first = lineNumber + 1;
+            String text = readLine();
+            if (text == null) {
+                return null;
+            }
+            if (truncated) {
+                return ImportRecord.failed(first, lineNumber, offset, TOO_LARGE);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode node = json.readTree(text);
+                if (!node.isObject()) {
+                    return ImportRecord.failed(first, lineNumber, offset, "JSON inválido: esperado um objeto");
+                }
+                Long id = jsonId(node.get("id"));
+                return new ImportRecord(first, lineNumber, offset, id, json.readValue(node), null);
+            } catch (NumberFormatException e) {
+                return ImportRecord.failed(first, lineNumber, offset, "id inválido: " + e.getMessage());
+            } catch (JsonProcessingException e) {
+                return ImportRecord.failed(first, lineNumber, offset, "JSON inválido");
+            }
+        }
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static Long jsonId(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return parseId(String.valueOf(node.longValue()));
+        }
+        if (node.isTextual() && !node.textValue().isBlank()) {
+            return parseId(node.textValue().trim());
+        }
+        throw new NumberFormatException(node.toString());
+    }
+
+    private static Long parseId(String text) {
+        long id = Long.parseLong(text);
+        if (id <= 0) {
+            throw new NumberFormatException(text);
+        }
+        return id;
+    }
+
+    /**
+     * Campos de um registro CSV (RFC 4180): aspas duplas delimitam o campo e {@code ""} é uma aspa
+     * literal. Campo vazio fora de aspas vira nulo.
+     */
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (inQuotes) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.isEmpty() && !quoted ? null : field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.isEmpty() && !quoted ? null : field.toString());
+        return fields;
+    }
+
+    private static int quotes(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void seek(long offset, long line) throws IOException {
+        channel.position(offset);
+        this.position = 0;
+        this.limit = 0;
+        this.offset = offset;
+        this.lineNumber = line;
+    }
+
+    /**
+     * Próxima linha física sem o terminador ({@code \n} ou {@code \r\n}), ou nulo no fim do arquivo.
+     * Uma linha maior que o limite é consumida inteira, mas só o começo é guardado e {@code truncated} fica ligado.
+     */
+    private String readLine() throws IOException {
+        boolean start = offset == 0;
+        lineLength = 0;
+        truncated = false;
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(0, channel.read(ByteBuffer.wrap(buffer)));
+                position = 0;
+                if (limit == 0) {
+                    if (!read) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            read = true;
+            int end = position;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            append(position, end - position);
+            offset += end - position;
+            if (end < limit) {
+                position = end + 1;
+                offset++;
+                break;
+            }
+            position = limit;
+        }
+        lineNumber++;
+        int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        // BOM do UTF-8 no início do arquivo
+        return start && text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+
+    private void append(int from, int length) {
+        if (lineLength + length > MAX_RECORD_BYTES) {
+            truncated = true;
+            return;
+        }
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * O arquivo inteiro é inválido (não um registro): o job termina como {@link ImportStatus#FAILED}.
+     */
+    static class InvalidFileException extends RuntimeException {
+
+        InvalidFileException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.giovani.productapi.imports;
+
+import com.giovani.productapi.dto.ProductRequest;
+
+/**
+ * Um registro do arquivo. {@code line} é a primeira linha física dele (um campo CSV entre aspas pode
+ * ocupar várias); {@code endLine} e {@code endOffset} apontam para logo depois dele e são o ponto de
+ * retomada gravado quando ele é o último do bloco. Com {@code error} preenchido o registro não é gravado.
+ */
+record ImportRecord(long line, long endLine, long endOffset, Long id, ProductRequest request, String error) {
+
+    static ImportRecord failed(long line, long endLine, long endOffset, String error) {
+        return new ImportRecord(line, endLine, endOffset, null, null, error);
+    }
+
+    ImportRecord withError(String error) {
+        return new ImportRecord(line, endLine, endOffset, id, request, error);
+    }
+}
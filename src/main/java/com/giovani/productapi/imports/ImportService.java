@@ -0,0 +1,404 @@
+package com.giovani.productapi.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.ImportErrorResponse;
+import com.giovani.productapi.dto.ImportJobResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Importação assíncrona de arquivos grandes. O upload vai direto para um arquivo em
+ * {@code productapi.imports.directory} e vira um job na tabela {@code import_job}; a execução é feita
+ * por até {@code max-concurrent-jobs} threads desta instância, que assumem jobs pendentes (ou
+ * abandonados por uma instância que caiu) com um lease renovado enquanto rodam.
+ * <p>
+ * Cada job é um pipeline: a thread do job lê blocos de {@code chunk-size} registros, a validação
+ * ({@code ProductRequest}) roda em paralelo no pool compartilhado de {@code validation-threads} e os
+ * blocos validados são gravados em ordem pelo {@link ImportChunkWriter}. Com {@code in-flight-chunks}
+ * blocos lidos e não gravados a leitura para, então a memória por job é limitada e um banco lento
+ * desacelera a leitura do arquivo em vez de acumular registros.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class ImportService implements MeterBinder, DisposableBean {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcImportJobRepository jobs;
+    private final ImportChunkWriter writer;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+    private final PaginationProperties pagination;
+    // identifica esta instância como dona dos jobs que está executando
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ExecutorService runners;
+    private final ThreadPoolExecutor validators;
+    private final ScheduledExecutorService scheduler;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder updated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean started;
+    private volatile boolean stopping;
+
+    ImportService(JdbcImportJobRepository jobs, ImportChunkWriter writer, Validator validator, ObjectMapper objectMapper,
+                  ImportProperties properties, PaginationProperties pagination) {
+        this.jobs = jobs;
+        this.writer = writer;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.pagination = pagination;
+        this.runners = Executors.newFixedThreadPool(properties.maxConcurrentJobs(), daemon("import-job-"));
+        // a fila comporta todos os blocos em voo de todos os jobs, então só recusa depois do desligamento
+        this.validators = new ThreadPoolExecutor(properties.validationThreads(), properties.validationThreads(),
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.maxConcurrentJobs() * properties.inFlightChunks()),
+                daemon("import-validation-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("import-scheduler-"));
+    }
+
+    /**
+     * Começa a buscar jobs depois da subida; os que ficaram pela metade (desta ou de outra instância)
+     * são retomados do último bloco gravado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        started = true;
+        long poll = properties.pollInterval().toMillis();
+        long renew = Math.max(1, properties.lease().toMillis() / 3);
+        scheduler.scheduleWithFixedDelay(this::claimQuietly, 0, poll, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::renewQuietly, renew, renew, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Grava o corpo em disco e registra o job; a importação roda em segundo plano.
+     *
+     * @throws BadRequestException se o corpo estiver vazio ou passar de {@code max-size}
+     */
+    public ImportJobResponse submit(InputStream body, ImportFormat format) {
+        String id = UUID.randomUUID().toString();
+        Path file = properties.directory().resolve(id + "." + format.extension()).toAbsolutePath();
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        long maxSize = properties.maxSize().toBytes();
+        boolean registered = false;
+        try {
+            Files.createDirectories(file.getParent());
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(part)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BadRequestException("Arquivo excede o limite de " + maxSize + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("Arquivo vazio");
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            jobs.insert(id, format, file.toString(), size, now());
+            registered = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o arquivo de importação", e);
+        } finally {
+            deleteQuietly(part);
+            if (!registered) {
+                deleteQuietly(file);
+            }
+        }
+        claimSoon();
+        return find(id);
+    }
+
+    public ImportJobResponse find(String id) {
+        return toResponse(jobs.find(id).orElseThrow(() -> notFound(id)));
+    }
+
+    /**
+     * Erros em ordem de linha, a partir da linha seguinte a {@code after}; o cursor {@code next} é a última linha da página.
+     */
+    public CursorPageResponse<ImportErrorResponse> errors(String id, Long after, Integer size) {
+        if (jobs.find(id).isEmpty()) {
+            throw notFound(id);
+        }
+        if (after != null && after < 0) {
+            throw new BadRequestException("Cursor inválido: " + after);
+        }
+        int limit = pagination.clamp(size);
+        List<JdbcImportJobRepository.LineError> rows = jobs.findErrors(id, after == null ? 0 : after, limit + 1);
+        List<ImportErrorResponse> content = rows.stream().limit(limit)
+                .map(row -> ImportErrorResponse.builder().line(row.line()).message(row.message()).build())
+                .toList();
+        return CursorPageResponse.<ImportErrorResponse>builder()
+                .content(content)
+                .size(content.size())
+                .next(rows.size() > limit ? String.valueOf(content.get(content.size() - 1).getLine()) : null)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.imports.active", running, Set::size)
+                .description("Importações em execução nesta instância")
+                .register(registry);
+        rows(registry, "created", created);
+        rows(registry, "updated", updated);
+        rows(registry, "failed", failed);
+    }
+
+    /**
+     * Para entre um bloco e outro e solta os jobs desta instância para serem retomados em seguida
+     * (aqui, na próxima subida, ou em outra instância).
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stopping = true;
+        scheduler.shutdownNow();
+        runners.shutdown();
+        if (!runners.awaitTermination(10, TimeUnit.SECONDS)) {
+            runners.shutdownNow();
+        }
+        validators.shutdownNow();
+        try {
+            jobs.releaseAll(owner);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível soltar as importações em andamento; serão retomadas quando o lease vencer", e);
+        }
+    }
+
+    private void claimSoon() {
+        if (started && !stopping) {
+            scheduler.execute(this::claimQuietly);
+        }
+    }
+
+    private void claimQuietly() {
+        try {
+            int free = properties.maxConcurrentJobs() - running.size();
+            if (free <= 0 || stopping) {
+                return;
+            }
+            Instant now = now();
+            for (String id : jobs.findClaimable(now, free)) {
+                jobs.claim(id, owner, now, now.plus(properties.lease())).ifPresent(job -> {
+                    running.add(job.id());
+                    runners.execute(() -> run(job));
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível buscar importações pendentes", e);
+        }
+    }
+
+    private void renewQuietly() {
+        try {
+            if (!running.isEmpty()) {
+                jobs.renew(owner, now().plus(properties.lease()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível renovar o lease das importações em andamento", e);
+        }
+    }
+
+    private void run(JdbcImportJobRepository.Job job) {
+        Path file = Path.of(job.filePath());
+        Deque<Future<List<ImportRecord>>> inFlight = new ArrayDeque<>();
+        long failedSoFar = job.failed();
+        if (job.committedOffset() > 0) {
+            log.info("Retomando a importação {} a partir da linha {}", job.id(), job.committedLine() + 1);
+        }
+        try (ImportReader reader = ImportReader.open(file, job.format(), objectMapper,
+                job.committedOffset(), job.committedLine())) {
+            boolean owned = true;
+            boolean done = false;
+            while (owned && !stopping) {
+                if (!done) {
+                    List<ImportRecord> chunk = reader.next(properties.chunkSize());
+                    if (chunk.isEmpty()) {
+                        done = true;
+                    } else {
+                        inFlight.add(validators.submit(() -> validate(chunk)));
+                    }
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                if (done || inFlight.size() >= properties.inFlightChunks()) {
+                    ImportChunkWriter.Written written = writer.write(job.id(), owner, inFlight.poll().get(),
+                            properties.maxErrors() - failedSoFar);
+                    failedSoFar += written.failed();
+                    created.add(written.created());
+                    updated.add(written.updated());
+                    failed.add(written.failed());
+                    owned = written.owned();
+                }
+            }
+            if (!owned) {
+                log.warn("A importação {} foi assumida por outra instância (lease vencido)", job.id());
+            } else if (!stopping) {
+                jobs.finish(job.id(), owner, ImportStatus.COMPLETED, null, now());
+                deleteQuietly(file);
+                log.info("Importação {} concluída", job.id());
+            }
+        } catch (ImportReader.InvalidFileException | NoSuchFileException e) {
+            String message = e instanceof NoSuchFileException ? "Arquivo não encontrado: " + file : e.getMessage();
+            finishQuietly(job, ImportStatus.FAILED, message);
+            deleteQuietly(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // banco fora, disco, ...: o job é solto e retomado do último bloco depois de um lease
+            log.warn("Importação {} interrompida; nova tentativa em {}", job.id(), properties.lease(), e);
+            try {
+                jobs.release(job.id(), owner, "Interrompida (" + e.getClass().getSimpleName()
+                        + "); nova tentativa a partir da linha " + (job.committedLine() + 1), now().plus(properties.lease()));
+            } catch (RuntimeException releaseFailure) {
+                log.warn("Não foi possível soltar a importação {}", job.id(), releaseFailure);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            running.remove(job.id());
+            claimSoon();
+        }
+    }
+
+    private List<ImportRecord> validate(List<ImportRecord> chunk) {
+        List<ImportRecord> validated = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (record.error() == null) {
+                Set<ConstraintViolation<ProductRequest>> violations = validator.validate(record.request());
+                if (!violations.isEmpty()) {
+                    record = record.withError(violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                }
+            }
+            validated.add(record);
+        }
+        return validated;
+    }
+
+    private void finishQuietly(JdbcImportJobRepository.Job job, ImportStatus status, String message) {
+        try {
+            jobs.finish(job.id(), owner, status, message, now());
+            log.warn("Importação {} falhou: {}", job.id(), message);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível registrar a falha da importação {}", job.id(), e);
+        }
+    }
+
+    private static ImportJobResponse toResponse(JdbcImportJobRepository.Job job) {
+        long processed = job.created() + job.updated() + job.failed();
+        Instant end = job.finishedAt() != null ? job.finishedAt()
+                : job.status() == ImportStatus.RUNNING ? Instant.now() : null;
+        Double rowsPerSecond = null;
+        if (job.startedAt() != null && end != null) {
+            double seconds = Math.max(0.001, Duration.between(job.startedAt(), end).toMillis() / 1000.0);
+            rowsPerSecond = Math.round(processed / seconds * 10) / 10.0;
+        }
+        double progress = job.status() == ImportStatus.COMPLETED ? 100.0
+                : job.fileSize() == 0 ? 0 : Math.floor(job.committedOffset() * 1000.0 / job.fileSize()) / 10.0;
+        return ImportJobResponse.builder()
+                .id(job.id())
+                .status(job.status().name())
+                .format(job.format().name())
+                .fileSize(job.fileSize())
+                .bytesProcessed(job.committedOffset())
+                .progress(progress)
+                .linesProcessed(job.committedLine())
+                .created(job.created())
+                .updated(job.updated())
+                .failed(job.failed())
+                .rowsPerSecond(rowsPerSecond)
+                .message(job.message())
+                .createdAt(job.createdAt())
+                .startedAt(job.startedAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+
+    private static void rows(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("productapi.imports.rows", counter, LongAdder::sum)
+                .description("Registros importados por resultado")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static ResourceNotFoundException notFound(String id) {
+        return new ResourceNotFoundException("Importação não encontrada: " + id);
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo de importação {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.giovani.productapi.imports;
+
+public enum ImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,147 @@
+package com.giovani.productapi.imports;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tabelas {@code import_job} e {@code import_job_error}. O dono do job ({@code owner}, com lease em
+ * {@code lease_until}) é o lock entre instâncias, e toda gravação de progresso confere o dono: se o
+ * lease venceu e outra instância assumiu, a gravação não acontece e o bloco é desfeito.
+ */
+class JdbcImportJobRepository {
+
+    private static final int MAX_MESSAGE = 1024;
+    private static final String COLUMNS = "id, status, format, file_path, file_size, committed_offset, committed_line, "
+            + "created_count, updated_count, failed_count, message, created_at, started_at, finished_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    JdbcImportJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    record Job(String id, ImportStatus status, ImportFormat format, String filePath, long fileSize,
+               long committedOffset, long committedLine, long created, long updated, long failed,
+               String message, Instant createdAt, Instant startedAt, Instant finishedAt) {
+    }
+
+    record LineError(long line, String message) {
+    }
+
+    void insert(String id, ImportFormat format, String filePath, long fileSize, Instant now) {
+        jdbcTemplate.update("insert into import_job (id, status, format, file_path, file_size, committed_offset, "
+                        + "committed_line, created_count, updated_count, failed_count, created_at) "
+                        + "values (?, ?, ?, ?, ?, 0, 0, 0, 0, 0, ?)",
+                id, ImportStatus.PENDING.name(), format.name(), filePath, fileSize, Timestamp.from(now));
+    }
+
+    Optional<Job> find(String id) {
+        return jdbcTemplate.query("select " + COLUMNS + " from import_job where id = ?", this::map, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * Jobs por terminar sem dono vivo, mais antigos primeiro.
+     */
+    List<String> findClaimable(Instant now, int limit) {
+        return jdbcTemplate.queryForList("select id from import_job where status in (?, ?) "
+                        + "and (lease_until is null or lease_until < ?) order by created_at limit ?", String.class,
+                ImportStatus.PENDING.name(), ImportStatus.RUNNING.name(), Timestamp.from(now), limit);
+    }
+
+    /**
+     * Assume o job se ele continua sem dono vivo; só uma instância consegue.
+     */
+    Optional<Job> claim(String id, String owner, Instant now, Instant leaseUntil) {
+        int claimed = jdbcTemplate.update("update import_job set status = ?, owner = ?, lease_until = ?, "
+                        + "started_at = coalesce(started_at, ?) where id = ? and status in (?, ?) "
+                        + "and (lease_until is null or lease_until < ?)",
+                ImportStatus.RUNNING.name(), owner, Timestamp.from(leaseUntil), Timestamp.from(now), id,
+                ImportStatus.PENDING.name(), ImportStatus.RUNNING.name(), Timestamp.from(now));
+        return claimed == 1 ? find(id) : Optional.empty();
+    }
+
+    void renew(String owner, Instant leaseUntil) {
+        jdbcTemplate.update("update import_job set lease_until = ? where owner = ? and status = ?",
+                Timestamp.from(leaseUntil), owner, ImportStatus.RUNNING.name());
+    }
+
+    /**
+     * Grava o ponto de retomada e soma as contagens do bloco. Chamado dentro da transação do bloco.
+     *
+     * @return falso se o job não é mais deste dono
+     */
+    boolean advance(String id, String owner, long offset, long line, long created, long updated, long failed) {
+        return jdbcTemplate.update("update import_job set committed_offset = ?, committed_line = ?, "
+                        + "created_count = created_count + ?, updated_count = updated_count + ?, "
+                        + "failed_count = failed_count + ? where id = ? and owner = ? and status = ?",
+                offset, line, created, updated, failed, id, owner, ImportStatus.RUNNING.name()) == 1;
+    }
+
+    void insertErrors(String id, List<ImportRecord> errors) {
+        jdbcTemplate.batchUpdate("insert into import_job_error (job_id, line_number, message) values (?, ?, ?)",
+                errors, errors.size(), (statement, error) -> {
+                    statement.setString(1, id);
+                    statement.setLong(2, error.line());
+                    statement.setString(3, truncate(error.error()));
+                });
+    }
+
+    List<LineError> findErrors(String id, long afterLine, int limit) {
+        return jdbcTemplate.query("select line_number, message from import_job_error "
+                        + "where job_id = ? and line_number > ? order by line_number limit ?",
+                (rs, row) -> new LineError(rs.getLong("line_number"), rs.getString("message")), id, afterLine, limit);
+    }
+
+    void finish(String id, String owner, ImportStatus status, String message, Instant now) {
+        jdbcTemplate.update("update import_job set status = ?, message = ?, finished_at = ?, owner = null, "
+                        + "lease_until = null where id = ? and owner = ?",
+                status.name(), truncate(message), Timestamp.from(now), id, owner);
+    }
+
+    /**
+     * Solta o job para ser retomado depois de {@code retryAt} (por esta ou outra instância).
+     */
+    void release(String id, String owner, String message, Instant retryAt) {
+        jdbcTemplate.update("update import_job set owner = null, lease_until = ?, message = ? where id = ? and owner = ?",
+                Timestamp.from(retryAt), truncate(message), id, owner);
+    }
+
+    /**
+     * Solta todos os jobs deste dono para retomada imediata (desligamento da instância).
+     */
+    void releaseAll(String owner) {
+        jdbcTemplate.update("update import_job set owner = null, lease_until = null where owner = ?", owner);
+    }
+
+    private Job map(ResultSet rs, int row) throws SQLException {
+        return new Job(rs.getString("id"),
+                ImportStatus.valueOf(rs.getString("status")),
+                ImportFormat.valueOf(rs.getString("format")),
+                rs.getString("file_path"),
+                rs.getLong("file_size"),
+                rs.getLong("committed_offset"),
+                rs.getLong("committed_line"),
+                rs.getLong("created_count"),
+                rs.getLong("updated_count"),
+                rs.getLong("failed_count"),
+                rs.getString("message"),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("started_at")),
+                instant(rs.getTimestamp("finished_at")));
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE ? message : message.substring(0, MAX_MESSAGE);
+    }
+}
@@ -0,0 +1,74 @@
+package com.giovani.productapi.jdbc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log de consultas lentas e de N+1, escrito por uma thread própria: a requisição só sorteia a
+ * amostra e enfileira; formatação e I/O do log ficam fora do caminho da resposta. Com a fila cheia
+ * a ocorrência é descartada (e contada), para o log nunca segurar uma requisição.
+ */
+@Slf4j
+public class SlowQueryLog implements MeterBinder, DisposableBean {
+
+    private static final int MAX_SQL_LENGTH = 500;
+
+    private final double sampleRate;
+    private final ThreadPoolExecutor writer;
+    private final LongAdder dropped = new LongAdder();
+
+    public SlowQueryLog(SqlTraceProperties properties) {
+        this.sampleRate = properties.logSampleRate();
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.logQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> dropped.increment());
+    }
+
+    void slow(String endpoint, SqlTrace.Statement statement) {
+        if (sampled()) {
+            writer.execute(() -> log.warn("Consulta lenta em {}: {} ms: {}", endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(statement.nanos()), abbreviate(statement.sql())));
+        }
+    }
+
+    void repeated(String endpoint, SqlTrace.Statement statement, int totalStatements) {
+        if (sampled()) {
+            writer.execute(() -> log.warn("Possível N+1 em {}: {} de {} comandos com o mesmo SQL: {}", endpoint,
+                    statement.count(), totalStatements, abbreviate(statement.sql())));
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("productapi.sql.log.dropped", dropped, LongAdder::sum)
+                .description("Ocorrências descartadas com a fila do log de consultas lentas cheia")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.giovani.productapi.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comandos JDBC de uma requisição: quantidade, tempo total e quantas vezes cada SQL foi executado.
+ * Vive numa {@link ThreadLocal} da thread da requisição, entre o {@code preHandle} e o
+ * {@code afterCompletion} do {@link SqlTraceInterceptor}; comandos fora desse intervalo (jobs em
+ * segundo plano, respostas em streaming) não são contados. O objeto também fica no atributo
+ * {@value #ATTRIBUTE} da requisição, para os testes de orçamento de comandos.
+ */
+public final class SqlTrace {
+
+    public static final String ATTRIBUTE = SqlTrace.class.getName();
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final long slowThresholdNanos;
+    private int statements;
+    private long nanos;
+    // criado no primeiro comando; a maioria dos SQL do Hibernate é a mesma instância de String a cada execução
+    private Map<String, Integer> executions;
+    private List<Statement> slow;
+
+    SqlTrace(String endpoint, long slowThresholdNanos) {
+        this.endpoint = endpoint;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    static void begin(SqlTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Um comando executado ou uma execução de lote ({@code executeBatch} conta uma vez).
+     */
+    record Statement(String sql, long nanos, int count) {
+    }
+
+    void record(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (executions == null) {
+            executions = new HashMap<>();
+        }
+        executions.merge(sql, 1, Integer::sum);
+        if (elapsedNanos >= slowThresholdNanos) {
+            if (slow == null) {
+                slow = new ArrayList<>(2);
+            }
+            slow.add(new Statement(sql, elapsedNanos, 1));
+        }
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * Quantas vezes cada SQL foi executado nesta requisição.
+     */
+    public Map<String, Integer> executions() {
+        return executions == null ? Map.of() : executions;
+    }
+
+    List<Statement> slowStatements() {
+        return slow == null ? List.of() : slow;
+    }
+
+    /**
+     * SQL repetidos {@code threshold} vezes ou mais: o padrão de N+1 (um comando por item de uma lista).
+     */
+    List<Statement> repeated(int threshold) {
+        if (executions == null || statements < threshold) {
+            return List.of();
+        }
+        List<Statement> repeated = new ArrayList<>(1);
+        executions.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.add(new Statement(sql, 0, count));
+            }
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,64 @@
+package com.giovani.productapi.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentação JDBC por requisição, no lugar do {@code spring.jpa.show-sql}: em vez de imprimir
+ * cada comando de forma síncrona, conta e mede os comandos de cada endpoint de produto.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "productapi.sql-trace", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlTraceInterceptor> interceptor;
+
+    public SqlTraceConfig(ObjectProvider<SqlTraceInterceptor> interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    /**
+     * Envolve o DataSource da aplicação (bean {@code dataSource}), como o limite de acessos simultâneos.
+     */
+    @Bean
+    static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof TracingDataSource) {
+                    return bean;
+                }
+                return new TracingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SqlTraceProperties properties) {
+        return new SlowQueryLog(properties);
+    }
+
+    @Bean
+    public SqlTraceInterceptor sqlTraceInterceptor(SqlTraceProperties properties, SlowQueryLog slowQueryLog,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SqlTraceInterceptor(properties, slowQueryLog,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor.getObject()).addPathPatterns("/api/v1/products", "/api/v1/products/**");
+    }
+}
@@ -0,0 +1,108 @@
+package com.giovani.productapi.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre o {@link SqlTrace} antes do handler e, ao fim da requisição (depois da serialização, em que o
+ * open-in-view ainda pode carregar associações), publica as métricas por endpoint
+ * ({@code Controller.metodo}) e manda consultas lentas e N+1 para o {@link SlowQueryLog}.
+ */
+public class SqlTraceInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlTraceProperties properties;
+    private final SlowQueryLog slowQueryLog;
+    private final MeterRegistry registry;
+    private final long slowThresholdNanos;
+    // um conjunto de medidores por endpoint, criado na primeira requisição de cada um
+    private final ConcurrentMap<HandlerMethod, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlTraceInterceptor(SqlTraceProperties properties, SlowQueryLog slowQueryLog, MeterRegistry registry) {
+        this.properties = properties;
+        this.slowQueryLog = slowQueryLog;
+        this.registry = registry;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // no redespacho assíncrono a requisição já foi contada na thread original
+        if (handler instanceof HandlerMethod method && request.getDispatcherType() != DispatcherType.ASYNC) {
+            SqlTrace trace = new SqlTrace(endpoint(method), slowThresholdNanos);
+            request.setAttribute(SqlTrace.ATTRIBUTE, trace);
+            SqlTrace.begin(trace);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // o restante da resposta roda em outra thread; o que houve até aqui é publicado e a thread fica limpa
+        afterCompletion(request, response, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlTrace trace = SqlTrace.current();
+        if (trace == null || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        SqlTrace.end();
+
+        EndpointMeters endpoint = meters.computeIfAbsent(method, key -> new EndpointMeters(trace.endpoint(), registry));
+        endpoint.statements.record(trace.statements());
+        endpoint.time.record(trace.nanos(), TimeUnit.NANOSECONDS);
+        for (SqlTrace.Statement statement : trace.slowStatements()) {
+            endpoint.slow.increment();
+            slowQueryLog.slow(trace.endpoint(), statement);
+        }
+        for (SqlTrace.Statement statement : trace.repeated(properties.nPlusOneThreshold())) {
+            endpoint.nPlusOne.increment();
+            slowQueryLog.repeated(trace.endpoint(), statement, trace.statements());
+        }
+    }
+
+    private static String endpoint(HandlerMethod method) {
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+
+    private static final class EndpointMeters {
+
+        private final DistributionSummary statements;
+        private final Timer time;
+        private final Counter slow;
+        private final Counter nPlusOne;
+
+        private EndpointMeters(String endpoint, MeterRegistry registry) {
+            this.statements = DistributionSummary.builder("productapi.sql.statements")
+                    .description("Comandos JDBC por requisição")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            this.time = Timer.builder("productapi.sql.time")
+                    .description("Tempo em comandos JDBC por requisição")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            this.slow = Counter.builder("productapi.sql.slow")
+                    .description("Comandos acima de productapi.sql-trace.slow-threshold")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            this.nPlusOne = Counter.builder("productapi.sql.n_plus_one")
+                    .description("Requisições com o mesmo SQL repetido (possível N+1)")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.giovani.productapi.jdbc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled           instrumenta os comandos JDBC emitidos nas requisições de {@code /api/v1/products}
+ * @param slowThreshold     comando individual acima desse tempo entra no log de consultas lentas
+ * @param nPlusOneThreshold o mesmo SQL executado essa quantidade de vezes numa requisição é tratado como N+1
+ * @param logSampleRate     fração (0 a 1) das ocorrências que vão para o log; as métricas contam todas
+ * @param logQueueSize      ocorrências aguardando o log; com a fila cheia, as novas são descartadas
+ */
+@ConfigurationProperties(prefix = "productapi.sql-trace")
+public record SqlTraceProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100ms") Duration slowThreshold,
+        @DefaultValue("10") int nPlusOneThreshold,
+        @DefaultValue("1.0") double logSampleRate,
+        @DefaultValue("1000") int logQueueSize) {
+}
@@ -0,0 +1,80 @@
+package com.giovani.productapi.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Mede os comandos JDBC e os soma ao {@link SqlTrace} da requisição corrente. Só as conexões obtidas
+ * durante uma requisição rastreada são envolvidas; as demais (Flyway, jobs, agendamentos) saem do
+ * pool sem nenhum proxy. O tempo medido é o da chamada {@code execute*} (envio, execução e, para
+ * consultas, a chegada do primeiro bloco do resultado), sem a leitura das linhas.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return SqlTrace.current() == null ? connection : traced(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return SqlTrace.current() == null ? connection : traced(connection);
+    }
+
+    private static Connection traced(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                        return traced(statement, method.getReturnType(), (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && "createStatement".equals(method.getName())) {
+                        return traced(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * @param sql o SQL do {@code prepare*}; nulo para {@code createStatement}, em que ele vem no {@code execute*}
+     */
+    private static Object traced(Statement statement, Class<?> type, String sql) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        SqlTrace trace = SqlTrace.current();
+                        if (trace != null) {
+                            trace.record(sql != null ? sql : args != null && args.length > 0 ? (String) args[0]
+                                    : "batch", System.nanoTime() - start);
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -23,6 +23,8 @@ public class ProductMapper {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .imageUrl(product.getImageUrl())
+                .version(product.getVersion())
+                .updatedAt(product.getUpdatedAt())
                 .build();
     }
 }
\ No newline at end of file
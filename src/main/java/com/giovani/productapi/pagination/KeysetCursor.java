@@ -0,0 +1,53 @@
+package com.giovani.productapi.pagination;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de uma página keyset: o campo de ordenação, o valor dele na linha de borda
+ * e o id como desempate. Serializado como Base64 URL-safe para o cliente tratá-lo como opaco.
+ */
+public record KeysetCursor(ProductSortField field, boolean backward, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor after(ProductSortField field, Product product) {
+        return new KeysetCursor(field, false, valueOf(field, product), product.getId());
+    }
+
+    public static KeysetCursor before(ProductSortField field, Product product) {
+        return new KeysetCursor(field, true, valueOf(field, product), product.getId());
+    }
+
+    public String encode() {
+        String raw = field.name() + SEPARATOR + (backward ? "b" : "f") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            ProductSortField field = ProductSortField.valueOf(parts[0]);
+            boolean backward = switch (parts[1]) {
+                case "f" -> false;
+                case "b" -> true;
+                default -> throw new IllegalArgumentException(parts[1]);
+            };
+            return new KeysetCursor(field, backward, field.parse(parts[3]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    private static Comparable<?> valueOf(ProductSortField field, Product product) {
+        return switch (field) {
+            case ID -> product.getId();
+            case PRICE -> product.getPrice();
+            case NAME -> product.getName();
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.giovani.productapi.pagination;
+
+import com.giovani.productapi.exceptions.BadRequestException;
+
+import java.math.BigDecimal;
+
+public enum ProductSortField {
+
+    ID("id"),
+    PRICE("price"),
+    NAME("name");
+
+    private final String property;
+
+    ProductSortField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public static ProductSortField from(String value) {
+        for (ProductSortField field : values()) {
+            if (field.property.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Campo de ordenação inválido: " + value);
+    }
+
+    Comparable<?> parse(String raw) {
+        return switch (this) {
+            case ID -> Long.valueOf(raw);
+            case PRICE -> new BigDecimal(raw);
+            case NAME -> raw;
+        };
+    }
+}
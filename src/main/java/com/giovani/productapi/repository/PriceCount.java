@@ -0,0 +1,6 @@
+package com.giovani.productapi.repository;
+
+import java.math.BigDecimal;
+
+public record PriceCount(BigDecimal price, Long count) {
+}
@@ -0,0 +1,54 @@
+package com.giovani.productapi.repository;
+
+import com.giovani.productapi.exceptions.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos que podem ser pedidos em {@code fields=} (nomes iguais aos do JSON de {@code ProductResponse}).
+ * Cada um vira uma coluna do SELECT, então campos não pedidos nem saem do banco.
+ */
+public enum ProductField {
+
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    IMAGE_URL("imageUrl"),
+    VERSION("version"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    ProductField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Lista separada por vírgulas; {@code id} entra sempre. {@code null} ou vazio significa todos os campos.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<ProductField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            selected.add(from(name.trim()));
+        }
+        return selected;
+    }
+
+    public static ProductField from(String value) {
+        for (ProductField field : values()) {
+            if (field.property.equals(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Campo inválido em fields: " + value);
+    }
+}
@@ -1,9 +1,62 @@
 package com.giovani.productapi.repository;
 
 import com.giovani.productapi.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Preços das linhas a excluir em lote, bloqueadas como em {@link #findPriceByIdForUpdate}: o preço
+     * que sai das estatísticas é o que a linha tinha quando foi excluída. A ordem por id mantém a mesma
+     * sequência de bloqueios entre lotes concorrentes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.giovani.productapi.repository.ProductPrice(p.id, p.price) from Product p where p.id in :ids order by p.id")
+    List<ProductPrice> findPricesByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lê a linha com {@code SELECT ... FOR UPDATE}: até o fim da transação nenhuma outra escrita a altera.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Só o preço, com a linha bloqueada até o fim da transação (exclusão de um produto fora do cache).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.price from Product p where p.id = :id")
+    Optional<BigDecimal> findPriceByIdForUpdate(@Param("id") Long id);
+
+    @Query("select new com.giovani.productapi.repository.PriceCount(p.price, count(p)) from Product p group by p.price")
+    List<PriceCount> countByPrice();
+
+    @Query("select new com.giovani.productapi.repository.ProductVersion(p.version, p.updatedAt) from Product p where p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
 }
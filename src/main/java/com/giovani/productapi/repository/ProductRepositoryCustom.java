@@ -0,0 +1,36 @@
+package com.giovani.productapi.repository;
+
+import com.giovani.productapi.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escritas diretas (sem carregar a entidade): cada método é um único comando SQL e devolve o
+ * número de linhas afetadas. {@code expectedVersion} nulo dispensa a checagem de versão.
+ * As leituras por campos são projeções: nenhuma entidade é hidratada nem entra no contexto de persistência.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * {@code SELECT <campos> FROM product [WHERE ...] ORDER BY ... LIMIT ? OFFSET ?}; cada linha é um
+     * mapa campo → valor na ordem de {@link ProductField}.
+     */
+    List<Map<String, Object>> findFields(Set<ProductField> fields, Specification<Product> spec, Sort sort,
+                                         long offset, int limit);
+
+    /**
+     * {@code UPDATE product SET <colunas>, version = version + 1, updated_at = ? WHERE id = ? [AND version = ?]}
+     * só com as colunas informadas (nome do atributo → novo valor, {@code null} limpa a coluna).
+     */
+    int updateColumns(Long id, Map<String, Object> columns, Long expectedVersion, Instant updatedAt);
+
+    /**
+     * {@code DELETE FROM product WHERE id = ? [AND version = ?]}.
+     */
+    int removeById(Long id, Long expectedVersion);
+}
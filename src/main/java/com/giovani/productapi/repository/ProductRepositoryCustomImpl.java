@@ -0,0 +1,100 @@
+package com.giovani.productapi.repository;
+
+import com.giovani.productapi.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<ProductField> fields, Specification<Product> spec, Sort sort,
+                                                long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        List<ProductField> selected = List.copyOf(fields);
+        query.multiselect(selected.stream().<Selection<?>>map(field -> product.get(field.property())).toList());
+        if (spec != null) {
+            Predicate where = spec.toPredicate(product, query, cb);
+            if (where != null) {
+                query.where(where);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, product, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>(selected.size() * 2);
+            for (int i = 0; i < selected.size(); i++) {
+                row.put(selected.get(i).property(), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int updateColumns(Long id, Map<String, Object> columns, Long expectedVersion, Instant updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> product = update.from(Product.class);
+        columns.forEach((attribute, value) -> set(cb, update, product.get(attribute), value));
+        Path<Long> version = product.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.set(product.<Instant>get("updatedAt"), updatedAt);
+        update.where(byIdAndVersion(cb, product, id, expectedVersion));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int removeById(Long id, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Product> delete = cb.createCriteriaDelete(Product.class);
+        Root<Product> product = delete.from(Product.class);
+        delete.where(byIdAndVersion(cb, product, id, expectedVersion));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void set(CriteriaBuilder cb, CriteriaUpdate<Product> update, Path<T> path, Object value) {
+        if (value == null) {
+            update.set(path, cb.nullLiteral((Class<T>) path.getJavaType()));
+        } else {
+            update.set(path, (T) value);
+        }
+    }
+
+    private static Predicate byIdAndVersion(CriteriaBuilder cb, Root<Product> product, Long id, Long expectedVersion) {
+        Predicate byId = cb.equal(product.get("id"), id);
+        return expectedVersion == null ? byId : cb.and(byId, cb.equal(product.get("version"), expectedVersion));
+    }
+}
@@ -0,0 +1,46 @@
+package com.giovani.productapi.repository;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.pagination.KeysetCursor;
+import com.giovani.productapi.pagination.ProductSortField;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    /**
+     * Predicado keyset {@code (campo, id) > (valor, idDeBorda)} — ou {@code <} ao voltar — que
+     * usa o índice do campo em vez de um OFFSET, mantendo o custo constante em qualquer profundidade.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> keyset(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            if (cursor.field() == ProductSortField.ID) {
+                return cursor.backward() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+            }
+            Path<Comparable> field = root.get(cursor.field().property());
+            Comparable value = cursor.value();
+            if (cursor.backward()) {
+                return cb.or(cb.lessThan(field, value),
+                        cb.and(cb.equal(field, value), cb.lessThan(id, cursor.id())));
+            }
+            return cb.or(cb.greaterThan(field, value),
+                    cb.and(cb.equal(field, value), cb.greaterThan(id, cursor.id())));
+        };
+    }
+
+    public static Sort keysetSort(ProductSortField field, boolean backward) {
+        Sort.Direction direction = backward ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort byId = Sort.by(direction, "id");
+        return field == ProductSortField.ID ? byId : Sort.by(direction, field.property()).and(byId);
+    }
+}
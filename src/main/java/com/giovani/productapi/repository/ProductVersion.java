@@ -0,0 +1,6 @@
+package com.giovani.productapi.repository;
+
+import java.time.Instant;
+
+public record ProductVersion(Long version, Instant updatedAt) {
+}
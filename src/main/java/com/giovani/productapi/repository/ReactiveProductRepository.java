@@ -0,0 +1,196 @@
+package com.giovani.productapi.repository;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.pagination.ProductSortField;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Acesso não bloqueante à tabela {@code product} via R2DBC, usado pelo perfil {@code reactive}.
+ * O SQL é explícito porque a entidade {@link Product} é mapeada para JPA; as colunas e a
+ * alocação de ids seguem o mesmo esquema, então as duas variantes podem dividir o banco.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+
+    // mesmo allocationSize do @SequenceGenerator de Product: o valor lido é o topo do bloco
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String COLUMNS = "id, name, description, price, image_url, version, updated_at";
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactional;
+    private final boolean tableSequence;
+
+    private long nextId;
+    private long maxId = -1;
+
+    public ReactiveProductRepository(DatabaseClient db, ConnectionFactory connectionFactory,
+                                     ReactiveTransactionManager transactionManager) {
+        this.db = db;
+        this.transactional = TransactionalOperator.create(transactionManager);
+        // no MySQL o Hibernate emula a sequência com a tabela product_seq(next_val)
+        this.tableSequence = connectionFactory.getMetadata().getName().toLowerCase().contains("mysql");
+    }
+
+    public Mono<Product> findById(Long id) {
+        return db.sql("select " + COLUMNS + " from product where id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Mono<ProductVersion> findVersionById(Long id) {
+        return db.sql("select version, updated_at from product where id = :id")
+                .bind("id", id)
+                .map(row -> new ProductVersion(row.get("version", Long.class), row.get("updated_at", Instant.class)))
+                .one();
+    }
+
+    public Flux<Product> findAll(ProductSortField sortBy, boolean descending, long offset, int limit) {
+        String direction = descending ? " desc" : " asc";
+        // a coluna vem do enum (lista fechada), nunca do texto da requisição
+        return db.sql("select " + COLUMNS + " from product order by " + sortBy.property() + direction
+                        + ", id" + direction + " limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * Catálogo inteiro em ordem de id. As linhas são lidas conforme o assinante pede (backpressure
+     * do driver), sem carregar o resultado em memória.
+     */
+    public Flux<Product> streamAll() {
+        return db.sql("select " + COLUMNS + " from product order by id")
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return db.sql("select count(*) as total from product")
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    public Mono<Product> insert(Product product) {
+        Instant now = Instant.now();
+        return nextId().flatMap(id -> {
+            DatabaseClient.GenericExecuteSpec spec = db.sql("insert into product (" + COLUMNS + ")"
+                            + " values (:id, :name, :description, :price, :imageUrl, 0, :updatedAt)")
+                    .bind("id", id)
+                    .bind("name", product.getName())
+                    .bind("price", product.getPrice())
+                    .bind("updatedAt", now);
+            spec = bindNullable(spec, "description", product.getDescription());
+            spec = bindNullable(spec, "imageUrl", product.getImageUrl());
+            return spec.fetch()
+                    .rowsUpdated()
+                    .thenReturn(Product.builder()
+                            .id(id)
+                            .name(product.getName())
+                            .description(product.getDescription())
+                            .price(product.getPrice())
+                            .imageUrl(product.getImageUrl())
+                            .version(0L)
+                            .updatedAt(now)
+                            .build());
+        });
+    }
+
+    /**
+     * UPDATE único que incrementa a versão; com {@code expectedVersion} a condição de versão vai
+     * no próprio WHERE. Retorna as linhas afetadas (0 = inexistente ou versão diferente).
+     */
+    public Mono<Long> update(Long id, Product changes, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql("update product set name = :name, description = :description,"
+                        + " price = :price, version = version + 1, updated_at = :updatedAt"
+                        + " where id = :id" + (expectedVersion == null ? "" : " and version = :version"))
+                .bind("id", id)
+                .bind("name", changes.getName())
+                .bind("price", changes.getPrice())
+                .bind("updatedAt", Instant.now());
+        spec = bindNullable(spec, "description", changes.getDescription());
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> delete(Long id, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql("delete from product where id = :id"
+                        + (expectedVersion == null ? "" : " and version = :version"))
+                .bind("id", id);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    /**
+     * Reserva ids em blocos de {@link #ALLOCATION_SIZE}, como o otimizador pooled do Hibernate:
+     * o valor lido da sequência é o maior id do bloco, então os dois lados nunca se sobrepõem.
+     */
+    private Mono<Long> nextId() {
+        synchronized (this) {
+            if (nextId <= maxId) {
+                return Mono.just(nextId++);
+            }
+        }
+        return fetchBlock().map(high -> {
+            synchronized (this) {
+                if (nextId > maxId) {
+                    maxId = high;
+                    nextId = Math.max(1, high - ALLOCATION_SIZE + 1);
+                }
+                // se outro assinante instalou um bloco antes, este é descartado (só gera lacuna)
+                return nextId++;
+            }
+        });
+    }
+
+    private Mono<Long> fetchBlock() {
+        if (!tableSequence) {
+            return db.sql("select next value for product_seq as next_val")
+                    .map(row -> row.get("next_val", Long.class))
+                    .one();
+        }
+        return transactional.transactional(db.sql("select next_val from product_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(current -> db.sql("update product_seq set next_val = :next")
+                        .bind("next", current + ALLOCATION_SIZE)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(current)));
+    }
+
+    private static Product toProduct(Readable row) {
+        return Product.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .imageUrl(row.get("image_url", String.class))
+                .version(row.get("version", Long.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .build();
+    }
+}
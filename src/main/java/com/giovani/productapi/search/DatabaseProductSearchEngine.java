@@ -0,0 +1,74 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.mapper.ProductMapper;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Busca direto no banco: faixa de preço pelo índice {@code idx_product_price} e texto pelo FULLTEXT
+ * {@code ftx_product_name_description} no MySQL (modo booleano, todos os termos com prefixo).
+ * Em outros bancos o texto vira um {@code LIKE} por termo, sem índice.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "productapi.search", name = "engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseProductSearchEngine implements ProductSearchEngine {
+
+    private final ProductRepository repository;
+    private final boolean fullText;
+
+    public DatabaseProductSearchEngine(ProductRepository repository, EntityManagerFactory entityManagerFactory) {
+        this.repository = repository;
+        this.fullText = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    @Override
+    public PageResponse<ProductResponse> search(ProductSearchCriteria criteria, Pageable pageable) {
+        return PageResponse.of(repository.findAll(toSpecification(criteria), pageable).map(ProductMapper::toResponse));
+    }
+
+    private Specification<Product> toSpecification(ProductSearchCriteria criteria) {
+        Set<String> terms = SearchTokenizer.tokens(criteria.query());
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.minPrice()));
+            }
+            if (criteria.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.maxPrice()));
+            }
+            if (!terms.isEmpty() && fullText) {
+                String booleanQuery = terms.stream().map(term -> "+" + term + "*").collect(Collectors.joining(" "));
+                predicates.add(cb.greaterThan(cb.function(MySqlSearchFunctionContributor.MATCH_AGAINST, Double.class,
+                        root.get("name"), root.get("description"), cb.literal(booleanQuery)), 0.0));
+            } else {
+                Expression<String> name = cb.lower(root.get("name"));
+                Expression<String> description = cb.lower(cb.coalesce(root.get("description"), ""));
+                for (String term : terms) {
+                    String pattern = "%" + term.toLowerCase(Locale.ROOT) + "%";
+                    predicates.add(cb.or(cb.like(name, pattern), cb.like(description, pattern)));
+                }
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
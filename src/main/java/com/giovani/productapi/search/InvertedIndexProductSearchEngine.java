@@ -0,0 +1,175 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.giovani.productapi.mapper.ProductMapper.toResponse;
+
+/**
+ * Índice invertido em memória (termo → ids) para bancos sem FULLTEXT, como o H2 dos testes.
+ * É carregado do banco quando a aplicação sobe e mantido pelos {@link ProductChangedEvent}.
+ * A consulta percorre só a menor lista de postings e ordena com um heap limitado a
+ * {@code offset + size}, sem ordenar todos os candidatos.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "productapi.search", name = "engine", havingValue = "inverted-index")
+public class InvertedIndexProductSearchEngine implements ProductSearchEngine {
+
+    private final ProductRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, ProductResponse> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> repository.streamAll().forEach(product -> {
+            index(toResponse(product));
+            entityManager.detach(product);
+        }));
+        log.info("Índice de busca carregado com {} produtos e {} termos", documents.size(), postings.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            remove(event.id());
+        } else {
+            index(event.product());
+        }
+    }
+
+    @Override
+    public PageResponse<ProductResponse> search(ProductSearchCriteria criteria, Pageable pageable) {
+        Comparator<ProductResponse> order = comparator(pageable.getSort());
+        int wanted = (int) Math.min(Integer.MAX_VALUE - 1L, pageable.getOffset() + pageable.getPageSize());
+        PriorityQueue<ProductResponse> top = new PriorityQueue<>(Math.min(wanted, 1024) + 1, order.reversed());
+        long total = 0;
+
+        List<Set<Long>> required = postingsFor(SearchTokenizer.tokens(criteria.query()));
+        Collection<Long> candidates = required == null ? documents.keySet()
+                : required.isEmpty() ? Set.of() : required.get(0);
+        for (Long id : candidates) {
+            ProductResponse product = documents.get(id);
+            if (product == null || !criteria.matchesPrice(product.getPrice()) || !containsAll(required, id)) {
+                continue;
+            }
+            total++;
+            top.offer(product);
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        }
+
+        List<ProductResponse> ranked = new ArrayList<>(top);
+        ranked.sort(order);
+        List<ProductResponse> page = pageable.getOffset() >= ranked.size() ? List.of()
+                : ranked.subList((int) pageable.getOffset(), ranked.size());
+        return PageResponse.of(new PageImpl<>(page, pageable, total));
+    }
+
+    private synchronized void index(ProductResponse product) {
+        remove(product.getId());
+        documents.put(product.getId(), product);
+        for (String term : terms(product)) {
+            postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        ProductResponse previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : terms(previous)) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Listas de postings dos termos, da menor para a maior; {@code null} quando não há termo
+     * (todos os documentos são candidatos) e vazia quando algum termo não existe no índice.
+     */
+    private List<Set<Long>> postingsFor(Set<String> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        List<Set<Long>> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        return lists;
+    }
+
+    private static boolean containsAll(List<Set<Long>> required, Long id) {
+        if (required == null) {
+            return true;
+        }
+        for (int i = 1; i < required.size(); i++) {
+            if (!required.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> terms(ProductResponse product) {
+        Set<String> terms = SearchTokenizer.tokens(product.getName());
+        terms.addAll(SearchTokenizer.tokens(product.getDescription()));
+        return terms;
+    }
+
+    private static Comparator<ProductResponse> comparator(Sort sort) {
+        Comparator<ProductResponse> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductResponse> next = switch (ProductSortField.from(order.getProperty())) {
+                case ID -> Comparator.comparing(ProductResponse::getId);
+                case PRICE -> Comparator.comparing(ProductResponse::getPrice);
+                case NAME -> Comparator.comparing(ProductResponse::getName);
+            };
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<ProductResponse> byId = Comparator.comparing(ProductResponse::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+}
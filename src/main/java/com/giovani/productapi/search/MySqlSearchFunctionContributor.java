@@ -0,0 +1,26 @@
+package com.giovani.productapi.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra {@code match_against(name, description, termos)} para que a busca por Criteria use o
+ * índice FULLTEXT do MySQL. Em outros bancos a função não existe e o motor cai para {@code LIKE}.
+ */
+public class MySqlSearchFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof MySQLDialect)) {
+            return;
+        }
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
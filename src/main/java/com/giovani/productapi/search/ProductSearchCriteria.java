@@ -0,0 +1,19 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.exceptions.BadRequestException;
+
+import java.math.BigDecimal;
+
+public record ProductSearchCriteria(String query, BigDecimal minPrice, BigDecimal maxPrice) {
+
+    public ProductSearchCriteria {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice não pode ser maior que maxPrice");
+        }
+    }
+
+    public boolean matchesPrice(BigDecimal price) {
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+    }
+}
@@ -0,0 +1,14 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Motor de busca de produtos, escolhido por {@code productapi.search.engine}: {@code database}
+ * (índices do MySQL, FULLTEXT para texto) ou {@code inverted-index} (índice em memória, para H2/testes).
+ */
+public interface ProductSearchEngine {
+
+    PageResponse<ProductResponse> search(ProductSearchCriteria criteria, Pageable pageable);
+}
@@ -0,0 +1,349 @@
+package com.giovani.productapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.config.BatchProperties;
+import com.giovani.productapi.dto.BatchItemResult;
+import com.giovani.productapi.dto.BatchItemStatus;
+import com.giovani.productapi.dto.BatchResponse;
+import com.giovani.productapi.dto.ProductBatchUpdateRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.feed.ProductChangeLog;
+import com.giovani.productapi.repository.ProductPrice;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.stats.ProductStatistics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.giovani.productapi.mapper.ProductMapper.toEntity;
+import static com.giovani.productapi.mapper.ProductMapper.toResponse;
+
+/**
+ * Operações em lote: cada bloco de {@code productapi.batch.chunk-size} itens válidos é gravado
+ * numa transação própria com batch JDBC. Se o bloco falhar, os itens dele são reprocessados um a um
+ * para que só os itens problemáticos sejam reportados como {@link BatchItemStatus#FAILED}.
+ * As mudanças de cada bloco entram no feed ({@link ProductChangeLog}) dentro da mesma transação.
+ */
+@Service
+@RegisterReflectionForBinding(ProductRequest.class)
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ProductBatchService {
+
+    private final ProductRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final ProductCache cache;
+    private final ApplicationEventPublisher events;
+    private final ProductChangeLog changeLog;
+    private final ProductStatistics statistics;
+
+    public BatchResponse create(List<ProductRequest> requests) {
+        return create(requests, new BatchItemResult[requests.size()]);
+    }
+
+    public BatchResponse createNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ProductRequest.class);
+        List<ProductRequest> requests = new ArrayList<>();
+        Map<Integer, BatchItemResult> unreadable = new HashMap<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                checkSize(requests.size() + 1);
+                try {
+                    requests.add(reader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    unreadable.put(requests.size(), failure(requests.size(), null, BatchItemStatus.INVALID, "JSON inválido"));
+                    requests.add(null);
+                }
+            }
+        }
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        unreadable.forEach((index, result) -> results[index] = result);
+        return create(requests, results);
+    }
+
+    public BatchResponse update(List<ProductBatchUpdateRequest> requests) {
+        checkSize(requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> valid = validate(requests, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<ProductChangedEvent> changes = new ArrayList<>();
+            try {
+                List<BatchItemResult> chunkResults = transactionTemplate.execute(status -> {
+                    Set<Long> ids = chunk.stream().map(i -> requests.get(i).getId()).collect(Collectors.toSet());
+                    Map<Long, Product> found = repository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(Product::getId, Function.identity()));
+                    List<BatchItemResult> applied = new ArrayList<>(chunk.size());
+                    for (int index : chunk) {
+                        applied.add(apply(index, requests.get(index), found.get(requests.get(index).getId())));
+                    }
+                    repository.flush();
+                    found.values().forEach(product -> changes.add(ProductChangedEvent.updated(toResponse(product))));
+                    changeLog.append(changes);
+                    return applied;
+                });
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+            } catch (RuntimeException e) {
+                changes.clear();
+                for (int index : chunk) {
+                    results[index] = updateOne(index, requests.get(index), changes);
+                }
+            }
+            publish(changes);
+        }
+        return BatchResponse.of(Arrays.asList(results));
+    }
+
+    public BatchResponse delete(List<Long> ids) {
+        checkSize(ids.size());
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = failure(i, null, BatchItemStatus.INVALID, "ID obrigatório");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<ProductChangedEvent> changes = new ArrayList<>();
+            try {
+                Set<Long> existing = transactionTemplate.execute(status -> {
+                    List<ProductPrice> found = repository.findPricesByIdForUpdate(
+                            chunk.stream().map(ids::get).collect(Collectors.toSet()));
+                    Set<Long> foundIds = new HashSet<>(found.size() * 2);
+                    if (!found.isEmpty()) {
+                        found.forEach(product -> foundIds.add(product.id()));
+                        repository.deleteAllByIdInBatch(foundIds);
+                        found.forEach(product -> {
+                            changes.add(ProductChangedEvent.deleted(product.id()));
+                            statistics.record(product.price(), null);
+                        });
+                        changeLog.append(changes);
+                    }
+                    return foundIds;
+                });
+                for (int index : chunk) {
+                    Long id = ids.get(index);
+                    results[index] = existing.contains(id)
+                            ? success(index, id, BatchItemStatus.DELETED)
+                            : failure(index, id, BatchItemStatus.NOT_FOUND, "Produto não encontrado com ID: " + id);
+                }
+            } catch (RuntimeException e) {
+                changes.clear();
+                for (int index : chunk) {
+                    results[index] = deleteOne(index, ids.get(index), changes);
+                }
+            }
+            publish(changes);
+        }
+        return BatchResponse.of(Arrays.asList(results));
+    }
+
+    private BatchResponse create(List<ProductRequest> requests, BatchItemResult[] results) {
+        checkSize(requests.size());
+        List<Integer> valid = validate(requests, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<ProductChangedEvent> changes = new ArrayList<>();
+            try {
+                List<Product> saved = transactionTemplate.execute(status -> {
+                    List<Product> products = repository.saveAll(chunk.stream()
+                            .map(i -> toEntity(requests.get(i)))
+                            .toList());
+                    repository.flush();
+                    products.forEach(product -> {
+                        changes.add(ProductChangedEvent.created(toResponse(product)));
+                        statistics.record(null, product.getPrice());
+                    });
+                    changeLog.append(changes);
+                    return products;
+                });
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k)] = success(chunk.get(k), saved.get(k).getId(), BatchItemStatus.CREATED);
+                }
+            } catch (RuntimeException e) {
+                changes.clear();
+                for (int index : chunk) {
+                    results[index] = createOne(index, requests.get(index), changes);
+                }
+            }
+            publish(changes);
+        }
+        return BatchResponse.of(Arrays.asList(results));
+    }
+
+    private BatchItemResult createOne(int index, ProductRequest request, List<ProductChangedEvent> changes) {
+        try {
+            ProductChangedEvent created = transactionTemplate.execute(status -> {
+                Product product = repository.saveAndFlush(toEntity(request));
+                ProductChangedEvent change = ProductChangedEvent.created(toResponse(product));
+                changeLog.append(change);
+                statistics.record(null, product.getPrice());
+                return change;
+            });
+            changes.add(created);
+            return success(index, created.id(), BatchItemStatus.CREATED);
+        } catch (RuntimeException e) {
+            return failure(index, null, BatchItemStatus.FAILED, "Falha ao gravar o produto");
+        }
+    }
+
+    private BatchItemResult updateOne(int index, ProductBatchUpdateRequest request, List<ProductChangedEvent> changes) {
+        try {
+            List<ProductChangedEvent> updated = new ArrayList<>(1);
+            BatchItemResult result = transactionTemplate.execute(status -> {
+                Product product = repository.findById(request.getId()).orElse(null);
+                BatchItemResult applied = apply(index, request, product);
+                repository.flush();
+                if (product != null) {
+                    ProductChangedEvent change = ProductChangedEvent.updated(toResponse(product));
+                    changeLog.append(change);
+                    updated.add(change);
+                }
+                return applied;
+            });
+            // só depois do commit: o cache recebe o produto gravado
+            changes.addAll(updated);
+            return result;
+        } catch (RuntimeException e) {
+            return failure(index, request.getId(), BatchItemStatus.FAILED, "Falha ao gravar o produto");
+        }
+    }
+
+    private BatchItemResult deleteOne(int index, Long id, List<ProductChangedEvent> changes) {
+        try {
+            boolean deleted = transactionTemplate.execute(status -> {
+                List<ProductPrice> found = repository.findPricesByIdForUpdate(List.of(id));
+                if (found.isEmpty()) {
+                    return false;
+                }
+                repository.deleteAllByIdInBatch(List.of(id));
+                changeLog.append(ProductChangedEvent.deleted(id));
+                statistics.record(found.get(0).price(), null);
+                return true;
+            });
+            if (deleted) {
+                changes.add(ProductChangedEvent.deleted(id));
+            }
+            return deleted
+                    ? success(index, id, BatchItemStatus.DELETED)
+                    : failure(index, id, BatchItemStatus.NOT_FOUND, "Produto não encontrado com ID: " + id);
+        } catch (RuntimeException e) {
+            return failure(index, id, BatchItemStatus.FAILED, "Falha ao excluir o produto");
+        }
+    }
+
+    /**
+     * Depois do commit, como no {@code ProductService}: produtos gravados entram no cache pelo
+     * {@link ProductCache#put} (que recusa versão mais antiga e limpa a marca de inexistente de ids
+     * novos) e os excluídos passam por {@link ProductCache#evictDeleted}, para que uma leitura em
+     * andamento não devolva ao cache o estado anterior ao lote.
+     */
+    private void publish(List<ProductChangedEvent> changes) {
+        for (ProductChangedEvent change : changes) {
+            if (change.type() == ProductChangedEvent.Type.DELETED) {
+                cache.evictDeleted(change.id(), new ResourceNotFoundException("Produto não encontrado com ID: " + change.id()));
+            } else {
+                cache.put(change.product());
+            }
+        }
+        changes.forEach(events::publishEvent);
+    }
+
+    private BatchItemResult apply(int index, ProductBatchUpdateRequest request, Product product) {
+        if (product == null) {
+            return failure(index, request.getId(), BatchItemStatus.NOT_FOUND,
+                    "Produto não encontrado com ID: " + request.getId());
+        }
+        statistics.record(product.getPrice(), request.getPrice());
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        return success(index, product.getId(), BatchItemStatus.UPDATED);
+    }
+
+    private <T> List<Integer> validate(List<T> items, BatchItemResult[] results) {
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = failure(i, null, BatchItemStatus.INVALID, "Item vazio");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (violations.isEmpty()) {
+                valid.add(i);
+                continue;
+            }
+            Map<String, String> errors = new HashMap<>();
+            violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            results[i] = BatchItemResult.builder()
+                    .index(i)
+                    .status(BatchItemStatus.INVALID)
+                    .errors(errors)
+                    .build();
+        }
+        return valid;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += properties.chunkSize()) {
+            chunks.add(indexes.subList(from, Math.min(from + properties.chunkSize(), indexes.size())));
+        }
+        return chunks;
+    }
+
+    private void checkSize(int size) {
+        if (size > properties.maxItems()) {
+            throw new BadRequestException("Lote excede o limite de " + properties.maxItems() + " itens");
+        }
+    }
+
+    private static BatchItemResult success(int index, Long id, BatchItemStatus status) {
+        return BatchItemResult.builder().index(index).id(id).status(status).build();
+    }
+
+    private static BatchItemResult failure(int index, Long id, BatchItemStatus status, String message) {
+        return BatchItemResult.builder().index(index).id(id).status(status).message(message).build();
+    }
+}
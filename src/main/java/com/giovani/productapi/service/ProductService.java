@@ -1,59 +1,543 @@
 package com.giovani.productapi.service;
 
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.cache.SingleFlight;
+import com.giovani.productapi.config.BatchProperties;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.datasource.ReadYourWrites;
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.MultiGetResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductPatchRequest;
 import com.giovani.productapi.dto.ProductRequest;
 import com.giovani.productapi.dto.ProductResponse;
 import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
 import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.feed.ProductChangeLog;
 import com.giovani.productapi.mapper.ProductMapper;
+import com.giovani.productapi.pagination.KeysetCursor;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductField;
 import com.giovani.productapi.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.giovani.productapi.repository.ProductVersion;
+import com.giovani.productapi.search.ProductSearchCriteria;
+import com.giovani.productapi.search.ProductSearchEngine;
+import com.giovani.productapi.snapshot.CatalogSnapshot;
+import com.giovani.productapi.snapshot.CatalogSnapshots;
+import com.giovani.productapi.stats.ProductStatistics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 import static com.giovani.productapi.mapper.ProductMapper.toEntity;
 import static com.giovani.productapi.mapper.ProductMapper.toResponse;
+import static com.giovani.productapi.repository.ProductSpecifications.all;
+import static com.giovani.productapi.repository.ProductSpecifications.keyset;
+import static com.giovani.productapi.repository.ProductSpecifications.keysetSort;
 
 @Service
-@RequiredArgsConstructor
+@Profile("!reactive")
 public class ProductService {
 
     private final ProductRepository repository;
+    private final PaginationProperties pagination;
+    private final ProductCache cache;
+    private final BatchProperties batch;
+    private final ApplicationEventPublisher events;
+    private final ProductSearchEngine searchEngine;
+    private final Validator validator;
+    private final ProductChangeLog changeLog;
+    private final ProductStatistics statistics;
+    // nó de leitura (productapi.snapshot.mode=reader): busca por id, listas em ordem de id e multi-get
+    // vêm do snapshot mapeado em memória, sem o banco nem o cache; fields= e outras ordenações vão ao banco,
+    // assim como a versão (ETag/If-Match) e as leituras por id de produtos escritos depois do snapshot
+    private final CatalogSnapshots snapshots;
+    // leituras por id fora de um método @Transactional: somente leitura para irem à réplica, exceto as que
+    // enchem o cache (readPrimary), que duram o ttl e não podem trazer o atraso da réplica junto
+    private final TransactionTemplate readOnly;
+    private final SingleFlight<Long, ProductResponse> loads = new SingleFlight<>();
 
+    public ProductService(ProductRepository repository, PaginationProperties pagination, ProductCache cache,
+                          BatchProperties batch, ApplicationEventPublisher events, ProductSearchEngine searchEngine,
+                          Validator validator, ProductChangeLog changeLog, ProductStatistics statistics,
+                          CatalogSnapshots snapshots, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.pagination = pagination;
+        this.cache = cache;
+        this.batch = batch;
+        this.events = events;
+        this.searchEngine = searchEngine;
+        this.validator = validator;
+        this.changeLog = changeLog;
+        this.statistics = statistics;
+        this.snapshots = snapshots;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Transactional
     public ProductResponse create(ProductRequest request) {
         Product product = toEntity(request);
-        return toResponse(repository.save(product));
+        ProductResponse response = toResponse(repository.save(product));
+        ProductChangedEvent change = ProductChangedEvent.created(response);
+        changeLog.append(change);
+        afterCommit(() -> cache.put(response));
+        statistics.record(null, response.getPrice());
+        events.publishEvent(change);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> findAll(Pageable pageable) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshot != null && byId(pageable.getSort())) {
+            int offset = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset());
+            return PageResponse.of(new PageImpl<>(snapshot.range(offset, pageable.getPageSize()), pageable,
+                    snapshot.count()));
+        }
+        return PageResponse.of(repository.findAll(pageable).map(ProductMapper::toResponse));
+    }
+
+    /**
+     * Página por offset só com {@code fields}: projeção direto do banco, sem entidades nem cache.
+     * O COUNT é dispensado quando a página já mostra que é a última.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> findAll(Pageable pageable, Set<ProductField> fields) {
+        List<Map<String, Object>> rows = repository.findFields(fields, null, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize());
+        return PageResponse.of(PageableExecutionUtils.getPage(rows, pageable, repository::count));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> findAll(String cursor, Integer size, ProductSortField sortBy) {
+        KeysetCursor position = decode(cursor);
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshot != null && (position != null ? position.field() : sortBy) == ProductSortField.ID) {
+            return findByCursor(position, size, sortBy,
+                    (field, from, sort, limit) -> snapshotRows(snapshot, from, limit),
+                    (field, product, backward) -> new KeysetCursor(field, backward, product.getId(), product.getId()),
+                    Function.identity());
+        }
+        return findByCursor(position, size, sortBy,
+                (field, from, sort, limit) -> repository.findBy(where(from),
+                        query -> query.sortBy(sort).limit(limit).all()),
+                (field, product, backward) -> backward
+                        ? KeysetCursor.before(field, product)
+                        : KeysetCursor.after(field, product),
+                ProductMapper::toResponse);
+    }
+
+    /**
+     * Página por cursor só com {@code fields}. O campo de ordenação entra no SELECT para montar os
+     * cursores e sai da resposta se não foi pedido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<Map<String, Object>> findAll(String cursor, Integer size, ProductSortField sortBy,
+                                                           Set<ProductField> fields) {
+        Set<ProductField> selected = EnumSet.copyOf(fields);
+        return findByCursor(decode(cursor), size, sortBy,
+                (field, from, sort, limit) -> {
+                    selected.add(ProductField.from(field.property()));
+                    return repository.findFields(selected, where(from), sort, 0, limit);
+                },
+                (field, row, backward) -> new KeysetCursor(field, backward,
+                        (Comparable<?>) row.get(field.property()), (Long) row.get(ProductField.ID.property())),
+                row -> {
+                    row.keySet().removeIf(property -> !fields.contains(ProductField.from(property)));
+                    return row;
+                });
+    }
+
+    private <T, R> CursorPageResponse<R> findByCursor(KeysetCursor position, Integer size, ProductSortField sortBy,
+                                                      CursorRows<T> loader, CursorEdge<T> edge, Function<T, R> mapper) {
+        int limit = pagination.clamp(size);
+        ProductSortField field = position != null ? position.field() : sortBy;
+        boolean backward = position != null && position.backward();
+
+        Sort sort = keysetSort(field, backward);
+        List<T> rows = new ArrayList<>(loader.load(field, position, sort, limit + 1));
+
+        boolean more = rows.size() > limit;
+        if (more) {
+            rows = rows.subList(0, limit);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : position != null;
+        String next = hasNext && !rows.isEmpty() ? edge.at(field, rows.get(rows.size() - 1), false).encode() : null;
+        String prev = hasPrev && !rows.isEmpty() ? edge.at(field, rows.get(0), true).encode() : null;
+        return CursorPageResponse.<R>builder()
+                .content(rows.stream().map(mapper).toList())
+                .size(limit)
+                .next(next)
+                .prev(prev)
+                .build();
+    }
+
+    private static KeysetCursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
     }
 
-    public List<ProductResponse> findAll() {
-        return repository.findAll()
-                .stream()
-                .map(ProductMapper::toResponse)
-                .collect(Collectors.toList());
+    private static Specification<Product> where(KeysetCursor position) {
+        return position == null ? all() : keyset(position);
+    }
+
+    private static boolean byId(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && orders.get(0).getProperty().equals(ProductSortField.ID.property())
+                && orders.get(0).isAscending();
+    }
+
+    /**
+     * Linhas do snapshot na ordem que o keyset pede: crescente depois do cursor, ou decrescente antes
+     * dele (a página para trás é invertida em {@link #findByCursor}).
+     */
+    private static List<ProductResponse> snapshotRows(CatalogSnapshot snapshot, KeysetCursor position, int limit) {
+        if (position == null) {
+            return snapshot.range(0, limit);
+        }
+        if (!position.backward()) {
+            return snapshot.range(snapshot.slotOf(position.id() + 1), limit);
+        }
+        int end = snapshot.slotOf(position.id());
+        int start = Math.max(0, end - limit);
+        List<ProductResponse> rows = new ArrayList<>(snapshot.range(start, end - start));
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    /**
+     * @param position posição decodificada do cursor; nula na primeira página
+     */
+    @FunctionalInterface
+    private interface CursorRows<T> {
+        List<T> load(ProductSortField field, KeysetCursor position, Sort sort, int limit);
+    }
+
+    @FunctionalInterface
+    private interface CursorEdge<T> {
+        KeysetCursor at(ProductSortField field, T row, boolean backward);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> search(ProductSearchCriteria criteria, Pageable pageable) {
+        return searchEngine.search(criteria, pageable);
     }
 
     public ProductResponse findById(Long id) {
-        Product product = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
-        return toResponse(product);
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshot != null && !snapshots.isStale(id)) {
+            ProductResponse product = snapshot.find(id);
+            if (product == null) {
+                throw cache.getMissing(id).orElseGet(() -> rememberMissing(id));
+            }
+            return product;
+        }
+        ProductResponse cached = cache.get(id).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        ResourceNotFoundException missing = cache.getMissing(id).orElse(null);
+        if (missing != null) {
+            throw missing;
+        }
+        return loads.execute(id, () -> {
+            Product product = readPrimary(status -> repository.findById(id).orElse(null));
+            if (product == null) {
+                throw rememberMissing(id);
+            }
+            ProductResponse response = toResponse(product);
+            cache.put(response);
+            return response;
+        });
     }
 
-    public ProductResponse update(Long id, ProductRequest request) {
-        Product product = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com ID: " + id));
+    /**
+     * Nunca pelo snapshot: a versão decide 304 e If-Match, e escritas com a versão atrasada dariam 412.
+     */
+    public ProductVersion findVersion(Long id) {
+        ProductResponse cached = cache.get(id).orElse(null);
+        if (cached != null) {
+            return new ProductVersion(cached.getVersion(), cached.getUpdatedAt());
+        }
+        ResourceNotFoundException missing = cache.getMissing(id).orElse(null);
+        if (missing != null) {
+            throw missing;
+        }
+        // a versão da réplica não fica guardada; o 404 fica, então só vale depois de confirmado no primário
+        return readOnly.execute(status -> repository.findVersionById(id))
+                .or(() -> readPrimary(status -> repository.findVersionById(id)))
+                .orElseThrow(() -> rememberMissing(id));
+    }
+
+    public MultiGetResponse findAllById(Collection<Long> ids) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requested.size() > batch.maxItems()) {
+            throw new BadRequestException("Consulta excede o limite de " + batch.maxItems() + " IDs");
+        }
 
-        product.setName(request.getName());
-        product.setDescription(request.getDescription());
-        product.setPrice(request.getPrice());
+        Map<Long, ProductResponse> found = new HashMap<>(requested.size() * 2);
+        List<Long> toLoad = new ArrayList<>();
+        CatalogSnapshot snapshot = snapshots.current();
+        for (Long id : requested) {
+            if (snapshot != null && !snapshots.isStale(id)) {
+                ProductResponse product = snapshot.find(id);
+                if (product != null) {
+                    found.put(id, product);
+                }
+            } else {
+                cache.get(id).ifPresentOrElse(product -> found.put(id, product), () -> toLoad.add(id));
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            readPrimary(status -> {
+                for (int from = 0; from < toLoad.size(); from += batch.chunkSize()) {
+                    List<Long> chunk = toLoad.subList(from, Math.min(from + batch.chunkSize(), toLoad.size()));
+                    for (Product product : repository.findAllById(chunk)) {
+                        ProductResponse response = toResponse(product);
+                        cache.put(response);
+                        found.put(response.getId(), response);
+                    }
+                }
+                return null;
+            });
+        }
+
+        List<ProductResponse> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponse product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return MultiGetResponse.builder().products(products).missing(missing).build();
+    }
+
+    @Transactional
+    public ProductResponse update(Long id, ProductRequest request, Long expectedVersion) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("name", request.getName());
+        columns.put("description", request.getDescription());
+        columns.put("price", request.getPrice());
+        return write(id, columns, expectedVersion);
+    }
+
+    @Transactional
+    public ProductResponse patch(Long id, ProductPatchRequest patch, Long expectedVersion) {
+        if (!patch.getUnknownFields().isEmpty()) {
+            throw new BadRequestException("Campos não podem ser alterados via PATCH: "
+                    + String.join(", ", patch.getUnknownFields()));
+        }
+        // valida só os campos enviados, com as mesmas regras do ProductRequest
+        Set<ConstraintViolation<ProductRequest>> violations = new LinkedHashSet<>();
+        patch.getChanges().forEach((field, value) ->
+                violations.addAll(validator.validateValue(ProductRequest.class, field, value)));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        if (patch.getChanges().isEmpty()) {
+            checkVersion(id, findVersion(id).version(), expectedVersion);
+            return findById(id);
+        }
+        return write(id, patch.getChanges(), expectedVersion);
+    }
+
+    @Transactional
+    public ProductResponse updateImage(Long id, String imageUrl, Long expectedVersion) {
+        return write(id, Map.of("imageUrl", imageUrl), expectedVersion);
+    }
+
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
+        BigDecimal price = remove(id, expectedVersion);
+        ProductChangedEvent change = ProductChangedEvent.deleted(id);
+        changeLog.append(change);
+        afterCommit(() -> cache.evictDeleted(id, notFound(id)));
+        statistics.record(price, null);
+        events.publishEvent(change);
+    }
+
+    /**
+     * Exclui a linha e devolve o preço que ela tinha, para as estatísticas. Com o produto em cache a
+     * versão cacheada vai no WHERE e o DELETE é o único comando; sem cache, ou com cache
+     * desatualizado, o preço é lido antes com {@code SELECT price ... FOR UPDATE} pela chave primária.
+     */
+    private BigDecimal remove(Long id, Long expectedVersion) {
+        ProductResponse cached = cache.get(id).orElse(null);
+        if (cached != null && (expectedVersion == null || expectedVersion.equals(cached.getVersion()))) {
+            if (repository.removeById(id, cached.getVersion()) == 1) {
+                return cached.getPrice();
+            }
+            if (expectedVersion != null) {
+                throw staleCache(id);
+            }
+        }
+        BigDecimal price = repository.findPriceByIdForUpdate(id).orElseThrow(() -> notFound(id));
+        if (repository.removeById(id, expectedVersion) == 0) {
+            throw rejection(id, expectedVersion);
+        }
+        return price;
+    }
+
+    /**
+     * Grava só as colunas informadas num UPDATE. Com o produto em cache a versão cacheada vai no
+     * WHERE: se o UPDATE acerta, o novo estado e o preço anterior são conhecidos e o UPDATE é o único
+     * comando. Sem cache, ou com cache desatualizado, a linha é lida uma vez com {@code FOR UPDATE}
+     * e dela saem a checagem do If-Match, o preço anterior e a resposta (o MySQL não tem
+     * UPDATE ... RETURNING). O bloqueio impede que outra escrita mude a linha entre a leitura e o UPDATE.
+     */
+    private ProductResponse write(Long id, Map<String, Object> columns, Long expectedVersion) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        boolean pricing = columns.containsKey("price");
+        ProductResponse response = null;
+        BigDecimal previousPrice = null;
+
+        ProductResponse cached = cache.get(id).orElse(null);
+        if (cached != null && (expectedVersion == null || expectedVersion.equals(cached.getVersion()))) {
+            if (repository.updateColumns(id, columns, cached.getVersion(), now) == 1) {
+                response = merge(cached, columns, now);
+                previousPrice = cached.getPrice();
+            } else if (expectedVersion != null) {
+                throw staleCache(id);
+            }
+        }
+        if (response == null) {
+            ProductResponse current = toResponse(repository.findByIdForUpdate(id).orElseThrow(() -> notFound(id)));
+            checkVersion(id, current.getVersion(), expectedVersion);
+            repository.updateColumns(id, columns, current.getVersion(), now);
+            response = merge(current, columns, now);
+            previousPrice = current.getPrice();
+        }
+
+        ProductChangedEvent change = ProductChangedEvent.updated(response);
+        changeLog.append(change);
+        ProductResponse written = response;
+        afterCommit(() -> cache.put(written));
+        if (pricing) {
+            statistics.record(previousPrice, response.getPrice());
+        }
+        events.publishEvent(change);
+        return response;
+    }
+
+    /**
+     * O cache só enxerga o que já foi commitado: dentro de uma transação a ação espera o commit, e um
+     * rollback não deixa entrada fantasma.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private <T> T readPrimary(TransactionCallback<T> read) {
+        return ReadYourWrites.onPrimary(() -> readOnly.execute(read));
+    }
+
+    // o 404 de uma leitura é montado uma vez e reaproveitado enquanto o id estiver no cache de inexistentes
+    private ResourceNotFoundException rememberMissing(Long id) {
+        ResourceNotFoundException notFound = notFound(id);
+        cache.putMissing(id, notFound);
+        return notFound;
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+    }
+
+    /**
+     * Nenhuma linha afetada: o produto não existe (404) ou está em outra versão (412).
+     */
+    private RuntimeException rejection(Long id, Long expectedVersion) {
+        return repository.findVersionById(id)
+                .<RuntimeException>map(current -> new PreconditionFailedException(
+                        "Versão do produto " + id + " não confere (atual: " + current.version() + ")"))
+                .orElseGet(() -> notFound(id));
+    }
+
+    /**
+     * O If-Match bateu com a versão cacheada mas o banco já está em outra: a entrada é trocada pela
+     * linha atual em vez de apenas removida, porque um {@code evict} deixaria uma carga em andamento
+     * com a versão antiga repor o que acabou de sair. Linha ausente vira exclusão no cache.
+     */
+    private RuntimeException staleCache(Long id) {
+        Product product = repository.findById(id).orElse(null);
+        if (product == null) {
+            ResourceNotFoundException notFound = notFound(id);
+            cache.evictDeleted(id, notFound);
+            return notFound;
+        }
+        ProductResponse current = toResponse(product);
+        cache.put(current);
+        return new PreconditionFailedException(
+                "Versão do produto " + id + " não confere (atual: " + current.getVersion() + ")");
+    }
 
-        return toResponse(repository.save(product));
+    private static ProductResponse merge(ProductResponse current, Map<String, Object> columns, Instant updatedAt) {
+        return ProductResponse.builder()
+                .id(current.getId())
+                .name(columns.containsKey("name") ? (String) columns.get("name") : current.getName())
+                .description(columns.containsKey("description") ? (String) columns.get("description") : current.getDescription())
+                .price(columns.containsKey("price") ? (BigDecimal) columns.get("price") : current.getPrice())
+                .imageUrl(columns.containsKey("imageUrl") ? (String) columns.get("imageUrl") : current.getImageUrl())
+                .version(current.getVersion() + 1)
+                .updatedAt(updatedAt)
+                .build();
     }
 
-    public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+    private static void checkVersion(Long id, Long current, Long expected) {
+        if (expected != null && !expected.equals(current)) {
+            throw new PreconditionFailedException("Versão do produto " + id + " não confere (atual: " + current + ")");
         }
-        repository.deleteById(id);
     }
-}
\ No newline at end of file
+}
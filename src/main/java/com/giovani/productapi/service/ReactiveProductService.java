@@ -0,0 +1,101 @@
+package com.giovani.productapi.service;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.mapper.ProductMapper;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductVersion;
+import com.giovani.productapi.repository.ReactiveProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.giovani.productapi.mapper.ProductMapper.toEntity;
+
+/**
+ * Mesmas regras do {@link ProductService} sobre R2DBC: nenhuma chamada bloqueia a thread do
+ * event loop. Atualização e exclusão são um único comando com a versão no WHERE; só quando nada
+ * é afetado o serviço consulta de novo para distinguir 404 de 412.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository repository;
+    private final PaginationProperties pagination;
+    private final ProductCache cache;
+
+    public Mono<ProductResponse> create(ProductRequest request) {
+        return repository.insert(toEntity(request))
+                .map(ProductMapper::toResponse)
+                .doOnNext(cache::put);
+    }
+
+    public Mono<PageResponse<ProductResponse>> findAll(int page, Integer size, ProductSortField sortBy, boolean descending) {
+        int limit = pagination.clamp(size);
+        int number = Math.max(page, 0);
+        PageRequest pageable = PageRequest.of(number, limit,
+                Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, sortBy.property()));
+        return Mono.zip(
+                        repository.findAll(sortBy, descending, pageable.getOffset(), limit)
+                                .map(ProductMapper::toResponse)
+                                .collectList(),
+                        repository.count())
+                .map(result -> PageResponse.of(new PageImpl<>(result.getT1(), pageable, result.getT2())));
+    }
+
+    public Flux<ProductResponse> stream() {
+        return repository.streamAll().map(ProductMapper::toResponse);
+    }
+
+    public Mono<ProductResponse> findById(Long id) {
+        return Mono.justOrEmpty(cache.get(id))
+                .switchIfEmpty(Mono.defer(() -> repository.findById(id)
+                        .map(ProductMapper::toResponse)
+                        .doOnNext(cache::put)))
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    public Mono<ProductVersion> findVersion(Long id) {
+        return Mono.justOrEmpty(cache.get(id))
+                .map(product -> new ProductVersion(product.getVersion(), product.getUpdatedAt()))
+                .switchIfEmpty(Mono.defer(() -> repository.findVersionById(id)))
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    public Mono<ProductResponse> update(Long id, ProductRequest request, Long expectedVersion) {
+        return repository.update(id, toEntity(request), expectedVersion)
+                .flatMap(rows -> rows > 0
+                        ? repository.findById(id).map(ProductMapper::toResponse)
+                        : rejection(id, expectedVersion))
+                .doOnNext(cache::put);
+    }
+
+    public Mono<Void> delete(Long id, Long expectedVersion) {
+        return repository.delete(id, expectedVersion)
+                .flatMap(rows -> rows > 0 ? Mono.<Void>empty() : rejection(id, expectedVersion))
+                .doFinally(signal -> cache.evict(id));
+    }
+
+    private <T> Mono<T> rejection(Long id, Long expectedVersion) {
+        return repository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(current -> Mono.error(new PreconditionFailedException(
+                        "Versão do produto " + id + " não confere (atual: " + current.version() + ")")));
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        return new ResourceNotFoundException("Produto não encontrado com ID: " + id);
+    }
+}
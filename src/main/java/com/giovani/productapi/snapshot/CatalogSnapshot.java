@@ -0,0 +1,196 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.dto.ProductResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot do catálogo mapeado em memória, somente leitura. Os dados ficam fora do heap (no page
+ * cache do sistema operacional, compartilhado entre processos); a busca por id é uma busca binária
+ * sobre o índice de ids primitivos, e a única alocação por produto é o {@link ProductResponse}
+ * devolvido (com suas strings e o preço).
+ * <p>
+ * O Java 17 não desmapeia um buffer explicitamente: um snapshot substituído continua mapeado até o
+ * coletor recolher o objeto. Apagar o arquivo antes disso é seguro; o espaço só é liberado depois.
+ */
+public final class CatalogSnapshot {
+
+    // leituras absolutas não alteram o estado do buffer, então as threads compartilham os mapeamentos
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[512]);
+
+    private final Path file;
+    private final long version;
+    private final long changeId;
+    private final Instant createdAt;
+    private final int count;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer[] segments;
+
+    private CatalogSnapshot(Path file, long version, long changeId, Instant createdAt, int count, int segmentShift,
+                            MappedByteBuffer index, MappedByteBuffer[] segments) {
+        this.file = file;
+        this.version = version;
+        this.changeId = changeId;
+        this.createdAt = createdAt;
+        this.count = count;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.index = index;
+        this.segments = segments;
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < SnapshotFormat.HEADER_SIZE) {
+                throw new IOException("Snapshot truncado: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SnapshotFormat.HEADER_SIZE);
+            if (header.getInt() != SnapshotFormat.MAGIC || header.getInt() != SnapshotFormat.FORMAT) {
+                throw new IOException("Arquivo não é um snapshot do catálogo (ou de outro formato): " + file);
+            }
+            long version = header.getLong();
+            long changeId = header.getLong();
+            Instant createdAt = Instant.ofEpochMilli(header.getLong());
+            int count = header.getInt();
+            int segmentShift = header.getInt();
+            long indexOffset = header.getLong();
+            long dataOffset = header.getLong();
+            long dataLength = header.getLong();
+            if (segmentShift < 1 || segmentShift > 30 || dataOffset + dataLength != channel.size()) {
+                throw new IOException("Snapshot truncado ou corrompido: " + file);
+            }
+
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+                    (long) count * SnapshotFormat.INDEX_ENTRY);
+            long segmentSize = 1L << segmentShift;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((dataLength + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + start,
+                        Math.min(segmentSize, dataLength - start));
+            }
+            return new CatalogSnapshot(file, version, changeId, createdAt, count, segmentShift, index, segments);
+        }
+    }
+
+    /**
+     * @return o produto, ou {@code null} se o id não está no snapshot
+     */
+    public ProductResponse find(long id) {
+        int slot = slotOf(id);
+        return slot < count && idAt(slot) == id ? read(slot) : null;
+    }
+
+    /**
+     * Produtos das posições {@code [from, from + size)} em ordem de id.
+     */
+    public List<ProductResponse> range(int from, int size) {
+        int end = (int) Math.min(count, (long) Math.max(0, from) + size);
+        List<ProductResponse> products = new ArrayList<>(Math.max(0, end - from));
+        for (int slot = Math.max(0, from); slot < end; slot++) {
+            products.add(read(slot));
+        }
+        return products;
+    }
+
+    /**
+     * Posição do primeiro produto com id maior ou igual a {@code id} ({@link #count()} se não há).
+     */
+    public int slotOf(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long current = idAt(mid);
+            if (current < id) {
+                low = mid + 1;
+            } else if (current > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Último id do feed de mudanças ({@code product_change}) contido no snapshot.
+     */
+    public long changeId() {
+        return changeId;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    private long idAt(int slot) {
+        return index.getLong(slot * SnapshotFormat.INDEX_ENTRY);
+    }
+
+    private ProductResponse read(int slot) {
+        long position = index.getLong(slot * SnapshotFormat.INDEX_ENTRY + 8);
+        MappedByteBuffer data = segments[(int) (position >>> segmentShift)];
+        int offset = (int) (position & segmentMask);
+
+        long unscaled = data.getLong(offset);
+        int scale = data.get(offset + 8);
+        long version = data.getLong(offset + 9);
+        boolean hasUpdatedAt = (data.get(offset + 17) & SnapshotFormat.HAS_UPDATED_AT) != 0;
+        Instant updatedAt = hasUpdatedAt ? Instant.ofEpochSecond(data.getLong(offset + 18), data.getInt(offset + 26)) : null;
+        offset += 30;
+        int nameLength = data.getInt(offset);
+        String name = string(data, offset + 4, nameLength);
+        offset += 4 + Math.max(0, nameLength);
+        int descriptionLength = data.getInt(offset);
+        String description = string(data, offset + 4, descriptionLength);
+        offset += 4 + Math.max(0, descriptionLength);
+        String imageUrl = string(data, offset + 4, data.getInt(offset));
+
+        return ProductResponse.builder()
+                .id(idAt(slot))
+                .name(name)
+                .description(description)
+                .price(BigDecimal.valueOf(unscaled, scale))
+                .imageUrl(imageUrl)
+                .version(version)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static String string(MappedByteBuffer data, int offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        data.get(offset, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
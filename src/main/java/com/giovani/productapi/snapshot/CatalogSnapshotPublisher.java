@@ -0,0 +1,134 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.feed.ProductChangeFeed;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Nó {@code writer}: grava o catálogo inteiro num snapshot novo a cada {@code interval}, a partir de
+ * uma leitura consistente (uma transação somente leitura em REPEATABLE READ). Na mesma transação o
+ * feed de mudanças é seguido com a regra de buracos do {@link ProductChangeFeed}; o offset alcançado
+ * (nunca além de um offset menor ainda não commitado) vai no cabeçalho como {@code changeId}, e é ele
+ * que decide se há o que publicar: se não avançou desde o último snapshot, nada é gravado. Um offset
+ * menor que commita tarde faz o seguidor avançar, e portanto gera um snapshot novo, quando chega.
+ * Versões antigas além de {@code retain} são apagadas; leitores que ainda as tenham mapeadas não são afetados.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "productapi.snapshot", name = "mode", havingValue = "writer")
+public class CatalogSnapshotPublisher implements DisposableBean {
+
+    private final ProductRepository repository;
+    private final EntityManager entityManager;
+    private final ProductChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapshotProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    private long publishedChangeId = -1;
+    private long publishedVersion;
+
+    public CatalogSnapshotPublisher(ProductRepository repository, EntityManager entityManager,
+                                    ProductChangeFeed changeFeed, PlatformTransactionManager transactionManager,
+                                    SnapshotProperties properties) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::publishQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return o snapshot gravado, ou {@code null} se o catálogo não mudou desde o último
+     */
+    public synchronized Path publish() {
+        return transactionTemplate.execute(status -> {
+            long changeId = changeFeed.follow(publishedChangeId < 0 ? changeFeed.settledOffset() : publishedChangeId,
+                    change -> { });
+            if (changeId == publishedChangeId) {
+                return null;
+            }
+            long version = Math.max(publishedVersion + 1, System.currentTimeMillis());
+            try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(properties.directory(), version, changeId);
+                 Stream<Product> products = repository.streamAll()) {
+                products.forEach(product -> {
+                    try {
+                        writer.add(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    entityManager.detach(product);
+                });
+                Path file = writer.commit();
+                publishedChangeId = changeId;
+                publishedVersion = version;
+                log.info("Snapshot do catálogo {} gravado com {} produtos", version, writer.count());
+                deleteOldVersions();
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar o snapshot do catálogo", e);
+        }
+    }
+
+    private void deleteOldVersions() throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(properties.directory())) {
+            snapshots = files.filter(file -> SnapshotFormat.versionOf(file) >= 0)
+                    .sorted(Comparator.comparingLong(SnapshotFormat::versionOf).reversed())
+                    .toList();
+        }
+        for (Path old : snapshots.subList(Math.min(snapshots.size(), Math.max(1, properties.retain())), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
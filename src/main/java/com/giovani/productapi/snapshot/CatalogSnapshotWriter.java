@@ -0,0 +1,187 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.entity.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Grava um snapshot em {@link SnapshotFormat}. Índice e dados vão para arquivos temporários
+ * separados enquanto os produtos chegam (em ordem de id, sem guardar nada em memória), e são
+ * juntados com o cabeçalho em {@link #commit()}. O arquivo final aparece no diretório por um
+ * rename atômico: quem procura snapshots nunca vê um arquivo pela metade.
+ */
+class CatalogSnapshotWriter implements Closeable {
+
+    private static final int MAX_PRODUCTS = Integer.MAX_VALUE / SnapshotFormat.INDEX_ENTRY;
+
+    private final Path directory;
+    private final long version;
+    private final long changeId;
+    private final int segmentShift;
+    private final long segmentSize;
+    private final Path indexFile;
+    private final Path dataFile;
+    private final DataOutputStream index;
+    private final DataOutputStream data;
+
+    private long position;
+    private int count;
+    private long lastId = Long.MIN_VALUE;
+    private boolean committed;
+
+    CatalogSnapshotWriter(Path directory, long version, long changeId) throws IOException {
+        this(directory, version, changeId, SnapshotFormat.SEGMENT_SHIFT);
+    }
+
+    // segmentShift menor nos testes, para exercitar registros perto do limite de um segmento
+    CatalogSnapshotWriter(Path directory, long version, long changeId, int segmentShift) throws IOException {
+        this.directory = directory;
+        this.version = version;
+        this.changeId = changeId;
+        this.segmentShift = segmentShift;
+        this.segmentSize = 1L << segmentShift;
+        Files.createDirectories(directory);
+        String prefix = SnapshotFormat.fileName(version);
+        this.indexFile = Files.createTempFile(directory, prefix, ".index");
+        this.dataFile = Files.createTempFile(directory, prefix, ".data");
+        this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), 64 * 1024));
+        this.data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataFile), 64 * 1024));
+    }
+
+    void add(Product product) throws IOException {
+        long id = product.getId();
+        if (id <= lastId) {
+            throw new IllegalArgumentException("Produtos fora de ordem de id: " + id + " depois de " + lastId);
+        }
+        if (count == MAX_PRODUCTS) {
+            throw new IllegalStateException("Snapshot limitado a " + MAX_PRODUCTS + " produtos");
+        }
+        BigDecimal price = product.getPrice();
+        long unscaled = price.unscaledValue().longValueExact();
+        byte[] name = utf8(product.getName());
+        byte[] description = utf8(product.getDescription());
+        byte[] imageUrl = utf8(product.getImageUrl());
+        int size = 8 + 1 + 8 + 1 + 8 + 4 + length(name) + length(description) + length(imageUrl);
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Produto " + id + " maior que um segmento do snapshot");
+        }
+
+        long used = position & (segmentSize - 1);
+        if (used + size > segmentSize) {
+            // o registro não cabe no resto do segmento: começa no próximo
+            pad(segmentSize - used);
+        }
+        index.writeLong(id);
+        index.writeLong(position);
+
+        Instant updatedAt = product.getUpdatedAt();
+        data.writeLong(unscaled);
+        data.writeByte(price.scale());
+        data.writeLong(product.getVersion() == null ? 0 : product.getVersion());
+        data.writeByte(updatedAt == null ? 0 : SnapshotFormat.HAS_UPDATED_AT);
+        data.writeLong(updatedAt == null ? 0 : updatedAt.getEpochSecond());
+        data.writeInt(updatedAt == null ? 0 : updatedAt.getNano());
+        write(name);
+        write(description);
+        write(imageUrl);
+        position += size;
+        lastId = id;
+        count++;
+    }
+
+    /**
+     * @return o arquivo publicado
+     */
+    Path commit() throws IOException {
+        index.close();
+        data.close();
+        Path target = directory.resolve(SnapshotFormat.fileName(version));
+        Path temporary = Files.createTempFile(directory, SnapshotFormat.fileName(version), ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long indexOffset = SnapshotFormat.HEADER_SIZE;
+            long dataOffset = indexOffset + (long) count * SnapshotFormat.INDEX_ENTRY;
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE)
+                    .putInt(SnapshotFormat.MAGIC)
+                    .putInt(SnapshotFormat.FORMAT)
+                    .putLong(version)
+                    .putLong(changeId)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(count)
+                    .putInt(segmentShift)
+                    .putLong(indexOffset)
+                    .putLong(dataOffset)
+                    .putLong(position)
+                    .flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            append(out, indexFile);
+            append(out, dataFile);
+            out.force(true);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return target;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            index.close();
+            data.close();
+        }
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(dataFile);
+    }
+
+    private void pad(long bytes) throws IOException {
+        for (long i = 0; i < bytes; i++) {
+            data.write(0);
+        }
+        position += bytes;
+    }
+
+    private void write(byte[] value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+        } else {
+            data.writeInt(value.length);
+            data.write(value);
+        }
+    }
+
+    private static int length(byte[] value) {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void append(FileChannel out, Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            for (long done = 0; done < size; ) {
+                done += in.transferTo(done, size - done, out);
+            }
+        }
+    }
+}
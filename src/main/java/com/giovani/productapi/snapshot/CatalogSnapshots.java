@@ -0,0 +1,191 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.feed.ProductChangeFeed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot em uso pelo {@code ProductService}. No modo {@code reader} o diretório é verificado a cada
+ * {@code poll-interval} e uma versão nova substitui a atual numa única escrita volátil: cada leitura
+ * pega a referência uma vez e enxerga um snapshot inteiro, nunca uma mistura de versões. Nos outros
+ * modos {@link #current()} é sempre nulo e as leituras vão ao banco.
+ * <p>
+ * No mesmo ciclo o feed de mudanças é seguido a partir do {@code changeId} do snapshot, com a mesma
+ * regra de buracos do {@link ProductChangeFeed}: os produtos de toda mudança visível (inclusive além
+ * de um buraco recente) ficam em {@link #isStale} e suas leituras por id saem do snapshot, e a leitura
+ * seguinte recomeça do primeiro buraco pendente, então um offset menor que commita tarde também é
+ * visto. As escritas desta instância entram na hora, pelo evento depois do commit; as das outras, no
+ * próximo ciclo. Um snapshot novo só passa a valer depois dessa leitura e só leva embora as marcas
+ * até o seu {@code changeId}, que o publicador também calcula seguindo o feed sem passar de buracos.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class CatalogSnapshots implements MeterBinder, DisposableBean {
+
+    // escrita desta instância que o feed ainda não mostrou
+    private static final long UNSEEN = -1;
+
+    private final Path directory;
+    private final ProductChangeFeed changeFeed;
+    private final boolean reader;
+    private final ScheduledExecutorService scheduler;
+    // produto escrito depois do snapshot em uso → offset da última mudança dele no feed
+    private final ConcurrentMap<Long, Long> written = new ConcurrentHashMap<>();
+
+    private volatile CatalogSnapshot current;
+    private long feedOffset = -1;
+
+    public CatalogSnapshots(SnapshotProperties properties, ProductChangeFeed changeFeed) {
+        this.directory = properties.directory();
+        this.changeFeed = changeFeed;
+        this.reader = properties.mode() == SnapshotProperties.Mode.READER;
+        if (!reader) {
+            this.scheduler = null;
+            return;
+        }
+        // a primeira carga é síncrona, para o nó já subir servindo pelo snapshot se ele existir
+        refresh();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.pollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return o snapshot em uso, ou {@code null} quando não há (modo diferente de {@code reader}, ou
+     * nenhum snapshot publicado ainda)
+     */
+    public CatalogSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Produto escrito depois do snapshot em uso: a leitura dele por id deve ir ao cache ou ao banco.
+     */
+    public boolean isStale(Long id) {
+        return written.containsKey(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (reader) {
+            written.putIfAbsent(event.id(), UNSEEN);
+        }
+    }
+
+    /**
+     * Lê o feed de mudanças e troca para a versão mais nova do diretório, se for mais nova que a atual.
+     *
+     * @return se houve troca
+     */
+    public synchronized boolean refresh() {
+        CatalogSnapshot active = current;
+        CatalogSnapshot loaded = null;
+        try {
+            Optional<Path> latest = latest(directory);
+            if (latest.isPresent() && (active == null || SnapshotFormat.versionOf(latest.get()) > active.version())) {
+                loaded = CatalogSnapshot.open(latest.get());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível carregar o snapshot do catálogo; mantida a versão {}",
+                    active == null ? "nenhuma" : active.version(), e);
+        }
+        CatalogSnapshot next = loaded != null ? loaded : active;
+        if (next == null) {
+            return false;
+        }
+        try {
+            follow(next);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível ler o feed de mudanças; mantida a versão {} do snapshot",
+                    active == null ? "nenhuma" : active.version(), e);
+            return false;
+        }
+        if (loaded == null) {
+            return false;
+        }
+        // o changeId não passa de buraco pendente: toda mudança até ele está no snapshot
+        long changeId = loaded.changeId();
+        written.values().removeIf(offset -> offset != UNSEEN && offset <= changeId);
+        current = loaded;
+        log.info("Snapshot do catálogo {} carregado: {} produtos, gerado em {}",
+                loaded.version(), loaded.count(), loaded.createdAt());
+        return true;
+    }
+
+    private void follow(CatalogSnapshot snapshot) {
+        if (feedOffset < 0) {
+            feedOffset = snapshot.changeId();
+        }
+        feedOffset = changeFeed.follow(feedOffset,
+                change -> written.merge(change.getProductId(), change.getOffset(), Math::max));
+    }
+
+    static Optional<Path> latest(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SnapshotFormat.versionOf(file) >= 0)
+                    .max(Comparator.comparingLong(SnapshotFormat::versionOf));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.snapshot.version", this, snapshots -> version(snapshots.current))
+                .description("Versão do snapshot do catálogo em uso (-1 sem snapshot)")
+                .register(registry);
+        Gauge.builder("productapi.snapshot.products", this, snapshots -> snapshots.current == null ? 0 : snapshots.current.count())
+                .description("Produtos no snapshot em uso")
+                .register(registry);
+        Gauge.builder("productapi.snapshot.stale", written, Map::size)
+                .description("Produtos escritos depois do snapshot em uso, lidos por id fora dele")
+                .register(registry);
+        Gauge.builder("productapi.snapshot.age", this, snapshots -> age(snapshots.current))
+                .description("Idade do snapshot em uso, em segundos")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static double version(CatalogSnapshot snapshot) {
+        return snapshot == null ? -1 : snapshot.version();
+    }
+
+    private static double age(CatalogSnapshot snapshot) {
+        return snapshot == null ? 0 : Duration.between(snapshot.createdAt(), Instant.now()).toMillis() / 1000.0;
+    }
+}
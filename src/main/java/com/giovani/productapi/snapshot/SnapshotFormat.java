@@ -0,0 +1,48 @@
+package com.giovani.productapi.snapshot;
+
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layout do arquivo de snapshot do catálogo ({@code catalog-<versão>.snap}), big-endian:
+ * <pre>
+ * cabeçalho ({@value #HEADER_SIZE} bytes)
+ *   int magic, int formato, long versão, long último id do feed de mudanças incluído,
+ *   long criado em (epoch ms), int produtos, int log2 do segmento de dados,
+ *   long início do índice, long início dos dados, long tamanho dos dados
+ * índice ({@value #INDEX_ENTRY} bytes por produto, em ordem crescente de id)
+ *   long id, long posição do registro na região de dados
+ * dados (registros de tamanho variável; nenhum atravessa o limite de um segmento)
+ *   long preço sem escala, byte escala, long versão, byte flags,
+ *   long updated_at (segundos), int updated_at (nanos),
+ *   nome, descrição e URL da imagem: int tamanho em bytes (-1 para nulo) + UTF-8
+ * </pre>
+ * Os segmentos existem porque um {@code MappedByteBuffer} endereça no máximo 2 GB.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x50434154; // "PCAT"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRY = 16;
+    static final int SEGMENT_SHIFT = 30;
+    static final byte HAS_UPDATED_AT = 1;
+
+    private static final Pattern FILE_NAME = Pattern.compile("catalog-(\\d{20})\\.snap");
+
+    private SnapshotFormat() {
+    }
+
+    static String fileName(long version) {
+        return String.format("catalog-%020d.snap", version);
+    }
+
+    /**
+     * @return a versão do arquivo, ou -1 se o nome não é de um snapshot (inclusive os temporários)
+     */
+    static long versionOf(Path file) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
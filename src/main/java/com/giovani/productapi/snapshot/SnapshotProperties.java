@@ -0,0 +1,34 @@
+package com.giovani.productapi.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Atraso das leituras num nó {@code reader}: a versão do produto (ETag, If-Match) vem sempre do
+ * cache/banco. A busca por id de um produto escrito nesta instância sai do snapshot na hora; escrito
+ * em outra, em até {@code poll-interval} (leitura do feed de mudanças). Listas e páginas vêm do
+ * snapshot e podem ficar até {@code interval + poll-interval} atrás do banco, mais o tempo de gravar o arquivo;
+ * com um offset do feed ainda não commitado, o snapshot seguinte espera até {@code productapi.changes.settle}.
+ *
+ * @param mode         {@code off}; {@code writer}: grava o catálogo periodicamente em {@code directory};
+ *                     {@code reader}: responde as leituras do {@code ProductService} pelo snapshot mapeado
+ * @param directory    onde os snapshots ficam; compartilhado (ou sincronizado) entre o nó que grava e os que leem
+ * @param interval     intervalo entre snapshots no nó {@code writer}; sem mudança no feed, nada é gravado
+ * @param pollInterval intervalo da procura por versões novas no nó {@code reader}
+ * @param retain       snapshots mantidos no diretório; os mais antigos são apagados pelo {@code writer}
+ */
+@ConfigurationProperties(prefix = "productapi.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("off") Mode mode,
+        @DefaultValue("data/snapshot") Path directory,
+        @DefaultValue("1m") Duration interval,
+        @DefaultValue("5s") Duration pollInterval,
+        @DefaultValue("2") int retain) {
+
+    public enum Mode {
+        OFF, WRITER, READER
+    }
+}
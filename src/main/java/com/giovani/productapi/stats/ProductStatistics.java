@@ -0,0 +1,222 @@
+package com.giovani.productapi.stats;
+
+import com.giovani.productapi.dto.PriceBucket;
+import com.giovani.productapi.dto.ProductStatsResponse;
+import com.giovani.productapi.repository.PriceCount;
+import com.giovani.productapi.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem, soma, mínimo/máximo e histograma de preços mantidos incrementalmente pelas escritas,
+ * para que {@code /api/v1/products/stats} não precise varrer a tabela. Os contadores são
+ * {@link LongAdder} (sem disputa entre escritas concorrentes) e os preços são guardados em centavos.
+ * Dentro de uma transação o delta só é aplicado no commit; um rollback não deixa rastro.
+ * <p>
+ * Escritas fora da API (SQL direto, outra instância) e escritas concorrentes com a reconciliação
+ * podem desviar os agregados; a reconciliação periódica com o banco os reconstrói do zero.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class ProductStatistics implements MeterBinder, DisposableBean {
+
+    private final ProductRepository repository;
+    private final long[] bounds;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Aggregates aggregates;
+    private volatile Instant reconciledAt;
+    // diferença de contagem encontrada na última reconciliação
+    private volatile long drift;
+
+    public ProductStatistics(ProductRepository repository, ProductStatsProperties properties) {
+        this.repository = repository;
+        this.bounds = properties.buckets().stream().mapToLong(ProductStatistics::cents).toArray();
+        for (int i = 0; i < bounds.length; i++) {
+            if (bounds[i] <= 0 || (i > 0 && bounds[i] <= bounds[i - 1])) {
+                throw new IllegalArgumentException(
+                        "productapi.stats.buckets deve ter limites positivos em ordem crescente: " + properties.buckets());
+            }
+        }
+        this.aggregates = new Aggregates(bounds.length + 1);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration interval = properties.reconcileInterval();
+        if (!interval.isZero() && !interval.isNegative()) {
+            scheduler.scheduleWithFixedDelay(this::reconcileQuietly,
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A primeira reconciliação roda em segundo plano para não atrasar a subida; até ela terminar
+     * {@code reconciledAt} vem nulo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        scheduler.execute(this::reconcileQuietly);
+    }
+
+    /**
+     * Registra a troca de preço de um produto: {@code before} nulo é uma criação, {@code after} nulo uma exclusão.
+     */
+    public void record(BigDecimal before, BigDecimal after) {
+        if (before == null && after == null || before != null && after != null && before.compareTo(after) == 0) {
+            return;
+        }
+        Long removed = before == null ? null : cents(before);
+        Long added = after == null ? null : cents(after);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(removed, added);
+                }
+            });
+        } else {
+            apply(removed, added);
+        }
+    }
+
+    public ProductStatsResponse snapshot() {
+        Aggregates current = aggregates;
+        long count = current.count.sum();
+        long total = current.totalCents.sum();
+        Map.Entry<Long, Long> min = current.prices.firstEntry();
+        Map.Entry<Long, Long> max = current.prices.lastEntry();
+
+        List<PriceBucket> histogram = new ArrayList<>(current.buckets.length);
+        for (int i = 0; i < current.buckets.length; i++) {
+            histogram.add(PriceBucket.builder()
+                    .from(BigDecimal.valueOf(i == 0 ? 0 : bounds[i - 1], 2))
+                    .to(i < bounds.length ? BigDecimal.valueOf(bounds[i], 2) : null)
+                    .count(current.buckets[i].sum())
+                    .build());
+        }
+        return ProductStatsResponse.builder()
+                .count(count)
+                .minPrice(min == null ? null : BigDecimal.valueOf(min.getKey(), 2))
+                .maxPrice(max == null ? null : BigDecimal.valueOf(max.getKey(), 2))
+                .averagePrice(count <= 0 ? null
+                        : BigDecimal.valueOf(total, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP))
+                .histogram(histogram)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Reconstrói os agregados com um GROUP BY por preço e troca a referência de uma vez.
+     */
+    public synchronized void reconcile() {
+        Aggregates fresh = new Aggregates(bounds.length + 1);
+        for (PriceCount row : repository.countByPrice()) {
+            long cents = cents(row.price());
+            fresh.add(cents, bucketOf(cents), row.count());
+        }
+        Aggregates previous = aggregates;
+        aggregates = fresh;
+        long difference = fresh.count.sum() - previous.count.sum();
+        if (reconciledAt != null && difference != 0) {
+            log.debug("Estatísticas do catálogo reconciliadas: contagem divergia em {} produtos", difference);
+        }
+        drift = difference;
+        reconciledAt = Instant.now();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("productapi.catalog.products", this, stats -> stats.aggregates.count.sum())
+                .description("Quantidade de produtos segundo os agregados incrementais")
+                .register(registry);
+        Gauge.builder("productapi.catalog.stats.drift", this, stats -> stats.drift)
+                .description("Diferença de contagem corrigida pela última reconciliação")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível reconciliar as estatísticas do catálogo", e);
+        }
+    }
+
+    private void apply(Long removed, Long added) {
+        Aggregates current = aggregates;
+        if (removed != null) {
+            current.add(removed, bucketOf(removed), -1);
+        }
+        if (added != null) {
+            current.add(added, bucketOf(added), 1);
+        }
+    }
+
+    /**
+     * Faixa i cobre [bounds[i - 1], bounds[i]); um preço igual a um limite cai na faixa seguinte.
+     */
+    private int bucketOf(long cents) {
+        int index = Arrays.binarySearch(bounds, cents);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private static long cents(BigDecimal price) {
+        // mesmo arredondamento da coluna numeric(38,2)
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Aggregates {
+
+        final LongAdder count = new LongAdder();
+        final LongAdder totalCents = new LongAdder();
+        final LongAdder[] buckets;
+        // multiconjunto de preços (centavos → quantidade) para mínimo e máximo
+        final ConcurrentSkipListMap<Long, Long> prices = new ConcurrentSkipListMap<>();
+
+        Aggregates(int buckets) {
+            this.buckets = new LongAdder[buckets];
+            Arrays.setAll(this.buckets, i -> new LongAdder());
+        }
+
+        void add(long cents, int bucket, long quantity) {
+            count.add(quantity);
+            totalCents.add(cents * quantity);
+            buckets[bucket].add(quantity);
+            prices.compute(cents, (price, current) -> {
+                long updated = (current == null ? 0 : current) + quantity;
+                return updated <= 0 ? null : updated;
+            });
+        }
+    }
+}
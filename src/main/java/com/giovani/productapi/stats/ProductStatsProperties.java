@@ -0,0 +1,18 @@
+package com.giovani.productapi.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param buckets           limites do histograma de preços, em ordem crescente; n limites geram n + 1 faixas
+ * @param reconcileInterval intervalo entre as reconciliações com o banco; zero deixa só a da inicialização
+ */
+@ConfigurationProperties(prefix = "productapi.stats")
+public record ProductStatsProperties(
+        @DefaultValue({"10", "50", "100", "500", "1000", "5000"}) List<BigDecimal> buckets,
+        @DefaultValue("10m") Duration reconcileInterval) {
+}
@@ -0,0 +1,12 @@
+create table product (
+    id          bigint         not null,
+    name        varchar(255)   not null,
+    description varchar(255),
+    price       numeric(38, 2) not null,
+    image_url   varchar(255),
+    version     bigint         not null default 0,
+    updated_at  timestamp(6) with time zone,
+    primary key (id)
+);
+
+create sequence product_seq start with 1 increment by 50;
@@ -0,0 +1,3 @@
+-- H2 não tem FULLTEXT nativo; a busca textual fica com o índice invertido em memória.
+create index idx_product_price on product (price, id);
+create index idx_product_name on product (name, id);
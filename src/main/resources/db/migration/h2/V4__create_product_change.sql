@@ -0,0 +1,11 @@
+create table product_change (
+    id          bigint generated by default as identity,
+    product_id  bigint                      not null,
+    type        varchar(16)                 not null,
+    version     bigint,
+    payload     character large object,
+    created_at  timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_product_change_created_at on product_change (created_at);
@@ -0,0 +1,12 @@
+create table idempotency_key (
+    idempotency_key varchar(255)                not null,
+    fingerprint     char(64)                    not null,
+    status          int,
+    headers         varchar(2048),
+    body            binary large object,
+    created_at      timestamp(6) with time zone not null,
+    expires_at      timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_key_expires_at on idempotency_key (expires_at);
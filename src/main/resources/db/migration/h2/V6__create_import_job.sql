@@ -0,0 +1,28 @@
+create table import_job (
+    id               char(36)                    not null,
+    status           varchar(16)                 not null,
+    format           varchar(16)                 not null,
+    file_path        varchar(1024)               not null,
+    file_size        bigint                      not null,
+    committed_offset bigint                      not null,
+    committed_line   bigint                      not null,
+    created_count    bigint                      not null,
+    updated_count    bigint                      not null,
+    failed_count     bigint                      not null,
+    message          varchar(1024),
+    owner            char(36),
+    lease_until      timestamp(6) with time zone,
+    created_at       timestamp(6) with time zone not null,
+    started_at       timestamp(6) with time zone,
+    finished_at      timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_import_job_status on import_job (status, lease_until);
+
+create table import_job_error (
+    job_id      char(36)      not null,
+    line_number bigint        not null,
+    message     varchar(1024) not null,
+    primary key (job_id, line_number)
+);
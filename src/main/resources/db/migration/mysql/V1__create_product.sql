@@ -0,0 +1,19 @@
+-- Esquema inicial. Bancos criados antes pelo ddl-auto=update entram com baseline na versão 1.
+create table if not exists product (
+    id          bigint         not null,
+    name        varchar(255)   not null,
+    description varchar(255),
+    price       decimal(38, 2) not null,
+    image_url   varchar(255),
+    version     bigint         not null default 0,
+    updated_at  datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+-- O MySQL não tem sequências: o Hibernate emula product_seq com uma tabela de uma linha.
+create table if not exists product_seq (
+    next_val bigint
+) engine = InnoDB;
+
+insert into product_seq (next_val)
+select 1 from dual where not exists (select 1 from product_seq);
@@ -0,0 +1,5 @@
+-- Bancos que vieram do id IDENTITY já têm linhas: a sequência pooled (allocationSize = 50)
+-- precisa começar acima do maior id + 50 para não gerar ids repetidos.
+update product_seq
+set next_val = (select coalesce(max(id), 0) + 51 from product)
+where next_val < (select coalesce(max(id), 0) + 51 from product);
@@ -0,0 +1,6 @@
+-- B-tree para faixa/ordenação por preço e nome (o id no fim serve de desempate no keyset).
+create index idx_product_price on product (price, id);
+create index idx_product_name on product (name, id);
+
+-- Busca textual em nome e descrição (MATCH ... AGAINST em modo booleano).
+create fulltext index ftx_product_name_description on product (name, description);
@@ -0,0 +1,14 @@
+-- Outbox do feed de mudanças: gravado na mesma transação da escrita do produto.
+-- O id (auto_increment) é o offset que o consumidor usa para retomar o feed.
+create table product_change (
+    id          bigint      not null auto_increment,
+    product_id  bigint      not null,
+    type        varchar(16) not null,
+    version     bigint,
+    payload     text,
+    created_at  datetime(6) not null,
+    primary key (id)
+) engine = InnoDB;
+
+-- Usado só na limpeza por retenção
+create index idx_product_change_created_at on product_change (created_at);
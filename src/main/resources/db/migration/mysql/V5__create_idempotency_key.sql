@@ -0,0 +1,13 @@
+-- Respostas de requisições com Idempotency-Key. status nulo = primeira requisição ainda em andamento.
+create table idempotency_key (
+    idempotency_key varchar(255)  not null,
+    fingerprint     char(64)      not null,
+    status          int,
+    headers         varchar(2048),
+    body            mediumblob,
+    created_at      datetime(6)   not null,
+    expires_at      datetime(6)   not null,
+    primary key (idempotency_key)
+) engine = InnoDB;
+
+create index idx_idempotency_key_expires_at on idempotency_key (expires_at);
@@ -0,0 +1,32 @@
+-- Importações em massa. committed_offset/committed_line apontam para depois do último registro gravado
+-- e são atualizados na mesma transação de cada bloco: a retomada não repete nem pula registros.
+-- owner + lease_until: instância que executa o job; lease vencido = job abandonado, pode ser retomado.
+create table import_job (
+    id               char(36)      not null,
+    status           varchar(16)   not null,
+    format           varchar(16)   not null,
+    file_path        varchar(1024) not null,
+    file_size        bigint        not null,
+    committed_offset bigint        not null,
+    committed_line   bigint        not null,
+    created_count    bigint        not null,
+    updated_count    bigint        not null,
+    failed_count     bigint        not null,
+    message          varchar(1024),
+    owner            char(36),
+    lease_until      datetime(6),
+    created_at       datetime(6)   not null,
+    started_at       datetime(6),
+    finished_at      datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create index idx_import_job_status on import_job (status, lease_until);
+
+-- Erros por linha (até productapi.imports.max-errors por job), paginados por line_number
+create table import_job_error (
+    job_id      char(36)      not null,
+    line_number bigint        not null,
+    message     varchar(1024) not null,
+    primary key (job_id, line_number)
+) engine = InnoDB;
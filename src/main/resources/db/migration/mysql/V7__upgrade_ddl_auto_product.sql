@@ -0,0 +1,21 @@
+-- Bancos que vieram do ddl-auto=update (baseline na versão 0): o V1 encontrou a tabela product
+-- antiga e não a recriou, então faltam as colunas de controle de versão. O MySQL não tem
+-- ADD COLUMN IF NOT EXISTS: cada ALTER só é montado quando a coluna falta e vira no-op nos bancos
+-- criados pelo V1.
+set @ddl = (select if(count(*) = 0,
+                      'alter table product add column version bigint not null default 0',
+                      'do 0')
+            from information_schema.columns
+            where table_schema = database() and table_name = 'product' and column_name = 'version');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+set @ddl = (select if(count(*) = 0,
+                      'alter table product add column updated_at datetime(6)',
+                      'do 0')
+            from information_schema.columns
+            where table_schema = database() and table_name = 'product' and column_name = 'updated_at');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
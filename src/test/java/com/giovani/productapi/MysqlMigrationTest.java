@@ -0,0 +1,101 @@
+package com.giovani.productapi;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Migrations do MySQL com a configuração do Flyway do perfil prod, contra o MySQL do CI e do
+ * docker-compose (root/root em localhost:3306; outro endereço em PRODUCTAPI_TEST_MYSQL_URL).
+ * Sem MySQL acessível os testes são ignorados.
+ */
+class MysqlMigrationTest {
+
+    private static final String SERVER = Objects.requireNonNullElse(System.getenv("PRODUCTAPI_TEST_MYSQL_URL"),
+            "jdbc:mysql://localhost:3306/");
+    private static final String OPTIONS = "?connectTimeout=2000&useSSL=false&allowPublicKeyRetrieval=true";
+
+    private JdbcTemplate server;
+    private JdbcTemplate database;
+    private String schema;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(SERVER + OPTIONS, "root", "root");
+        try (Connection ignored = dataSource.getConnection()) {
+            server = new JdbcTemplate(dataSource);
+        } catch (SQLException e) {
+            assumeTrue(false, "MySQL indisponível em " + SERVER + ": " + e.getMessage());
+        }
+        schema = "productapi_migration_" + UUID.randomUUID().toString().substring(0, 8);
+        server.execute("create database " + schema);
+        database = new JdbcTemplate(new DriverManagerDataSource(SERVER + schema + OPTIONS, "root", "root"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.execute("drop database if exists " + schema);
+        }
+    }
+
+    @Test
+    void migrate_OverTheSchemaCreatedByDdlAutoUpdate_ShouldUpgradeItInPlace() throws IOException {
+        // tabela como o ddl-auto=update criava a partir da entidade original (id IDENTITY)
+        database.execute("create table product (id bigint not null auto_increment, description varchar(255), "
+                + "image_url varchar(255), name varchar(255) not null, price decimal(38,2) not null, "
+                + "primary key (id)) engine=InnoDB");
+        database.update("insert into product (id, name, price) values (1, 'Mouse', 49.90), (75, 'Teclado', 199.00)");
+
+        flyway().migrate();
+
+        assertThat(column("version")).containsEntry("IS_NULLABLE", "NO").containsEntry("COLUMN_DEFAULT", "0");
+        assertThat(column("updated_at")).isNotNull();
+        assertThat(database.queryForList("select version from product", Long.class)).containsOnly(0L);
+        assertThat(database.queryForObject("select next_val from product_seq", Long.class)).isEqualTo(126L);
+        assertThat(database.queryForObject("select count(*) from information_schema.statistics where "
+                + "table_schema = database() and index_name = 'ftx_product_name_description'", Long.class)).isPositive();
+    }
+
+    @Test
+    void migrate_OnAnEmptySchema_ShouldCreateEverythingOnce() throws IOException {
+        Flyway flyway = flyway();
+
+        flyway.migrate();
+
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("7");
+        assertThat(column("version")).containsEntry("IS_NULLABLE", "NO");
+        assertThat(database.queryForObject("select next_val from product_seq", Long.class)).isEqualTo(51L);
+    }
+
+    private Flyway flyway() throws IOException {
+        Properties prod = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-prod.properties"));
+        return Flyway.configure()
+                .dataSource(SERVER + schema + OPTIONS, "root", "root")
+                .locations("classpath:db/migration/mysql")
+                .baselineOnMigrate(Boolean.parseBoolean(prod.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(prod.getProperty("spring.flyway.baseline-version", "1"))
+                .load();
+    }
+
+    private Map<String, Object> column(String name) {
+        return database.queryForMap("select is_nullable, column_default from information_schema.columns "
+                + "where table_schema = database() and table_name = 'product' and column_name = ?", name);
+    }
+}
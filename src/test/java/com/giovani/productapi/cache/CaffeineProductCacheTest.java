@@ -0,0 +1,121 @@
+package com.giovani.productapi.cache;
+
+import com.giovani.productapi.dto.CacheStatsResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineProductCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final CaffeineProductCache cache = new CaffeineProductCache(
+            new ProductCacheProperties("caffeine", 100, Duration.ofMinutes(5), 100, Duration.ofSeconds(30)), nanos::get);
+
+    @Test
+    void get_ShouldRecordHitsAndMisses() {
+        cache.put(product(1L));
+
+        assertThat(cache.get(1L)).isPresent();
+        assertThat(cache.get(2L)).isEmpty();
+
+        CacheStatsResponse stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void entries_ShouldExpireAfterTtl() {
+        cache.put(product(1L));
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    void cache_ShouldStayBoundedAndCountEvictions() {
+        LongStream.rangeClosed(1, 500).forEach(id -> cache.put(product(id)));
+
+        CacheStatsResponse stats = cache.stats();
+        assertThat(stats.getSize()).isLessThanOrEqualTo(100);
+        assertThat(stats.getEvictions()).isGreaterThanOrEqualTo(400);
+    }
+
+    @Test
+    void evict_ShouldRemoveEntries() {
+        cache.put(product(1L));
+        cache.put(product(2L));
+        cache.put(product(3L));
+
+        cache.evict(1L);
+        cache.evictAll(List.of(2L));
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.get(3L)).isPresent();
+    }
+
+    @Test
+    void missing_ShouldExpireAndBeClearedByPutOrEvict() {
+        cache.putMissing(1L, new ResourceNotFoundException("1"));
+        cache.putMissing(2L, new ResourceNotFoundException("2"));
+        cache.putMissing(3L, new ResourceNotFoundException("3"));
+
+        cache.put(product(1L));
+        cache.evict(2L);
+
+        assertThat(cache.getMissing(1L)).isEmpty();
+        assertThat(cache.getMissing(2L)).isEmpty();
+        assertThat(cache.getMissing(3L)).isPresent();
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThat(cache.getMissing(3L)).isEmpty();
+    }
+
+    @Test
+    void put_ShouldNotReplaceANewerVersion() {
+        cache.put(product(1L, 2L));
+
+        cache.put(product(1L, 1L));
+        assertThat(cache.get(1L)).get().extracting(ProductResponse::getVersion).isEqualTo(2L);
+
+        cache.put(product(1L, 3L));
+        assertThat(cache.get(1L)).get().extracting(ProductResponse::getVersion).isEqualTo(3L);
+    }
+
+    @Test
+    void evictDeleted_ShouldKeepInFlightLoadsFromBringingTheProductBack() {
+        cache.put(product(1L, 1L));
+
+        ResourceNotFoundException notFound = new ResourceNotFoundException("1");
+        cache.evictDeleted(1L, notFound);
+        cache.put(product(1L, 1L));
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.getMissing(1L)).containsSame(notFound);
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.put(product(1L, 1L));
+
+        assertThat(cache.get(1L)).isPresent();
+    }
+
+    private static ProductResponse product(long id) {
+        return ProductResponse.builder().id(id).name("P" + id).price(BigDecimal.ONE).build();
+    }
+
+    private static ProductResponse product(long id, long version) {
+        return ProductResponse.builder().id(id).name("P" + id).price(BigDecimal.ONE).version(version).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.giovani.productapi.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallers_ShouldShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "produto-1";
+        }));
+        waitUntilInFlight();
+
+        CountDownLatch started = new CountDownLatch(CALLERS - 1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> {
+                started.countDown();
+                return singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "outro";
+                });
+            }));
+        }
+        started.await(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("produto-1");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("produto-1");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void failures_ShouldReachWaitersAndNotBeRemembered() {
+        assertThatThrownBy(() -> singleFlight.execute(1L, () -> {
+            throw new IllegalStateException("banco fora");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute(1L, () -> "recuperado")).isEqualTo("recuperado");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeys_ShouldLoadIndependently() {
+        assertThat(singleFlight.execute(1L, () -> "a")).isEqualTo("a");
+        assertThat(singleFlight.execute(2L, () -> "b")).isEqualTo("b");
+    }
+
+    private void waitUntilInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
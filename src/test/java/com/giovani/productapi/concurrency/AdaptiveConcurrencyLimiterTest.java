@@ -0,0 +1,80 @@
+package com.giovani.productapi.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void limit_ShouldGrowWhileLatencyStaysAtTheBaselineUnderLoad() {
+        VegasLimit limit = new VegasLimit(10, 2, 100, 30);
+
+        for (int i = 0; i < 20; i++) {
+            limit.update(FAST, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limit_ShouldNotGrowWithoutDemand() {
+        VegasLimit limit = new VegasLimit(10, 2, 100, 30);
+
+        for (int i = 0; i < 20; i++) {
+            limit.update(FAST, 1, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void limit_ShouldShrinkWhenLatencyClimbsWithTheLimitInUse() {
+        VegasLimit limit = new VegasLimit(40, 2, 100, 30);
+        limit.update(FAST, 40, false);
+
+        for (int i = 0; i < 60; i++) {
+            limit.update(SLOW, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isBetween(2, 6);
+    }
+
+    @Test
+    void limit_ShouldBackOffOnFailuresDownToTheFloor() {
+        VegasLimit limit = new VegasLimit(20, 4, 100, 30);
+
+        limit.update(FAST, 20, true);
+        assertThat(limit.limit()).isEqualTo(18);
+
+        for (int i = 0; i < 50; i++) {
+            limit.update(FAST, 20, true);
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectAboveTheLimitAndReleaseOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("read",
+                new ConcurrencyLimitProperties.Limit(2, 2, 2), 30);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(limiter.rejected()).isEqualTo(1);
+
+        first.release(false);
+        first.release(false);
+        second.ignore();
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+}
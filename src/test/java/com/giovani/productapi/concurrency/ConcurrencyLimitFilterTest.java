@@ -0,0 +1,114 @@
+package com.giovani.productapi.concurrency;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.idempotency.IdempotencyFilter;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "productapi.concurrency.reads.initial=1", "productapi.concurrency.reads.min=1",
+        "productapi.concurrency.reads.max=1",
+        "productapi.concurrency.writes.initial=1", "productapi.concurrency.writes.min=1",
+        "productapi.concurrency.writes.max=1",
+        "productapi.concurrency.retry-after=2s"})
+@AutoConfigureMockMvc
+class ConcurrencyLimitFilterTest {
+
+    private static final String BODY = "{\"name\":\"Notebook\",\"price\":4500}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    @Qualifier("readConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter reads;
+
+    @Autowired
+    @Qualifier("writeConcurrencyLimiter")
+    private AdaptiveConcurrencyLimiter writes;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void reads_WithoutPermit_ShouldBeRejectedFastWhileWritesKeepTheirBudget() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit held = reads.tryAcquire();
+
+        mockMvc.perform(get("/api/v1/products/999"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.message").value("Serviço sobrecarregado. Tente novamente em instantes."));
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated());
+
+        held.ignore();
+        mockMvc.perform(get("/api/v1/products/999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void writes_WithoutPermit_ShouldBeRejectedWhileReadsAndOtherRoutesPass() throws Exception {
+        Product product = repository.save(Product.builder().name("Mouse").price(new BigDecimal("49.90")).build());
+        AdaptiveConcurrencyLimiter.Permit held = writes.tryAcquire();
+        try {
+            mockMvc.perform(put("/api/v1/products/" + product.getId())
+                            .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+            mockMvc.perform(get("/api/v1/products/" + product.getId()))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/v1/products/search").param("q", "Mouse"))
+                    .andExpect(status().isOk());
+        } finally {
+            held.ignore();
+        }
+    }
+
+    @Test
+    void idempotentReplay_ShouldNotNeedAWritePermit() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated());
+        AdaptiveConcurrencyLimiter.Permit held = writes.tryAcquire();
+        try {
+            // a repetição é respondida pelo filtro de idempotência, antes do limite de escritas
+            mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, key)
+                            .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", "true"));
+            mockMvc.perform(post("/api/v1/products").header(IdempotencyFilter.HEADER, UUID.randomUUID().toString())
+                            .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            held.ignore();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.giovani.productapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private DataSource target;
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_ShouldFailWhenAllPermitsAreInUse() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(dataSource.availablePermits()).isZero();
+    }
+
+    @Test
+    void close_ShouldReleasePermitOnceAndCloseTarget() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+        assertThat(dataSource.availablePermits()).isZero();
+    }
+
+    @Test
+    void getConnection_ShouldReleasePermitWhenTargetFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("sem rede"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("sem rede");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void closedConnection_ShouldDelegateToTarget() throws SQLException {
+        Connection target = mock(Connection.class);
+        when(this.target.getConnection()).thenReturn(target);
+
+        dataSource.getConnection().close();
+
+        verify(target).close();
+    }
+}
@@ -0,0 +1,231 @@
+package com.giovani.productapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ImageControllerTest {
+
+    private static final Path IMAGES;
+
+    static {
+        try {
+            IMAGES = Files.createTempDirectory("productapi-images");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // PNG com ruído: não comprime, então passa do tamanho mínimo do sendfile
+    private static final byte[] PNG = png(300, 200, 42);
+
+    @DynamicPropertySource
+    static void images(DynamicPropertyRegistry registry) {
+        registry.add("productapi.images.local-root", IMAGES::toString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void rawUpload_ShouldSetImageUrlAndServeTheSameBytes() throws Exception {
+        ProductResponse product = productService.create(request("Notebook"));
+
+        HttpResponse<String> upload = send(put(product.getId(), "image/png", PNG));
+
+        assertThat(upload.statusCode()).isEqualTo(200);
+        assertThat(upload.headers().firstValue("ETag")).hasValue("\"1\"");
+        String imageUrl = objectMapper.readValue(upload.body(), ProductResponse.class).getImageUrl();
+        assertThat(imageUrl).matches("/api/v1/images/[0-9a-f]{64}\\.png");
+        assertThat(productService.findById(product.getId()).getImageUrl()).isEqualTo(imageUrl);
+
+        HttpResponse<byte[]> download = http.send(get(imageUrl).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(download.statusCode()).isEqualTo(200);
+        assertThat(download.body()).isEqualTo(PNG);
+        assertThat(download.headers().firstValue("Content-Type")).hasValue("image/png");
+        assertThat(download.headers().firstValue("Content-Length")).hasValue(String.valueOf(PNG.length));
+        assertThat(download.headers().firstValue("Cache-Control").orElseThrow()).contains("immutable");
+    }
+
+    @Test
+    void multipartUpload_OfSameContent_ShouldReuseTheStoredImage() throws Exception {
+        ProductResponse first = productService.create(request("Notebook"));
+        ProductResponse second = productService.create(request("Notebook 2"));
+        String boundary = "imagem-" + System.nanoTime();
+
+        HttpResponse<String> raw = send(put(first.getId(), "image/png", PNG));
+        HttpResponse<String> multipart = send(put(second.getId(), "multipart/form-data; boundary=" + boundary,
+                multipart(boundary, PNG)));
+
+        assertThat(multipart.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readValue(multipart.body(), ProductResponse.class).getImageUrl())
+                .isEqualTo(objectMapper.readValue(raw.body(), ProductResponse.class).getImageUrl());
+        try (var files = Files.walk(IMAGES)) {
+            assertThat(files.filter(file -> file.getFileName().toString().endsWith(".png"))).hasSize(1);
+        }
+    }
+
+    @Test
+    void range_ShouldReturnOnlyTheRequestedBytes() throws Exception {
+        String imageUrl = upload();
+
+        HttpResponse<byte[]> partial = http.send(get(imageUrl).header("Range", "bytes=100-199").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(partial.statusCode()).isEqualTo(206);
+        assertThat(partial.headers().firstValue("Content-Range")).hasValue("bytes 100-199/" + PNG.length);
+        assertThat(partial.body()).isEqualTo(Arrays.copyOfRange(PNG, 100, 200));
+    }
+
+    @Test
+    void ifNoneMatch_ShouldReturnNotModified() throws Exception {
+        String imageUrl = upload();
+        String etag = http.send(get(imageUrl).build(), HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> cached = http.send(get(imageUrl).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(cached.statusCode()).isEqualTo(304);
+        assertThat(cached.body()).isEmpty();
+    }
+
+    @Test
+    void thumbnail_ShouldBeGeneratedInBackground() throws Exception {
+        String imageUrl = upload();
+        String thumbnailUrl = imageUrl.replace(".png", "-thumb.jpg");
+
+        HttpResponse<byte[]> thumbnail = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            thumbnail = http.send(get(thumbnailUrl).build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (thumbnail.statusCode() == 200) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertThat(thumbnail.statusCode()).isEqualTo(200);
+        assertThat(thumbnail.headers().firstValue("Content-Type")).hasValue("image/jpeg");
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.body()));
+        assertThat(Math.max(image.getWidth(), image.getHeight())).isEqualTo(256);
+    }
+
+    @Test
+    void upload_ShouldRejectUnsupportedContentAndUnknownProduct() throws Exception {
+        ProductResponse product = productService.create(request("Notebook"));
+
+        assertThat(send(put(product.getId(), "image/png", "não é imagem".getBytes(StandardCharsets.UTF_8))).statusCode())
+                .isEqualTo(400);
+        assertThat(send(put(product.getId(), "image/png", new byte[0])).statusCode()).isEqualTo(400);
+        assertThat(send(put(product.getId() + 1000, "image/png", PNG)).statusCode()).isEqualTo(404);
+        assertThat(productService.findById(product.getId()).getImageUrl()).isNull();
+    }
+
+    @Test
+    void download_ShouldReturnNotFoundForUnknownOrInvalidNames() throws Exception {
+        String missing = "/api/v1/images/" + "0".repeat(64) + ".png";
+
+        assertThat(http.send(get(missing).build(), HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(404);
+        assertThat(http.send(get("/api/v1/images/..%2Fsecret.png").build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode()).isIn(400, 404);
+    }
+
+    private String upload() throws Exception {
+        ProductResponse product = productService.create(request("Notebook"));
+        return objectMapper.readValue(send(put(product.getId(), "image/png", PNG)).body(), ProductResponse.class)
+                .getImageUrl();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest put(Long productId, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/products/" + productId + "/image"))
+                .header("Content-Type", contentType)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    private static byte[] multipart(String boundary, byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"foto.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static byte[] png(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ProductRequest request(String name) {
+        return ProductRequest.builder().name(name).price(new BigDecimal("10")).build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.giovani.productapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ImportJobResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "productapi.imports.chunk-size=2",
+        "productapi.imports.in-flight-chunks=2",
+        "productapi.imports.poll-interval=100ms"})
+@AutoConfigureMockMvc
+class ImportControllerTest {
+
+    private static final Path IMPORTS;
+
+    static {
+        try {
+            IMPORTS = Files.createTempDirectory("productapi-imports");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void imports(DynamicPropertyRegistry registry) {
+        registry.add("productapi.imports.directory", IMPORTS::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        jdbcTemplate.update("delete from import_job_error");
+        jdbcTemplate.update("delete from import_job");
+    }
+
+    @Test
+    void csvImport_ShouldUpsertInTheBackgroundAndReportErrorsByLine() throws Exception {
+        Product existing = repository.save(Product.builder().name("Antigo").price(new BigDecimal("1.00")).build());
+        String csv = "id,name,description,price\n"
+                + ",Mouse,\"Sem fio, USB\",49.90\n"
+                + existing.getId() + ",Teclado,,199.00\n"
+                + ",,sem nome,10\n"
+                + ",Monitor,,-1\n"
+                + ",Cabo,,9.90\n";
+
+        MvcResult submitted = mockMvc.perform(post("/api/v1/imports")
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn();
+        String location = submitted.getResponse().getHeader(HttpHeaders.LOCATION);
+
+        ImportJobResponse job = awaitFinished(location);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getCreated()).isEqualTo(2);
+        assertThat(job.getUpdated()).isEqualTo(1);
+        assertThat(job.getFailed()).isEqualTo(2);
+        assertThat(job.getLinesProcessed()).isEqualTo(6);
+        assertThat(job.getProgress()).isEqualTo(100.0);
+        assertThat(repository.findById(existing.getId())).get()
+                .extracting(Product::getName).isEqualTo("Teclado");
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(IMPORTS.resolve(job.getId() + ".csv")).doesNotExist();
+
+        JsonNode firstPage = json(location + "/errors?size=1");
+        assertThat(firstPage.get("content").get(0).get("line").asLong()).isEqualTo(4);
+        assertThat(firstPage.get("content").get(0).get("message").asText()).startsWith("name:");
+        JsonNode secondPage = json(location + "/errors?size=1&after=" + firstPage.get("next").asText());
+        assertThat(secondPage.get("content").get(0).get("line").asLong()).isEqualTo(5);
+        assertThat(secondPage.get("next").isNull()).isTrue();
+    }
+
+    @Test
+    void abandonedJob_ShouldResumeAfterTheLastCommittedChunk() throws Exception {
+        // instância que caiu depois de gravar os dois primeiros registros (linhas 1 e 2)
+        String committed = """
+                {"name":"A","price":1}
+                {"name":"B","price":2}
+                """;
+        String ndjson = committed + """
+                {"name":"C","price":3}
+                {"name":"D","price":4}
+                {"name":"E","price":5}
+                """;
+        String id = UUID.randomUUID().toString();
+        Path file = Files.writeString(IMPORTS.resolve(id + ".ndjson"), ndjson);
+        Timestamp past = Timestamp.from(Instant.now().minusSeconds(600));
+        jdbcTemplate.update("insert into import_job (id, status, format, file_path, file_size, committed_offset, "
+                        + "committed_line, created_count, updated_count, failed_count, owner, lease_until, created_at, "
+                        + "started_at) values (?, 'RUNNING', 'NDJSON', ?, ?, ?, 2, 2, 0, 0, ?, ?, ?, ?)",
+                id, file.toString(), Files.size(file), committed.getBytes(StandardCharsets.UTF_8).length,
+                UUID.randomUUID().toString(), past, past, past);
+
+        ImportJobResponse job = awaitFinished("/api/v1/imports/" + id);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getCreated()).isEqualTo(5);
+        assertThat(job.getLinesProcessed()).isEqualTo(5);
+        assertThat(repository.findAll()).extracting(Product::getName).containsExactlyInAnyOrder("C", "D", "E");
+    }
+
+    @Test
+    void submit_WithEmptyBodyOrUnknownJob_ShouldFailFast() throws Exception {
+        mockMvc.perform(post("/api/v1/imports").contentType("application/x-ndjson").content(new byte[0]))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/imports/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImportJobResponse awaitFinished(String location) throws Exception {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (true) {
+            ImportJobResponse job = objectMapper.treeToValue(json(location), ImportJobResponse.class);
+            if (job.getStatus().equals("COMPLETED") || job.getStatus().equals("FAILED")
+                    || System.nanoTime() > deadline) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private JsonNode json(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
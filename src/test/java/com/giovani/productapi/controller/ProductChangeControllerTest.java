@@ -0,0 +1,154 @@
+package com.giovani.productapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductChangeResponse;
+import com.giovani.productapi.dto.ProductPatchRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductBatchService;
+import com.giovani.productapi.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "productapi.changes.poll-interval=100ms",
+        "productapi.changes.heartbeat=200ms",
+        "productapi.changes.batch-size=2"
+})
+class ProductChangeControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        start = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from product_change", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void ndjson_ShouldStreamWritesInOrderAndSkipRolledBackOnes() throws Exception {
+        ProductResponse created = productService.create(request("Notebook", "4500"));
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setPrice(BigDecimal.valueOf(3999));
+        productService.patch(created.getId(), patch, 0L);
+        assertThatThrownBy(() -> productService.delete(created.getId(), 0L))
+                .isInstanceOf(PreconditionFailedException.class);
+        productService.delete(created.getId(), 1L);
+
+        List<String> lines = readLines("/api/v1/products/changes?after=" + start, "application/x-ndjson", null, 4);
+
+        List<ProductChangeResponse> changes = new ArrayList<>();
+        for (String line : lines.subList(0, 3)) {
+            changes.add(objectMapper.readValue(line, ProductChangeResponse.class));
+        }
+        assertThat(changes).extracting(ProductChangeResponse::getType).containsExactly(
+                ProductChangedEvent.Type.CREATED, ProductChangedEvent.Type.UPDATED, ProductChangedEvent.Type.DELETED);
+        assertThat(changes).extracting(ProductChangeResponse::getVersion).containsExactly(0L, 1L, null);
+        assertThat(changes.get(1).getProduct().getPrice()).isEqualByComparingTo("3999");
+        assertThat(changes.get(2).getProduct()).isNull();
+        assertThat(changes).extracting(ProductChangeResponse::getOffset).isSorted();
+        // sem mais mudanças: heartbeat (linha em branco)
+        assertThat(lines.get(3)).isEmpty();
+    }
+
+    @Test
+    void sse_ShouldResumeFromLastEventId() throws Exception {
+        batchService.create(List.of(request("A", "1"), request("B", "2"), request("C", "3")));
+        long second = start + 2;
+
+        List<String> lines = readLines("/api/v1/products/changes", "text/event-stream", String.valueOf(second), 3);
+
+        assertThat(lines.get(0)).isEqualTo("id:" + (start + 3));
+        assertThat(lines.get(1)).isEqualTo("event:change");
+        assertThat(objectMapper.readValue(lines.get(2).substring("data:".length()), ProductChangeResponse.class)
+                .getProduct().getName()).isEqualTo("C");
+    }
+
+    @Test
+    void ndjson_FromAPrunedOffset_ShouldAnswerGone() throws Exception {
+        batchService.create(List.of(request("A", "1"), request("B", "2"), request("C", "3")));
+        jdbcTemplate.update("delete from product_change where id <= ?", start + 2);
+
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/products/changes?after=" + (start + 1)))
+                .header("Accept", "application/x-ndjson")
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(410);
+        assertThat(readLines("/api/v1/products/changes?after=" + (start + 2), "application/x-ndjson", null, 1))
+                .hasSize(1);
+    }
+
+    private List<String> readLines(String path, String accept, String lastEventId, int count) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept)
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while (lines.size() < count && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static ProductRequest request(String name, String price) {
+        return ProductRequest.builder().name(name).price(new BigDecimal(price)).build();
+    }
+}
@@ -1,20 +1,35 @@
 package com.giovani.productapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.MultiGetResponse;
+import com.giovani.productapi.dto.PageResponse;
 import com.giovani.productapi.dto.ProductRequest;
 import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
 import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.export.ExportFormat;
+import com.giovani.productapi.export.ProductExportService;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductVersion;
 import com.giovani.productapi.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +43,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService service;
 
+    @MockBean
+    private ProductExportService exportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -92,11 +110,126 @@ class ProductControllerTest {
                         .build()
         );
 
-        when(service.findAll()).thenReturn(products);
+        when(service.findAll(any(Pageable.class))).thenReturn(PageResponse.<ProductResponse>builder()
+                .content(products)
+                .page(0)
+                .size(20)
+                .totalElements(2)
+                .totalPages(1)
+                .build());
 
         mockMvc.perform(get("/api/v1/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void testGetAllProducts_PageSizeIsCapped() throws Exception {
+        when(service.findAll(any(Pageable.class))).thenReturn(new PageResponse<>(List.of(), 0, 100, 0, 0));
+
+        mockMvc.perform(get("/api/v1/products").param("size", "5000"))
+                .andExpect(status().isOk());
+
+        verify(service).findAll(argThat((Pageable p) -> p.getPageSize() == 100));
+    }
+
+    @Test
+    void testGetProductsByCursor() throws Exception {
+        when(service.findAll(isNull(), eq(10), eq(ProductSortField.PRICE)))
+                .thenReturn(CursorPageResponse.<ProductResponse>builder()
+                        .content(List.of(ProductResponse.builder().id(1L).name("A").price(BigDecimal.ONE).build()))
+                        .size(10)
+                        .next("abc")
+                        .build());
+
+        mockMvc.perform(get("/api/v1/products/cursor").param("size", "10").param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.next").value("abc"));
+    }
+
+    @Test
+    void testGetProductsByCursor_InvalidSortField() throws Exception {
+        mockMvc.perform(get("/api/v1/products/cursor").param("sortBy", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Campo de ordenação inválido: description"));
+    }
+
+    @Test
+    void testSearchProducts() throws Exception {
+        when(service.search(any(), any(Pageable.class))).thenReturn(new PageResponse<>(List.of(
+                ProductResponse.builder().id(1L).name("Café").price(BigDecimal.TEN).build()), 0, 20, 1, 1));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "cafe")
+                        .param("minPrice", "5")
+                        .param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Café"));
+
+        verify(service).search(argThat(c -> c.query().equals("cafe") && c.minPrice().intValue() == 5 && c.maxPrice() == null),
+                argThat((Pageable p) -> p.getSort().getOrderFor("price").isDescending()));
+    }
+
+    @Test
+    void testSearchProducts_InvalidPriceRange() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("minPrice", "10").param("maxPrice", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minPrice não pode ser maior que maxPrice"));
+    }
+
+    @Test
+    void testGetProductsByIds() throws Exception {
+        when(service.findAllById(List.of(1L, 2L, 3L))).thenReturn(MultiGetResponse.builder()
+                .products(List.of(ProductResponse.builder().id(1L).name("A").price(BigDecimal.ONE).build()))
+                .missing(List.of(2L, 3L))
+                .build());
+
+        mockMvc.perform(get("/api/v1/products").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(1))
+                .andExpect(jsonPath("$.missing.length()").value(2));
+
+        verify(service, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testLookupProducts() throws Exception {
+        when(service.findAllById(List.of(5L, 6L))).thenReturn(MultiGetResponse.builder()
+                .products(List.of())
+                .missing(List.of(5L, 6L))
+                .build());
+
+        mockMvc.perform(post("/api/v1/products/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[5,6]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missing[0]").value(5));
+    }
+
+    @Test
+    void testExportProducts() throws Exception {
+        when(exportService.export(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id,name\n1,A\n".getBytes());
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""))
+                .andExpect(content().string("id,name\n1,A\n"));
+    }
+
+    @Test
+    void testExportProducts_InvalidFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -126,6 +259,108 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.message").value("Produto não encontrado"));
     }
 
+    @Test
+    void testGetProductById_RepeatedNotFound_ShouldStampEachResponse() throws Exception {
+        ResourceNotFoundException remembered = new ResourceNotFoundException("Produto não encontrado");
+        when(service.findById(99L)).thenThrow(remembered);
+
+        String first = mockMvc.perform(get("/api/v1/products/99"))
+                .andReturn().getResponse().getContentAsString();
+        Thread.sleep(5);
+        String second = mockMvc.perform(get("/api/v1/products/99"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(LocalDateTime.parse(objectMapper.readTree(second).get("timestamp").asText()))
+                .isAfter(LocalDateTime.parse(objectMapper.readTree(first).get("timestamp").asText()));
+    }
+
+    @Test
+    void testGetProductById_ShouldSendETagAndLastModified() throws Exception {
+        when(service.findById(1L)).thenReturn(ProductResponse.builder()
+                .id(1L)
+                .name("Produto A")
+                .price(BigDecimal.TEN)
+                .version(4L)
+                .updatedAt(Instant.parse("2025-05-07T20:30:46Z"))
+                .build());
+
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(header().string("Last-Modified", "Wed, 07 May 2025 20:30:46 GMT"));
+    }
+
+    @Test
+    void testGetProductById_IfNoneMatch_ShouldReturnNotModifiedWithoutLoadingTheProduct() throws Exception {
+        when(service.findVersion(1L)).thenReturn(new ProductVersion(4L, Instant.parse("2025-05-07T20:30:46Z")));
+
+        mockMvc.perform(get("/api/v1/products/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, never()).findById(any());
+    }
+
+    @Test
+    void testUpdateProduct_IfMatchMismatch_ShouldReturnPreconditionFailed() throws Exception {
+        ProductRequest update = ProductRequest.builder()
+                .name("Teste")
+                .price(BigDecimal.TEN)
+                .build();
+
+        when(service.update(eq(1L), any(), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Versão do produto 1 não confere (atual: 3)"));
+
+        mockMvc.perform(put("/api/v1/products/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Versão do produto 1 não confere (atual: 3)"));
+    }
+
+    @Test
+    void testPatchProduct_ShouldPassOnlyTheSentFields() throws Exception {
+        ProductResponse patched = ProductResponse.builder()
+                .id(1L)
+                .name("Notebook")
+                .price(BigDecimal.valueOf(3999))
+                .version(4L)
+                .build();
+
+        when(service.patch(eq(1L), any(), eq(3L))).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/v1/products/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 3999, \"description\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.price").value(3999));
+
+        verify(service).patch(eq(1L), argThat(request -> request.getChanges().keySet().equals(Set.of("price", "description"))
+                && request.getChanges().get("description") == null), eq(3L));
+    }
+
+    @Test
+    void testPatchProduct_MalformedBody_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Corpo da requisição inválido"));
+
+        verify(service, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    void testDeleteProduct_WithIfMatch_ShouldPassVersion() throws Exception {
+        mockMvc.perform(delete("/api/v1/products/1").header("If-Match", "\"7\""))
+                .andExpect(status().isNoContent());
+
+        verify(service).delete(1L, 7L);
+    }
+
     @Test
     void testUpdateProduct() throws Exception {
         ProductRequest update = ProductRequest.builder()
@@ -142,7 +377,7 @@ class ProductControllerTest {
                 .imageUrl("nova.png")
                 .build();
 
-        when(service.update(eq(1L), any())).thenReturn(updated);
+        when(service.update(eq(1L), any(), isNull())).thenReturn(updated);
 
         mockMvc.perform(put("/api/v1/products/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -160,7 +395,7 @@ class ProductControllerTest {
                 .price(BigDecimal.TEN)
                 .build();
 
-        when(service.update(eq(123L), any())).thenThrow(new ResourceNotFoundException("Produto não encontrado"));
+        when(service.update(eq(123L), any(), isNull())).thenThrow(new ResourceNotFoundException("Produto não encontrado"));
 
         mockMvc.perform(put("/api/v1/products/123")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -171,7 +406,7 @@ class ProductControllerTest {
 
     @Test
     void testDeleteProduct() throws Exception {
-        doNothing().when(service).delete(1L);
+        doNothing().when(service).delete(1L, null);
 
         mockMvc.perform(delete("/api/v1/products/1"))
                 .andExpect(status().isNoContent());
@@ -180,7 +415,7 @@ class ProductControllerTest {
     @Test
     void testDeleteProduct_NotFound() throws Exception {
         doThrow(new ResourceNotFoundException("Produto não encontrado"))
-                .when(service).delete(99L);
+                .when(service).delete(99L, null);
 
         mockMvc.perform(delete("/api/v1/products/99"))
                 .andExpect(status().isNotFound())
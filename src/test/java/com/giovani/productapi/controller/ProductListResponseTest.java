@@ -0,0 +1,90 @@
+package com.giovani.productapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listas pela rede: {@code fields=} e compressão gzip do Tomcat.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ProductListResponseTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        batchService.create(IntStream.range(0, 50)
+                .mapToObj(i -> ProductRequest.builder()
+                        .name("Produto " + i)
+                        .description("Descrição longa do produto " + i + " para a resposta completa")
+                        .price(BigDecimal.valueOf(i + 1))
+                        .build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void fields_ShouldSerializeOnlyRequestedFields() throws Exception {
+        HttpResponse<String> response = http.send(get("/api/v1/products?size=50&fields=name,price").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("ETag")).isPresent();
+        JsonNode content = objectMapper.readTree(response.body()).get("content");
+        assertThat(content).hasSize(50);
+        content.forEach(product -> assertThat(product.fieldNames()).toIterable().containsExactly("id", "name", "price"));
+    }
+
+    @Test
+    void largeList_ShouldBeGzippedWhenTheClientAcceptsIt() throws Exception {
+        HttpResponse<InputStream> response = http.send(get("/api/v1/products?size=50")
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofInputStream());
+
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            assertThat(objectMapper.readTree(body).get("content")).hasSize(50);
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
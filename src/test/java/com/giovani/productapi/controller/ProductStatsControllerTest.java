@@ -0,0 +1,109 @@
+package com.giovani.productapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductBatchUpdateRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.dto.ProductStatsResponse;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductBatchService;
+import com.giovani.productapi.service.ProductService;
+import com.giovani.productapi.stats.ProductStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductStatistics statistics;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        statistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void writes_ShouldKeepStatsEqualToTheDatabase() throws Exception {
+        ProductResponse mouse = productService.create(request("Mouse", "49.90"));
+        ProductResponse keyboard = productService.create(request("Teclado", "199.00"));
+        ProductResponse monitor = productService.create(request("Monitor", "1299.00"));
+        batchService.create(List.of(request("Cabo", "9.90"), request("Hub", "89.90")));
+
+        productService.update(keyboard.getId(), request("Teclado", "249.00"), null);
+        batchService.update(List.of(ProductBatchUpdateRequest.builder()
+                .id(mouse.getId()).name("Mouse").price(new BigDecimal("59.90")).build()));
+        productService.delete(monitor.getId(), null);
+
+        ProductStatsResponse incremental = stats();
+        assertThat(incremental.getCount()).isEqualTo(4);
+        assertThat(incremental.getMinPrice()).isEqualByComparingTo("9.90");
+        assertThat(incremental.getMaxPrice()).isEqualByComparingTo("249.00");
+        assertThat(incremental.getAveragePrice()).isEqualByComparingTo("102.18");
+
+        statistics.reconcile();
+        ProductStatsResponse reconciled = stats();
+        assertThat(reconciled.getCount()).isEqualTo(incremental.getCount());
+        assertThat(reconciled.getAveragePrice()).isEqualByComparingTo(incremental.getAveragePrice());
+        assertThat(reconciled.getHistogram()).usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(incremental.getHistogram());
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotChangeStats() throws Exception {
+        ProductResponse mouse = productService.create(request("Mouse", "49.90"));
+
+        assertThat(batchService.update(List.of(ProductBatchUpdateRequest.builder()
+                .id(mouse.getId()).name("x".repeat(300)).price(new BigDecimal("999")).build()))
+                .getResults().get(0).isSuccess()).isFalse();
+
+        assertThat(stats().getMaxPrice()).isEqualByComparingTo("49.90");
+    }
+
+    private ProductStatsResponse stats() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/v1/products/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readValue(body, ProductStatsResponse.class);
+    }
+
+    private static ProductRequest request(String name, String price) {
+        return ProductRequest.builder().name(name).price(new BigDecimal(price)).build();
+    }
+}
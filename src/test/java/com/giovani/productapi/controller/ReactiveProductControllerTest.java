@@ -0,0 +1,168 @@
+package com.giovani.productapi.controller;
+
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles({"test", "reactive"})
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa",
+        "spring.flyway.password="
+})
+@AutoConfigureWebTestClient
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private DatabaseClient db;
+
+    @BeforeEach
+    void setUp() {
+        db.sql("delete from product").fetch().rowsUpdated().block();
+    }
+
+    @Test
+    void createAndFindById_ShouldReturnEtagAndHonorIfNoneMatch() {
+        ProductResponse created = create("Notebook", 4500);
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getVersion()).isZero();
+
+        client.get().uri("/api/v1/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Notebook");
+
+        client.get().uri("/api/v1/products/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void findById_ShouldReturn404WhenMissing() {
+        client.get().uri("/api/v1/products/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Produto não encontrado com ID: 999999");
+    }
+
+    @Test
+    void create_ShouldReturn400WithFieldErrors() {
+        client.post().uri("/api/v1/products")
+                .bodyValue(ProductRequest.builder().name("").price(BigDecimal.ZERO).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.name").exists()
+                .jsonPath("$.errors.price").exists();
+    }
+
+    @Test
+    void findAll_ShouldPageAndSort() {
+        for (int i = 1; i <= 5; i++) {
+            create("Produto " + i, i * 10);
+        }
+
+        client.get().uri("/api/v1/products?page=0&size=2&sort=price,desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].price").isEqualTo(50)
+                .jsonPath("$.totalElements").isEqualTo(5)
+                .jsonPath("$.totalPages").isEqualTo(3);
+
+        client.get().uri("/api/v1/products?sort=color")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void stream_ShouldEmitWholeCatalogueOnDemand() {
+        for (int i = 1; i <= 30; i++) {
+            create("Produto " + i, i);
+        }
+
+        Flux<ProductResponse> body = client.get().uri("/api/v1/products")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(body, 10)
+                .expectNextCount(10)
+                .thenRequest(20)
+                .expectNextCount(20)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateAndDelete_ShouldUseIfMatchInSingleStatement() {
+        ProductResponse created = create("Notebook", 4500);
+        ProductRequest changes = ProductRequest.builder().name("Notebook Pro").price(BigDecimal.valueOf(5000)).build();
+
+        client.put().uri("/api/v1/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.put().uri("/api/v1/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Notebook Pro");
+
+        client.delete().uri("/api/v1/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.delete().uri("/api/v1/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.delete().uri("/api/v1/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private ProductResponse create(String name, int price) {
+        return client.post().uri("/api/v1/products")
+                .bodyValue(ProductRequest.builder().name(name).price(BigDecimal.valueOf(price)).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
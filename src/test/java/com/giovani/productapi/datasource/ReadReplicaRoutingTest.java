@@ -0,0 +1,155 @@
+package com.giovani.productapi.datasource;
+
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primário e réplica são dois bancos H2 independentes: o que só existe num deles mostra de onde
+ * a leitura veio.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "productapi.cache.type=none",
+        "productapi.datasource.replica.enabled=true",
+        "productapi.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "productapi.datasource.replica.username=sa",
+        "productapi.datasource.replica.password=",
+        "productapi.datasource.replica.lag-query=select seconds from replica_lag",
+        "productapi.datasource.replica.max-lag=2s",
+        "productapi.datasource.replica.lag-check-interval=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // a réplica não é migrada pela aplicação (em produção o esquema chega pela replicação)
+        DriverManagerDataSource replicaAdmin = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replicaAdmin).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(replicaAdmin);
+        replica.execute("create table if not exists replica_lag(seconds bigint)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag values (0)");
+        replica.update("delete from product");
+        replica.update("insert into product (id, name, price, version) values (900001, 'Só na réplica', 1, 0)");
+        lagMonitor.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        repository.deleteAll();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldReadFromReplicaWhileWritesGoToPrimary() {
+        productService.create(ProductRequest.builder().name("Só no primário").price(BigDecimal.TEN).build());
+
+        assertThat(productService.findAll(PageRequest.of(0, 10)).getContent())
+                .extracting("name").containsExactly("Só na réplica");
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupsById_OnCacheMiss_ShouldFillTheCacheFromPrimary() throws Exception {
+        Long id = repository.save(Product.builder().name("Novo no primário").price(BigDecimal.TEN).build()).getId();
+        replica.update("insert into product (id, name, price, version) values (?, 'Atrasado na réplica', 1, 7)", id);
+
+        assertThat(productService.findById(id).getName()).isEqualTo("Novo no primário");
+        assertThat(productService.findAllById(List.of(id)).getProducts())
+                .extracting("name").containsExactly("Novo no primário");
+        assertThatThrownBy(() -> productService.findById(900001L)).isInstanceOf(ResourceNotFoundException.class);
+
+        mockMvc.perform(get("/api/v1/products/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Novo no primário"));
+    }
+
+    @Test
+    void versionLookup_ShouldReadFromReplicaButConfirmA404OnPrimary() {
+        Long id = repository.save(Product.builder().name("Só no primário").price(BigDecimal.TEN).build()).getId();
+
+        assertThat(productService.findVersion(900001L).version()).isZero();
+        assertThat(productService.findVersion(id).version()).isZero();
+        assertThatThrownBy(() -> productService.findVersion(-1L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void replicaLagAboveLimit_ShouldFallBackToPrimary() {
+        productService.create(ProductRequest.builder().name("Só no primário").price(BigDecimal.TEN).build());
+        replica.update("update replica_lag set seconds = 10");
+        lagMonitor.refresh();
+
+        assertThat(lagMonitor.isHealthy()).isFalse();
+        assertThat(productService.findAll(PageRequest.of(0, 10)).getContent())
+                .extracting("name").containsExactly("Só no primário");
+    }
+
+    @Test
+    void stickyThread_ShouldReadItsOwnWritesFromPrimary() {
+        productService.create(ProductRequest.builder().name("Só no primário").price(BigDecimal.TEN).build());
+        ReadYourWrites.stickToPrimary();
+
+        assertThat(productService.findAll(PageRequest.of(0, 10)).getContent())
+                .extracting("name").containsExactly("Só no primário");
+    }
+
+    @Test
+    void writeResponseCookie_ShouldPinNextReadsToPrimary() throws Exception {
+        Cookie pin = mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Só no primário\", \"price\": 10}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(jsonPath("$.content[0].name").value("Só na réplica"));
+        mockMvc.perform(get("/api/v1/products").cookie(pin))
+                .andExpect(jsonPath("$.content[0].name").value("Só no primário"));
+    }
+}
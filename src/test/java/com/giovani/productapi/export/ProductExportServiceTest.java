@@ -0,0 +1,67 @@
+package com.giovani.productapi.export;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                Product.builder().name("Notebook").description("Dell, XPS \"13\"").price(new BigDecimal("4500.00")).build(),
+                Product.builder().name("Mouse").price(new BigDecimal("99.90")).build()
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.export(ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{").contains("\"name\":\"Notebook\"");
+        assertThat(lines.get(1)).contains("\"name\":\"Mouse\"");
+    }
+
+    @Test
+    void exportCsv_ShouldEscapeFieldsAndWriteHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exportService.export(ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(written).isEqualTo(2);
+        assertThat(lines.get(0)).isEqualTo("id,name,description,price,imageUrl");
+        assertThat(lines.get(1)).endsWith(",Notebook,\"Dell, XPS \"\"13\"\"\",4500.00,");
+        assertThat(lines.get(2)).endsWith(",Mouse,,99.90,");
+    }
+}
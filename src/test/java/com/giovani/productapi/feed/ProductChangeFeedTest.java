@@ -0,0 +1,95 @@
+package com.giovani.productapi.feed;
+
+import com.giovani.productapi.dto.ProductChangeResponse;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.GoneException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductChangeFeedTest {
+
+    private final ProductChangeLog changeLog = mock(ProductChangeLog.class);
+    private ProductChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ProductChangeFeed(changeLog, new ChangeFeedProperties(100, Duration.ofSeconds(1),
+                Duration.ofSeconds(15), Duration.ofSeconds(5), 4, Duration.ZERO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void read_ShouldStopAtRecentGap() {
+        Instant now = Instant.now();
+        when(changeLog.read(10, 100)).thenReturn(List.of(change(11, now), change(12, now), change(14, now)));
+
+        assertThat(feed.read(10)).extracting(ProductChangeResponse::getOffset).containsExactly(11L, 12L);
+    }
+
+    @Test
+    void read_ShouldSkipGapOnceItSettled() {
+        Instant old = Instant.now().minusSeconds(60);
+        when(changeLog.read(10, 100)).thenReturn(List.of(change(13, old), change(14, Instant.now())));
+
+        assertThat(feed.read(10)).extracting(ProductChangeResponse::getOffset).containsExactly(13L, 14L);
+    }
+
+    @Test
+    void read_ShouldWaitForMissingFirstOffset() {
+        when(changeLog.read(10, 100)).thenReturn(List.of(change(12, Instant.now())));
+
+        assertThat(feed.read(10)).isEmpty();
+    }
+
+    @Test
+    void checkRetained_ShouldRejectAnOffsetBelowTheOldestKeptChange() {
+        when(changeLog.firstOffset()).thenReturn(20L);
+
+        assertThatThrownBy(() -> feed.checkRetained(18)).isInstanceOf(GoneException.class)
+                .hasMessageContaining("mais antigo disponível: 20");
+        feed.checkRetained(19);
+        feed.checkRetained(25);
+    }
+
+    @Test
+    void checkRetained_WithEmptyLog_ShouldAcceptAnyOffset() {
+        when(changeLog.firstOffset()).thenReturn(0L);
+
+        feed.checkRetained(0);
+        feed.checkRetained(500);
+    }
+
+    @Test
+    void follow_ShouldVisitRowsPastARecentGapButResumeFromIt() {
+        Instant now = Instant.now();
+        when(changeLog.readProductIds(10, 100)).thenReturn(List.of(change(11, now), change(13, now)));
+        List<Long> visited = new ArrayList<>();
+
+        assertThat(feed.follow(10, change -> visited.add(change.getOffset()))).isEqualTo(11);
+        assertThat(visited).containsExactly(11L, 13L);
+    }
+
+    private static ProductChangeResponse change(long offset, Instant occurredAt) {
+        return ProductChangeResponse.builder()
+                .offset(offset)
+                .type(ProductChangedEvent.Type.DELETED)
+                .productId(offset)
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.giovani.productapi.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ProductChangeLogTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void append_ThenSlowCommit_ShouldRefuseTheCommit() throws Exception {
+        ProductChangeLog changeLog = changeLog(Duration.ofMillis(20));
+
+        changeLog.append(ProductChangedEvent.deleted(1L));
+        changeLog.append(ProductChangedEvent.deleted(2L));
+        Thread.sleep(30);
+
+        assertThatThrownBy(this::beforeCommit).isInstanceOf(TransactionTimedOutException.class);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+    }
+
+    @Test
+    void append_ThenPromptCommit_ShouldCommit() {
+        changeLog(Duration.ofMinutes(1)).append(ProductChangedEvent.deleted(1L));
+
+        beforeCommit();
+    }
+
+    private void beforeCommit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+    }
+
+    private ProductChangeLog changeLog(Duration settle) {
+        return new ProductChangeLog(jdbcTemplate, new ObjectMapper(), new ChangeFeedProperties(100,
+                Duration.ofSeconds(1), Duration.ofSeconds(15), settle, 4, Duration.ZERO));
+    }
+}
@@ -0,0 +1,238 @@
+package com.giovani.productapi.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"productapi.idempotency.wait-timeout=2s", "productapi.idempotency.max-body=1KB"})
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"name\":\"Notebook\",\"price\":4500}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        jdbcTemplate.update("delete from idempotency_key");
+    }
+
+    @Test
+    void retry_ShouldReplayFirstResponseWithoutCreatingAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(create(key, BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED))
+                .andReturn();
+        mockMvc.perform(create(key, BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED, "true"))
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.id").value(idOf(first)));
+
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void bodyAboveMaxBody_ShouldBeRejectedWithoutReservingTheKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String large = "{\"name\":\"Notebook\",\"description\":\"" + "x".repeat(2048) + "\",\"price\":4500}";
+
+        mockMvc.perform(create(key, large))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(repository.count()).isZero();
+
+        mockMvc.perform(create(key, BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED));
+    }
+
+    @Test
+    void invalidKey_ShouldBeRejectedBeforeTheBodyIsRead() throws Exception {
+        String large = "{\"name\":\"Notebook\",\"description\":\"" + "x".repeat(2048) + "\",\"price\":4500}";
+
+        mockMvc.perform(create("k".repeat(256), large))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sameKeyWithAnotherBody_ShouldBeRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(create(key, BODY)).andExpect(status().isCreated());
+
+        mockMvc.perform(create(key, "{\"name\":\"Mouse\",\"price\":50}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key já usada com outra requisição"));
+    }
+
+    @Test
+    void concurrentRetries_ShouldWaitForTheFirstRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit((Callable<MvcResult>) () -> {
+                    start.await();
+                    return mockMvc.perform(create(key, BODY)).andReturn();
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<MvcResult> result : results) {
+                assertThat(result.get().getResponse().getStatus()).isEqualTo(201);
+                ids.add(idOf(result.get()));
+            }
+            assertThat(ids).hasSize(1);
+            assertThat(repository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void anotherInstance_ShouldReplayFromTheDurableStore() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MvcResult first = mockMvc.perform(create(key, BODY)).andExpect(status().isCreated()).andReturn();
+        String fingerprint = jdbcTemplate.queryForObject(
+                "select fingerprint from idempotency_key where idempotency_key = ?", String.class, key);
+
+        IdempotencyStore otherInstance = new IdempotencyStore(properties,
+                new JdbcIdempotencyRepository(jdbcTemplate, objectMapper));
+        try {
+            Optional<StoredResponse> stored = otherInstance.begin(key, fingerprint);
+
+            assertThat(stored).isPresent();
+            assertThat(stored.get().status()).isEqualTo(201);
+            assertThat(objectMapper.readValue(stored.get().body(), ProductResponse.class).getId()).isEqualTo(idOf(first));
+        } finally {
+            otherInstance.destroy();
+        }
+    }
+
+    @Test
+    void pendingKeyOnAnotherInstance_ShouldTimeOutWithConflict() throws Exception {
+        String key = UUID.randomUUID().toString();
+        IdempotencyStore otherInstance = new IdempotencyStore(properties,
+                new JdbcIdempotencyRepository(jdbcTemplate, objectMapper));
+        try {
+            String fingerprint = IdempotencyFilter.fingerprint("POST", "/api/v1/products", null,
+                    BODY.getBytes(StandardCharsets.UTF_8));
+            assertThat(otherInstance.begin(key, fingerprint)).isEmpty();
+
+            mockMvc.perform(create(key, BODY)).andExpect(status().isConflict());
+            assertThat(repository.count()).isZero();
+        } finally {
+            otherInstance.destroy();
+        }
+    }
+
+    @Test
+    void unsavedResponseOnAnotherInstance_ShouldKeepTheLeaseUntilStored() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        JdbcIdempotencyRepository flaky = new JdbcIdempotencyRepository(jdbcTemplate, objectMapper) {
+            @Override
+            void complete(String key, StoredResponse response, Instant expiresAt) {
+                if (failing.get()) {
+                    throw new IllegalStateException("banco fora");
+                }
+                super.complete(key, response, expiresAt);
+            }
+        };
+        IdempotencyProperties shortLease = new IdempotencyProperties(true, properties.ttl(), properties.maxMemory(),
+                true, properties.waitTimeout(), Duration.ofMillis(300), properties.maxBody());
+        IdempotencyStore otherInstance = new IdempotencyStore(shortLease, flaky);
+        try {
+            String fingerprint = IdempotencyFilter.fingerprint("POST", "/api/v1/products", null,
+                    BODY.getBytes(StandardCharsets.UTF_8));
+            assertThat(otherInstance.begin(key, fingerprint)).isEmpty();
+            otherInstance.complete(key, new StoredResponse(fingerprint, 201, Map.of("ETag", "\"0\""),
+                    "{\"id\":42,\"name\":\"Notebook\",\"price\":4500}".getBytes(StandardCharsets.UTF_8)));
+
+            // bem depois do lease: a reserva continua renovada e a escrita não roda de novo
+            Thread.sleep(1000);
+            mockMvc.perform(create(key, BODY)).andExpect(status().isConflict());
+            assertThat(repository.count()).isZero();
+
+            failing.set(false);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (jdbcTemplate.queryForObject("select count(*) from idempotency_key "
+                    + "where idempotency_key = ? and status is not null", Integer.class, key) == 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            mockMvc.perform(create(key, BODY))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(IdempotencyFilter.REPLAYED, "true"))
+                    .andExpect(jsonPath("$.id").value(42));
+            assertThat(repository.count()).isZero();
+        } finally {
+            otherInstance.destroy();
+        }
+    }
+
+    private RequestBuilder create(String key, String body) {
+        return post("/api/v1/products")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private Long idOf(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsByteArray(), ProductResponse.class).getId();
+    }
+}
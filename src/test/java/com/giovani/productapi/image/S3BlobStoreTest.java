@@ -0,0 +1,176 @@
+package com.giovani.productapi.image;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * S3BlobStore contra um servidor HTTP local que responde como um bucket S3 (path-style).
+ */
+class S3BlobStoreTest {
+
+    private static final String BUCKET = "images";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private S3BlobStore store;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        store = new S3BlobStore(new ImageProperties.S3("http://localhost:" + server.getAddress().getPort(),
+                "us-east-1", BUCKET, "test", "test", true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void put_ShouldUploadFileAndFindItByKey() throws IOException {
+        byte[] content = "conteúdo da imagem".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("upload.tmp"), content);
+
+        store.put("abc.png", file, MediaType.IMAGE_PNG);
+
+        assertThat(objects.get("abc.png")).isEqualTo(content);
+        assertThat(store.exists("abc.png")).isTrue();
+        Blob blob = store.find("abc.png").orElseThrow();
+        assertThat(blob.length()).isEqualTo(content.length);
+        try (InputStream in = blob.resource().getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(ranges).isEmpty();
+    }
+
+    @Test
+    void missingKey_ShouldBeEmpty() throws IOException {
+        assertThat(store.exists("missing.png")).isFalse();
+        assertThat(store.find("missing.png")).isEmpty();
+    }
+
+    @Test
+    void skipBeforeFirstRead_ShouldRequestOnlyTheRange() throws IOException {
+        byte[] content = new byte[1000];
+        Arrays.fill(content, 0, 400, (byte) 1);
+        Arrays.fill(content, 400, 1000, (byte) 2);
+        objects.put("big.jpg", content);
+
+        try (InputStream in = store.find("big.jpg").orElseThrow().resource().getInputStream()) {
+            assertThat(in.skip(400)).isEqualTo(400);
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(content, 400, 1000));
+        }
+        assertThat(ranges).containsExactly("bytes=400-");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (!path.startsWith("/" + BUCKET + "/")) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            String key = path.substring(BUCKET.length() + 2);
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    byte[] body = exchange.getRequestBody().readAllBytes();
+                    String payload = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+                    objects.put(key, payload != null && payload.startsWith("STREAMING-") ? decodeChunked(body) : body);
+                    exchange.getResponseHeaders().set("ETag", "\"" + key + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> get(exchange, key);
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    /**
+     * Corpo {@code aws-chunked} (payload assinado por chunk): {@code <tamanho hex>;chunk-signature=...\r\n<dados>\r\n}.
+     */
+    private static byte[] decodeChunked(byte[] body) {
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = indexOfCrlf(body, position);
+            String header = new String(body, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";", 2)[0], 16);
+            if (size == 0) {
+                return decoded.toByteArray();
+            }
+            decoded.write(body, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static int indexOfCrlf(byte[] body, int from) {
+        for (int i = from; i < body.length - 1; i++) {
+            if (body[i] == '\r' && body[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Chunk sem CRLF");
+    }
+
+    private void get(HttpExchange exchange, String key) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            byte[] error = ("<Error><Code>NoSuchKey</Code><Key>" + key + "</Key></Error>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(404, error.length);
+            exchange.getResponseBody().write(error);
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int status = 200;
+        if (range != null) {
+            ranges.add(range);
+            start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range",
+                    "bytes " + start + "-" + (object.length - 1) + "/" + object.length);
+        }
+        exchange.sendResponseHeaders(status, object.length - start);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(object, start, object.length - start);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.giovani.productapi.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void csv_ShouldParseQuotedFieldsAcrossLinesAndReportBadValues() throws IOException {
+        Path file = write("catalogo.csv", "\uFEFFid,name,description,price,imageUrl\r\n"
+                + ",Mouse,\"Sem fio, 2.4 GHz\",49.90,\n"
+                + "\n"
+                + "7,\"Teclado \"\"ABNT2\"\"\",\"linha 1\nlinha 2\",199,\n"
+                + ",Cabo,,abc,\n"
+                + "x,Hub,,10,\n");
+
+        try (ImportReader reader = ImportReader.open(file, ImportFormat.CSV, objectMapper, 0, 0)) {
+            List<ImportRecord> records = reader.next(10);
+
+            assertThat(records).extracting(ImportRecord::line).containsExactly(2L, 4L, 6L, 7L);
+            assertThat(records.get(0).request().getDescription()).isEqualTo("Sem fio, 2.4 GHz");
+            assertThat(records.get(0).request().getPrice()).isEqualByComparingTo("49.90");
+            assertThat(records.get(1).id()).isEqualTo(7L);
+            assertThat(records.get(1).request().getName()).isEqualTo("Teclado \"ABNT2\"");
+            assertThat(records.get(1).request().getDescription()).isEqualTo("linha 1\nlinha 2");
+            assertThat(records.get(1).endLine()).isEqualTo(5);
+            assertThat(records.get(2).error()).startsWith("price inválido");
+            assertThat(records.get(3).error()).startsWith("id inválido");
+            assertThat(records.get(3).endOffset()).isEqualTo(Files.size(file));
+            assertThat(reader.next(10)).isEmpty();
+        }
+    }
+
+    @Test
+    void open_ShouldResumeRightAfterTheCommittedRecord() throws IOException {
+        Path file = write("catalogo.ndjson", """
+                {"name":"A","price":1}
+                {"name":"B","price":2}
+                {isto não é json}
+                {"id":3,"name":"C","price":3,"extra":true}
+                """);
+        ImportRecord committed;
+        try (ImportReader reader = ImportReader.open(file, ImportFormat.NDJSON, objectMapper, 0, 0)) {
+            committed = reader.next(2).get(1);
+        }
+
+        try (ImportReader reader = ImportReader.open(file, ImportFormat.NDJSON, objectMapper,
+                committed.endOffset(), committed.endLine())) {
+            List<ImportRecord> rest = reader.next(10);
+
+            assertThat(rest).extracting(ImportRecord::line).containsExactly(3L, 4L);
+            assertThat(rest.get(0).error()).isEqualTo("JSON inválido");
+            assertThat(rest.get(1).id()).isEqualTo(3L);
+            assertThat(rest.get(1).request().getPrice()).isEqualTo(new BigDecimal("3"));
+        }
+    }
+
+    @Test
+    void open_WhenCsvHeaderLacksRequiredColumns_ShouldRejectTheFile() throws IOException {
+        Path file = write("catalogo.csv", "nome,preco\nMouse,10\n");
+
+        assertThatThrownBy(() -> ImportReader.open(file, ImportFormat.CSV, objectMapper, 0, 0))
+                .isInstanceOf(ImportReader.InvalidFileException.class);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package com.giovani.productapi.jdbc;
+
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de comandos JDBC por endpoint, sem cache, para que toda leitura vá ao banco. Um teste
+ * que falha aqui aponta uma consulta a mais (ou um N+1) introduzida no caminho da requisição.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "productapi.cache.type=none")
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+    private static final String BODY = "{\"name\":\"Notebook\",\"price\":4500}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        products = repository.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> Product.builder().name("Produto " + i).price(new BigDecimal("10.00")).build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void reads_ShouldStayWithinTheirStatementBudget() throws Exception {
+        long id = products.get(0).getId();
+
+        assertBudget(get("/api/v1/products/" + id), "ProductController.findById", 1);
+        assertBudget(get("/api/v1/products").param("size", "10"), "ProductController.findAll", 2);
+        assertBudget(get("/api/v1/products/cursor").param("size", "10"), "ProductController.findAllByCursor", 1);
+        assertBudget(get("/api/v1/products").param("ids", id + "," + (id + 1) + "," + (id + 2)),
+                "ProductController.findAllById", 1);
+    }
+
+    @Test
+    void writes_ShouldStayWithinTheirStatementBudget() throws Exception {
+        long id = products.get(0).getId();
+
+        assertBudget(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON).content(BODY),
+                "ProductController.create", 2);
+        assertBudget(put("/api/v1/products/" + id).contentType(MediaType.APPLICATION_JSON).content(BODY),
+                "ProductController.update", 3);
+        assertBudget(patch("/api/v1/products/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\":10}"), "ProductController.patch", 3);
+        assertBudget(delete("/api/v1/products/" + id), "ProductController.delete", 3);
+    }
+
+    @Test
+    void listings_ShouldNotIssueOneStatementPerProduct() throws Exception {
+        SqlTrace small = trace(get("/api/v1/products").param("size", "2"));
+        SqlTrace large = trace(get("/api/v1/products").param("size", "30"));
+
+        assertThat(large.statements()).isEqualTo(small.statements());
+        assertThat(large.repeated(2)).isEmpty();
+    }
+
+    private void assertBudget(RequestBuilder request, String endpoint, int budget) throws Exception {
+        SqlTrace trace = trace(request);
+        assertThat(trace.endpoint()).isEqualTo(endpoint);
+        assertThat(trace.statements())
+                .as("comandos JDBC de %s: %s", endpoint, trace.executions())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private SqlTrace trace(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        SqlTrace trace = (SqlTrace) result.getRequest().getAttribute(SqlTrace.ATTRIBUTE);
+        assertThat(trace).isNotNull();
+        return trace;
+    }
+}
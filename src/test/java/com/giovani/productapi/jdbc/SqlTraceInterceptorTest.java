@@ -0,0 +1,101 @@
+package com.giovani.productapi.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlTraceInterceptorTest {
+
+    private static final String SELECT_IMAGE = "select url from product_image where product_id=?";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlTraceProperties properties = new SqlTraceProperties(true, Duration.ofHours(1), 3, 1.0, 10);
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(properties);
+    private final SqlTraceInterceptor interceptor = new SqlTraceInterceptor(properties, slowQueryLog, registry);
+
+    private Connection connection;
+    private TracingDataSource dataSource;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new TracingDataSource(target);
+        handler = new HandlerMethod(new Catalog(), Catalog.class.getMethod("list"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.destroy();
+        SqlTrace.end();
+    }
+
+    @Test
+    void request_ShouldPublishStatementsPerEndpointAndFlagRepeatedSql() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        try (Connection traced = dataSource.getConnection()) {
+            traced.prepareStatement("select * from product").executeQuery();
+            for (int i = 0; i < 4; i++) {
+                PreparedStatement statement = traced.prepareStatement(SELECT_IMAGE);
+                statement.setLong(1, i);
+                statement.executeQuery();
+            }
+        }
+        interceptor.afterCompletion(request, response, handler, null);
+
+        SqlTrace trace = (SqlTrace) request.getAttribute(SqlTrace.ATTRIBUTE);
+        assertThat(trace.statements()).isEqualTo(5);
+        assertThat(trace.executions()).containsEntry(SELECT_IMAGE, 4);
+        assertThat(trace.repeated(properties.nPlusOneThreshold()))
+                .extracting(SqlTrace.Statement::sql).containsExactly(SELECT_IMAGE);
+        assertThat(registry.get("productapi.sql.statements").tag("endpoint", "Catalog.list").summary().totalAmount())
+                .isEqualTo(5);
+        assertThat(registry.get("productapi.sql.n_plus_one").tag("endpoint", "Catalog.list").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("productapi.sql.slow").tag("endpoint", "Catalog.list").counter().count()).isZero();
+        assertThat(SqlTrace.current()).isNull();
+    }
+
+    @Test
+    void connectionOutsideARequest_ShouldNotBeWrapped() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+    }
+
+    @Test
+    void slowStatement_ShouldBeCountedForTheEndpoint() {
+        SqlTrace trace = new SqlTrace("Catalog.list", Duration.ofMillis(100).toNanos());
+
+        trace.record("select 1", Duration.ofMillis(5).toNanos());
+        trace.record("select sleep(1)", Duration.ofSeconds(1).toNanos());
+
+        assertThat(trace.slowStatements()).extracting(SqlTrace.Statement::sql).containsExactly("select sleep(1)");
+        assertThat(trace.nanos()).isEqualTo(Duration.ofMillis(1005).toNanos());
+    }
+
+    static class Catalog {
+
+        public void list() {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "productapi.search.engine=database")
+class DatabaseProductSearchEngineTest {
+
+    @Autowired
+    private ProductSearchEngine searchEngine;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                Product.builder().name("Mouse Gamer").description("RGB").price(new BigDecimal("199.90")).build(),
+                Product.builder().name("Mouse Pad").price(new BigDecimal("49.90")).build(),
+                Product.builder().name("Teclado").description("Mecânico, switch para gamer").price(new BigDecimal("399.00")).build()
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void search_ShouldCombineTextAndPriceRangeInTheQuery() {
+        assertThat(searchEngine).isInstanceOf(DatabaseProductSearchEngine.class);
+
+        PageResponse<ProductResponse> result = searchEngine.search(
+                new ProductSearchCriteria("gamer", new BigDecimal("100"), null),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertThat(result.getContent()).extracting(ProductResponse::getName).containsExactly("Teclado", "Mouse Gamer");
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+}
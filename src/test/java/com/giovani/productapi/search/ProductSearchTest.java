@@ -0,0 +1,95 @@
+package com.giovani.productapi.search;
+
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchEngine searchEngine;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        create("Café Expresso", "Grãos torrados", "39.90");
+        create("Cafeteira Italiana", "Alumínio, 6 xícaras", "129.00");
+        create("Caneca", "Porcelana para café", "25.00");
+        create("Notebook", "Dell XPS", "4500.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.findAll().forEach(product -> productService.delete(product.getId(), null));
+    }
+
+    @Test
+    void testProfile_ShouldUseInvertedIndex() {
+        assertThat(searchEngine).isInstanceOf(InvertedIndexProductSearchEngine.class);
+    }
+
+    @Test
+    void search_ShouldMatchAllTermsIgnoringAccentsAndCase() {
+        PageResponse<ProductResponse> result = search("CAFE", null, null, Sort.by("price"));
+
+        assertThat(result.getContent()).extracting(ProductResponse::getName)
+                .containsExactly("Caneca", "Café Expresso");
+        assertThat(search("cafe graos", null, null, Sort.by("id")).getContent())
+                .extracting(ProductResponse::getName).containsExactly("Café Expresso");
+        assertThat(search("cafe inexistente", null, null, Sort.by("id")).getTotalElements()).isZero();
+    }
+
+    @Test
+    void search_ShouldFilterByPriceRangeAndPage() {
+        PageResponse<ProductResponse> result = productService.search(
+                new ProductSearchCriteria(null, new BigDecimal("30"), new BigDecimal("200")),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(ProductResponse::getName).containsExactly("Cafeteira Italiana");
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndDeletes() {
+        Long id = search("notebook", null, null, Sort.by("id")).getContent().get(0).getId();
+
+        productService.update(id, ProductRequest.builder().name("Ultrabook").price(BigDecimal.TEN).build(), null);
+
+        assertThat(search("notebook", null, null, Sort.by("id")).getContent()).isEmpty();
+        assertThat(search("ultrabook", null, null, Sort.by("id")).getContent()).hasSize(1);
+
+        productService.delete(id, null);
+
+        assertThat(search("ultrabook", null, null, Sort.by("id")).getContent()).isEmpty();
+    }
+
+    private PageResponse<ProductResponse> search(String q, BigDecimal min, BigDecimal max, Sort sort) {
+        return productService.search(new ProductSearchCriteria(q, min, max), PageRequest.of(0, 20, sort));
+    }
+
+    private void create(String name, String description, String price) {
+        productService.create(ProductRequest.builder().name(name).description(description).price(new BigDecimal(price)).build());
+    }
+}
@@ -0,0 +1,146 @@
+package com.giovani.productapi.service;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.dto.BatchItemResult;
+import com.giovani.productapi.dto.BatchItemStatus;
+import com.giovani.productapi.dto.BatchResponse;
+import com.giovani.productapi.dto.ProductBatchUpdateRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"productapi.batch.chunk-size=3", "productapi.batch.max-items=20"})
+class ProductBatchServiceTest {
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductCache cache;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void create_ShouldReportInvalidItemsAndPersistTheRest() {
+        List<ProductRequest> requests = Arrays.asList(
+                request("A", "10"),
+                request("", "10"),
+                request("C", "-1"),
+                null,
+                request("E", "5"),
+                request("F", "7"),
+                request("G", "8"));
+
+        BatchResponse response = batchService.create(requests);
+
+        assertThat(response.getTotal()).isEqualTo(7);
+        assertThat(response.getSucceeded()).isEqualTo(4);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.CREATED, BatchItemStatus.INVALID, BatchItemStatus.INVALID, BatchItemStatus.INVALID,
+                BatchItemStatus.CREATED, BatchItemStatus.CREATED, BatchItemStatus.CREATED);
+        assertThat(response.getResults().get(1).getErrors()).containsKey("name");
+        assertThat(repository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void create_WhenOneRowFailsInTheDatabase_ShouldOnlyFailThatItem() {
+        String tooLong = String.join("", Collections.nCopies(300, "x"));
+        BatchResponse response = batchService.create(List.of(request("A", "1"), request(tooLong, "2"), request("C", "3")));
+
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.FAILED, BatchItemStatus.CREATED);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void createNdjson_ShouldReportUnreadableLines() throws Exception {
+        String body = """
+                {"name":"A","price":1}
+                {isto não é json}
+
+                {"name":"B","price":2}
+                """;
+
+        BatchResponse response = batchService.createNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.CREATED, BatchItemStatus.INVALID, BatchItemStatus.CREATED);
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("JSON inválido");
+    }
+
+    @Test
+    void update_ShouldUpdateExistingAndReportMissing() {
+        List<Product> saved = repository.saveAll(IntStream.range(0, 4)
+                .mapToObj(i -> Product.builder().name("P" + i).price(BigDecimal.ONE).build())
+                .toList());
+
+        BatchResponse response = batchService.update(List.of(
+                update(saved.get(0).getId(), "Novo 0"),
+                update(-1L, "Fantasma"),
+                update(saved.get(3).getId(), "Novo 3")));
+
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus)
+                .containsExactly(BatchItemStatus.UPDATED, BatchItemStatus.NOT_FOUND, BatchItemStatus.UPDATED);
+        assertThat(repository.findById(saved.get(0).getId())).get().extracting(Product::getName).isEqualTo("Novo 0");
+        assertThat(repository.findById(saved.get(3).getId())).get().extracting(Product::getName).isEqualTo("Novo 3");
+        assertThat(cache.get(saved.get(0).getId())).get().extracting(ProductResponse::getName, ProductResponse::getVersion)
+                .containsExactly("Novo 0", saved.get(0).getVersion() + 1);
+    }
+
+    @Test
+    void delete_ShouldDeleteExistingAndReportMissing() {
+        List<Product> saved = repository.saveAll(List.of(
+                Product.builder().name("A").price(BigDecimal.ONE).build(),
+                Product.builder().name("B").price(BigDecimal.ONE).build()));
+
+        BatchResponse response = batchService.delete(Arrays.asList(saved.get(0).getId(), -1L, null, saved.get(1).getId()));
+
+        assertThat(response.getResults()).extracting(BatchItemResult::getStatus).containsExactly(
+                BatchItemStatus.DELETED, BatchItemStatus.NOT_FOUND, BatchItemStatus.INVALID, BatchItemStatus.DELETED);
+        assertThat(repository.count()).isZero();
+        assertThat(cache.getMissing(saved.get(0).getId())).isPresent();
+        cache.put(ProductResponse.builder().id(saved.get(1).getId()).name("B").price(BigDecimal.ONE).version(0L).build());
+        assertThat(cache.get(saved.get(1).getId())).isEmpty();
+    }
+
+    @Test
+    void create_AboveMaxItems_ShouldThrowBadRequest() {
+        List<ProductRequest> requests = IntStream.range(0, 21).mapToObj(i -> request("P" + i, "1")).toList();
+
+        assertThatThrownBy(() -> batchService.create(requests)).isInstanceOf(BadRequestException.class);
+    }
+
+    private static ProductRequest request(String name, String price) {
+        return ProductRequest.builder().name(name).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductBatchUpdateRequest update(Long id, String name) {
+        return ProductBatchUpdateRequest.builder().id(id).name(name).price(BigDecimal.TEN).build();
+    }
+}
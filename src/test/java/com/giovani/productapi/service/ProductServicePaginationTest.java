@@ -0,0 +1,148 @@
+package com.giovani.productapi.service;
+
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductField;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ProductServicePaginationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // preços repetidos para exercitar o desempate por id
+        repository.saveAll(IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> Product.builder()
+                        .name("Produto " + (char) ('A' + (25 - i)))
+                        .price(BigDecimal.valueOf(i % 5))
+                        .build())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void cursorPagination_ShouldWalkForwardAndBackwardWithoutGapsOrDuplicates() {
+        List<ProductResponse> forward = new ArrayList<>();
+        List<CursorPageResponse<ProductResponse>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<ProductResponse> page = productService.findAll(cursor, 10, ProductSortField.PRICE);
+            pages.add(page);
+            forward.addAll(page.getContent());
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertThat(pages).hasSize(3);
+        assertThat(pages.get(0).getPrev()).isNull();
+        assertThat(forward).hasSize(25);
+        assertThat(forward).extracting(ProductResponse::getId).doesNotHaveDuplicates();
+        assertThat(forward).extracting(ProductResponse::getPrice).isSortedAccordingTo(BigDecimal::compareTo);
+
+        CursorPageResponse<ProductResponse> back = productService.findAll(pages.get(2).getPrev(), 10, ProductSortField.PRICE);
+        assertThat(back.getContent()).extracting(ProductResponse::getId)
+                .containsExactlyElementsOf(pages.get(1).getContent().stream().map(ProductResponse::getId).toList());
+        assertThat(back.getNext()).isNotNull();
+        assertThat(back.getPrev()).isNotNull();
+    }
+
+    @Test
+    void cursorPagination_ByName_ShouldKeepNameOrder() {
+        CursorPageResponse<ProductResponse> first = productService.findAll(null, 5, ProductSortField.NAME);
+        CursorPageResponse<ProductResponse> second = productService.findAll(first.getNext(), 5, ProductSortField.ID);
+
+        assertThat(first.getContent()).extracting(ProductResponse::getName)
+                .containsExactly("Produto A", "Produto B", "Produto C", "Produto D", "Produto E");
+        assertThat(second.getContent()).extracting(ProductResponse::getName)
+                .containsExactly("Produto F", "Produto G", "Produto H", "Produto I", "Produto J");
+    }
+
+    @Test
+    void cursorPagination_WithInvalidCursor_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> productService.findAll("não-é-um-cursor", 10, ProductSortField.ID))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void fields_ShouldReturnOnlyRequestedColumnsWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long loaded = statistics.getEntityLoadCount();
+
+        PageResponse<Map<String, Object>> page = productService.findAll(
+                PageRequest.of(1, 10, Sort.by("price").and(Sort.by("id"))), ProductField.parse("name,price"));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent()).allSatisfy(row -> assertThat(row).containsOnlyKeys("id", "name", "price"));
+        assertThat(page.getContent()).extracting(row -> (BigDecimal) row.get("price"))
+                .isSortedAccordingTo(BigDecimal::compareTo);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(loaded);
+    }
+
+    @Test
+    void fields_WithCursor_ShouldPageLikeTheFullResponse() {
+        List<Long> full = new ArrayList<>();
+        List<Long> sparse = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<ProductResponse> page = productService.findAll(cursor, 10, ProductSortField.PRICE);
+            page.getContent().forEach(product -> full.add(product.getId()));
+            cursor = page.getNext();
+        } while (cursor != null);
+        do {
+            CursorPageResponse<Map<String, Object>> page =
+                    productService.findAll(cursor, 10, ProductSortField.PRICE, ProductField.parse("name"));
+            page.getContent().forEach(row -> {
+                assertThat(row).containsOnlyKeys("id", "name");
+                sparse.add((Long) row.get("id"));
+            });
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertThat(sparse).containsExactlyElementsOf(full);
+    }
+
+    @Test
+    void fields_WithUnknownField_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> ProductField.parse("name,senha"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Campo inválido em fields: senha");
+    }
+}
@@ -1,40 +1,102 @@
 package com.giovani.productapi.service;
 
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.config.BatchProperties;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.dto.MultiGetResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductPatchRequest;
 import com.giovani.productapi.dto.ProductRequest;
 import com.giovani.productapi.dto.ProductResponse;
 import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.BadRequestException;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
 import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.feed.ProductChangeLog;
 import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.repository.ProductVersion;
+import com.giovani.productapi.search.ProductSearchEngine;
+import com.giovani.productapi.snapshot.CatalogSnapshots;
+import com.giovani.productapi.snapshot.SnapshotProperties;
+import com.giovani.productapi.stats.ProductStatistics;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 public class ProductServiceTest {
 
-    @InjectMocks
     private ProductService productService;
 
     @Mock
     private ProductRepository repository;
 
+    @Mock
+    private ProductCache cache;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private ProductSearchEngine searchEngine;
+
+    @Mock
+    private ProductChangeLog changeLog;
+
+    @Mock
+    private ProductStatistics statistics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private AutoCloseable closeable;
 
     @BeforeEach
     void setUp() {
         closeable = MockitoAnnotations.openMocks(this);
+        productService = new ProductService(repository, new PaginationProperties(20, 100), cache,
+                new BatchProperties(2, 10), events, searchEngine,
+                Validation.buildDefaultValidatorFactory().getValidator(), changeLog, statistics,
+                new CatalogSnapshots(new SnapshotProperties(SnapshotProperties.Mode.OFF, Path.of("data/snapshot"),
+                        Duration.ofMinutes(1), Duration.ofSeconds(5), 2), null), transactionManager);
     }
 
     @AfterEach
@@ -66,27 +128,48 @@ public class ProductServiceTest {
         assertThat(response.getName()).isEqualTo(savedProduct.getName());
         assertThat(response.getDescription()).isEqualTo(savedProduct.getDescription());
         assertThat(response.getPrice()).isEqualTo(savedProduct.getPrice());
+        verify(changeLog).append(ProductChangedEvent.created(response));
+    }
+
+    @Test
+    void create_InATransaction_ShouldOnlyTouchTheCacheAfterCommit() {
+        when(repository.save(any())).thenReturn(Product.builder()
+                .id(1L).name("Notebook DELL").price(BigDecimal.valueOf(4500)).version(0L).build());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ProductResponse response = productService.create(ProductRequest.builder()
+                    .name("Notebook DELL").price(BigDecimal.valueOf(4500)).build());
+            verify(cache, never()).put(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(cache).put(response);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
     void findAllProducts_ShouldReturnListOfProducts() {
         List<Product> products = List.of(
-                new Product(1L, "Produto 1", "Desc", BigDecimal.TEN, null),
-                new Product(2L, "Produto 2", "Desc", BigDecimal.ONE, null)
+                new Product(1L, "Produto 1", "Desc", BigDecimal.TEN, null, 0L, null),
+                new Product(2L, "Produto 2", "Desc", BigDecimal.ONE, null, 0L, null)
         );
 
-        when(repository.findAll()).thenReturn(products);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(repository.findAll(pageable)).thenReturn(new PageImpl<>(products, pageable, 2));
 
-        List<ProductResponse> response = productService.findAll();
+        PageResponse<ProductResponse> response = productService.findAll(pageable);
 
         assertThat(response).isNotNull();
-        assertThat(response).hasSize(2);
+        assertThat(response.getContent()).hasSize(2);
+        assertThat(response.getTotalElements()).isEqualTo(2);
     }
 
     @Test
     void findProductById_ShouldReturnProductResponse() {
         Long productId = 1L;
-        Product product = new Product(productId, "Produto 1", "Desc", BigDecimal.TEN, null);
+        Product product = new Product(productId, "Produto 1", "Desc", BigDecimal.TEN, null, 0L, null);
 
         when(repository.findById(productId)).thenReturn(java.util.Optional.of(product));
 
@@ -99,6 +182,106 @@ public class ProductServiceTest {
         assertThat(response.getPrice()).isEqualTo(product.getPrice());
     }
 
+    @Test
+    void findProductById_WhenCached_ShouldNotHitRepository() {
+        ProductResponse cached = ProductResponse.builder().id(1L).name("Produto 1").price(BigDecimal.TEN).build();
+
+        when(cache.get(1L)).thenReturn(Optional.of(cached));
+
+        ProductResponse response = productService.findById(1L);
+
+        assertThat(response).isSameAs(cached);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findProductById_WhenNotCached_ShouldPopulateCache() {
+        Product product = new Product(1L, "Produto 1", "Desc", BigDecimal.TEN, null, 0L, null);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(product));
+
+        ProductResponse response = productService.findById(1L);
+
+        verify(cache).put(response);
+    }
+
+    @Test
+    void findProductById_WhenMissing_ShouldRememberTheMiss() {
+        when(repository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.findById(99L)).isInstanceOf(ResourceNotFoundException.class);
+
+        verify(cache).putMissing(eq(99L), any(ResourceNotFoundException.class));
+    }
+
+    @Test
+    void findProductById_WhenKnownMissing_ShouldNotHitRepository() {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Produto não encontrado com ID: 99");
+        when(cache.getMissing(99L)).thenReturn(Optional.of(notFound));
+
+        assertThatThrownBy(() -> productService.findById(99L)).isSameAs(notFound);
+        assertThatThrownBy(() -> productService.findVersion(99L)).isInstanceOf(ResourceNotFoundException.class);
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findProductById_ConcurrentCallers_ShouldHitRepositoryOnce() throws Exception {
+        int callers = 50;
+        Product product = new Product(1L, "Produto 1", "Desc", BigDecimal.TEN, null, 0L, null);
+        CountDownLatch started = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(repository.findById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(product);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ProductResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    started.countDown();
+                    return productService.findById(1L);
+                }));
+            }
+            started.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<ProductResponse> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findAllById_ShouldServeCacheHitsFirstKeepOrderAndReportMissing() {
+        ProductResponse cached = ProductResponse.builder().id(2L).name("Produto 2").price(BigDecimal.ONE).build();
+        when(cache.get(2L)).thenReturn(Optional.of(cached));
+        when(repository.findAllById(List.of(3L, 1L))).thenReturn(List.of(
+                new Product(1L, "Produto 1", "Desc", BigDecimal.TEN, null, 0L, null)));
+        when(repository.findAllById(List.of(4L))).thenReturn(List.of(
+                new Product(4L, "Produto 4", "Desc", BigDecimal.TEN, null, 0L, null)));
+
+        MultiGetResponse response = productService.findAllById(List.of(3L, 2L, 1L, 4L, 2L));
+
+        assertThat(response.getProducts()).extracting(ProductResponse::getId).containsExactly(2L, 1L, 4L);
+        assertThat(response.getMissing()).containsExactly(3L);
+        verify(cache, times(2)).put(any());
+    }
+
+    @Test
+    void findAllById_AboveLimit_ShouldThrowBadRequest() {
+        List<Long> ids = LongStream.rangeClosed(1, 11).boxed().toList();
+
+        assertThatThrownBy(() -> productService.findAllById(ids)).isInstanceOf(BadRequestException.class);
+    }
+
     @Test
     void findById_WhenProductNotExists_ShouldThrowException() {
         when(repository.findById(anyLong())).thenReturn(Optional.empty());
@@ -117,37 +300,170 @@ public class ProductServiceTest {
                 .price(BigDecimal.valueOf(2000))
                 .build();
 
-        Product existingProduct = new Product(productId, "Produto Antigo", "Descrição Antiga", BigDecimal.TEN, null);
-        Product updatedProduct = new Product(productId, "Produto Atualizado", "Descrição Atualizada", BigDecimal.valueOf(2000), null);
+        Product current = new Product(productId, "Produto", "Descrição", BigDecimal.valueOf(1500), null, 1L, null);
 
-        when(repository.findById(productId)).thenReturn(java.util.Optional.of(existingProduct));
-        when(repository.save(any())).thenReturn(updatedProduct);
+        when(repository.findByIdForUpdate(productId)).thenReturn(Optional.of(current));
+        when(repository.updateColumns(eq(productId), anyMap(), eq(1L), any())).thenReturn(1);
 
-        ProductResponse response = productService.update(productId, request);
+        ProductResponse response = productService.update(productId, request, null);
 
         assertThat(response).isNotNull();
-        assertThat(response.getId()).isEqualTo(updatedProduct.getId());
-        assertThat(response.getName()).isEqualTo(updatedProduct.getName());
-        assertThat(response.getDescription()).isEqualTo(updatedProduct.getDescription());
-        assertThat(response.getPrice()).isEqualTo(updatedProduct.getPrice());
+        assertThat(response.getId()).isEqualTo(productId);
+        assertThat(response.getName()).isEqualTo("Produto Atualizado");
+        assertThat(response.getDescription()).isEqualTo("Descrição Atualizada");
+        assertThat(response.getPrice()).isEqualTo(BigDecimal.valueOf(2000));
+        assertThat(response.getVersion()).isEqualTo(2L);
+        verify(statistics).record(BigDecimal.valueOf(1500), BigDecimal.valueOf(2000));
+        verify(repository, never()).save(any());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void update_WhenCached_ShouldUseCachedVersionAndSkipReload() {
+        ProductResponse cached = ProductResponse.builder()
+                .id(1L).name("Produto").description("Desc").price(BigDecimal.TEN).version(3L).build();
+        when(cache.get(1L)).thenReturn(Optional.of(cached));
+        when(repository.updateColumns(eq(1L), anyMap(), eq(3L), any())).thenReturn(1);
+
+        ProductRequest request = ProductRequest.builder().name("Novo").price(BigDecimal.ONE).build();
+        ProductResponse response = productService.update(1L, request, null);
+
+        assertThat(response.getName()).isEqualTo("Novo");
+        assertThat(response.getDescription()).isNull();
+        assertThat(response.getVersion()).isEqualTo(4L);
+        assertThat(response.getUpdatedAt()).isNotNull();
+        verify(repository, never()).findById(any());
+        verify(cache).put(response);
+    }
+
+    @Test
+    void update_WhenCachedVersionIsStale_ShouldReplaceTheEntryWithTheCurrentRow() {
+        ProductResponse cached = ProductResponse.builder()
+                .id(1L).name("Produto").price(BigDecimal.TEN).version(3L).build();
+        when(cache.get(1L)).thenReturn(Optional.of(cached));
+        when(repository.updateColumns(eq(1L), anyMap(), eq(3L), any())).thenReturn(0);
+        when(repository.findById(1L)).thenReturn(Optional.of(
+                new Product(1L, "Atual", "Desc", BigDecimal.ONE, null, 5L, null)));
+
+        ProductRequest request = ProductRequest.builder().name("Novo").price(BigDecimal.ONE).build();
+
+        assertThatThrownBy(() -> productService.update(1L, request, 3L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("atual: 5");
+        verify(cache).put(argThat(product ->
+                product.getVersion() == 5L && product.getName().equals("Atual")));
+        verify(cache, never()).evict(any());
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void delete_WhenCachedProductWasDeleted_ShouldMarkItDeletedInTheCache() {
+        when(cache.get(1L)).thenReturn(Optional.of(ProductResponse.builder()
+                .id(1L).name("Produto").price(BigDecimal.ONE).version(3L).build()));
+        when(repository.removeById(1L, 3L)).thenReturn(0);
+
+        assertThatThrownBy(() -> productService.delete(1L, 3L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(cache).evictDeleted(eq(1L), any(ResourceNotFoundException.class));
+        verify(cache, never()).evict(any());
+    }
+
+    @Test
+    void patch_ShouldWriteOnlyTheSentFields() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setPrice(BigDecimal.valueOf(99));
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(
+                new Product(1L, "Produto", "Desc", BigDecimal.TEN, null, 1L, null)));
+        when(repository.updateColumns(eq(1L), anyMap(), eq(1L), any())).thenReturn(1);
+
+        ProductResponse response = productService.patch(1L, patch, null);
+
+        assertThat(response.getPrice()).isEqualByComparingTo("99");
+        assertThat(response.getDescription()).isEqualTo("Desc");
+        verify(repository).updateColumns(eq(1L), eq(Map.of("price", BigDecimal.valueOf(99))), eq(1L), any());
+    }
+
+    @Test
+    void patch_WithInvalidOrUnknownField_ShouldNotWrite() {
+        ProductPatchRequest blankName = new ProductPatchRequest();
+        blankName.setName(" ");
+
+        assertThatThrownBy(() -> productService.patch(1L, blankName, null))
+                .isInstanceOf(ConstraintViolationException.class);
+
+        ProductPatchRequest nullPrice = new ProductPatchRequest();
+        nullPrice.setPrice(null);
+
+        assertThatThrownBy(() -> productService.patch(1L, nullPrice, null))
+                .isInstanceOf(ConstraintViolationException.class);
+        verify(repository, never()).updateColumns(any(), any(), any(), any());
     }
 
     @Test
     void deleteProduct_ShouldDeleteProduct() {
         Long productId = 1L;
 
-        when(repository.existsById(productId)).thenReturn(true);
+        when(repository.findPriceByIdForUpdate(productId)).thenReturn(Optional.of(BigDecimal.TEN));
+        when(repository.removeById(productId, null)).thenReturn(1);
 
-        productService.delete(productId);
+        productService.delete(productId, null);
 
-        when(repository.existsById(productId)).thenReturn(false);
+        verify(repository, never()).existsById(any());
+        verify(cache).evictDeleted(eq(productId), any(ResourceNotFoundException.class));
+        verify(changeLog).append(ProductChangedEvent.deleted(productId));
+        verify(statistics).record(BigDecimal.TEN, null);
     }
 
     @Test
-    void delete_WhenProductNotExists_ShouldThrowException() {
-        when(repository.existsById(999L)).thenReturn(false);
+    void delete_WithCachedProduct_ShouldUseTheCachedPriceAndVersion() {
+        when(cache.get(1L)).thenReturn(Optional.of(ProductResponse.builder()
+                .id(1L).name("Produto").price(BigDecimal.ONE).version(3L).build()));
+        when(repository.removeById(1L, 3L)).thenReturn(1);
+
+        productService.delete(1L, null);
 
-        assertThatThrownBy(() -> productService.delete(999L))
+        verify(repository, never()).findPriceByIdForUpdate(any());
+        verify(statistics).record(BigDecimal.ONE, null);
+    }
+
+    @Test
+    void delete_WhenProductNotExists_ShouldThrowException() {
+        assertThatThrownBy(() -> productService.delete(999L, null))
                 .isInstanceOf(ResourceNotFoundException.class);
+        verify(repository, never()).removeById(any(), any());
+    }
+
+    @Test
+    void update_WhenIfMatchVersionIsStale_ShouldThrowPreconditionFailed() {
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(
+                new Product(1L, "Produto", "Desc", BigDecimal.TEN, null, 3L, null)));
+
+        ProductRequest request = ProductRequest.builder().name("Novo").price(BigDecimal.ONE).build();
+
+        assertThatThrownBy(() -> productService.update(1L, request, 2L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("atual: 3");
+        verify(repository, never()).updateColumns(any(), any(), any(), any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void delete_WhenIfMatchVersionIsStale_ShouldThrowPreconditionFailed() {
+        when(repository.findPriceByIdForUpdate(1L)).thenReturn(Optional.of(BigDecimal.TEN));
+        when(repository.removeById(1L, 4L)).thenReturn(0);
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(new ProductVersion(5L, null)));
+
+        assertThatThrownBy(() -> productService.delete(1L, 4L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(cache, never()).evictDeleted(any(), any());
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void findVersion_WhenNotCached_ShouldOnlyQueryTheVersion() {
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(new ProductVersion(7L, null)));
+
+        assertThat(productService.findVersion(1L).version()).isEqualTo(7L);
+        verify(repository, never()).findById(any());
     }
 }
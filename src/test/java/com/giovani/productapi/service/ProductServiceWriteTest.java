@@ -0,0 +1,149 @@
+package com.giovani.productapi.service;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.dto.ProductPatchRequest;
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.exceptions.PreconditionFailedException;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class ProductServiceWriteTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductCache cache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        id = repository.save(Product.builder()
+                .name("Notebook")
+                .description("Dell XPS")
+                .price(BigDecimal.valueOf(4500))
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        cache.evict(id);
+    }
+
+    @Test
+    void patch_ShouldChangeOnlySentColumnsAndBumpVersion() {
+        ProductPatchRequest patch = new ProductPatchRequest();
+        patch.setPrice(BigDecimal.valueOf(3999));
+        patch.setDescription(null);
+
+        ProductResponse response = productService.patch(id, patch, 0L);
+
+        assertThat(response.getVersion()).isEqualTo(1L);
+        Product stored = repository.findById(id).orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Notebook");
+        assertThat(stored.getDescription()).isNull();
+        assertThat(stored.getPrice()).isEqualByComparingTo("3999");
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        assertThat(stored.getUpdatedAt()).isEqualTo(response.getUpdatedAt());
+    }
+
+    @Test
+    void update_WithCachedProduct_ShouldCostOneStatement() {
+        productService.findById(id);
+        statistics.clear();
+
+        ProductResponse response = productService.update(id, ProductRequest.builder()
+                .name("Notebook Pro")
+                .price(BigDecimal.valueOf(5000))
+                .build(), 0L);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(response.getVersion()).isEqualTo(1L);
+        assertThat(repository.findById(id).orElseThrow().getName()).isEqualTo("Notebook Pro");
+    }
+
+    @Test
+    void update_WithoutCachedProduct_ShouldLockTheRowOnceInsteadOfReloadingIt() {
+        cache.evict(id);
+        statistics.clear();
+
+        ProductResponse response = productService.update(id, ProductRequest.builder()
+                .name("Notebook Pro")
+                .price(BigDecimal.valueOf(5000))
+                .build(), 0L);
+
+        // SELECT ... FOR UPDATE + UPDATE
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(response.getVersion()).isEqualTo(1L);
+        assertThat(response.getDescription()).isNull();
+        assertThat(repository.findById(id).orElseThrow().getUpdatedAt()).isEqualTo(response.getUpdatedAt());
+        assertThatThrownBy(() -> productService.update(id, ProductRequest.builder()
+                .name("X")
+                .price(BigDecimal.ONE)
+                .build(), 0L)).isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void delete_WithCachedProduct_ShouldCostOneStatement() {
+        productService.findById(id);
+        statistics.clear();
+
+        productService.delete(id, null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(repository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void delete_WithoutCachedProduct_ShouldReadOnlyThePriceUnderLock() {
+        statistics.clear();
+
+        productService.delete(id, null);
+
+        // SELECT price ... FOR UPDATE + DELETE
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(repository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void writes_ShouldMapAffectedRowsTo404And412() {
+        assertThatThrownBy(() -> productService.delete(id, 5L)).isInstanceOf(PreconditionFailedException.class);
+        assertThat(repository.existsById(id)).isTrue();
+
+        productService.delete(id, 0L);
+
+        assertThatThrownBy(() -> productService.delete(id, null)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.update(id, ProductRequest.builder()
+                .name("X")
+                .price(BigDecimal.ONE)
+                .build(), null)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.dto.ProductRequest;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "productapi.snapshot.mode=writer",
+        "productapi.snapshot.interval=1h",
+        "productapi.snapshot.retain=1"})
+class CatalogSnapshotPublisherTest {
+
+    private static final Path SNAPSHOTS;
+
+    static {
+        try {
+            SNAPSHOTS = Files.createTempDirectory("productapi-snapshots");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void snapshots(DynamicPropertyRegistry registry) {
+        registry.add("productapi.snapshot.directory", SNAPSHOTS::toString);
+    }
+
+    @Autowired
+    private CatalogSnapshotPublisher publisher;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void publish_ShouldWriteTheCatalogOnlyWhenTheChangeFeedMoved() throws IOException {
+        ProductResponse created = productService.create(ProductRequest.builder()
+                .name("Teclado").description("ABNT2").price(new BigDecimal("199.90")).build());
+
+        // a primeira publicação agendada pode ter rodado antes ou depois da escrita; o que vale é o mais recente
+        publisher.publish();
+        CatalogSnapshot snapshot = CatalogSnapshot.open(CatalogSnapshots.latest(SNAPSHOTS).orElseThrow());
+        ProductResponse published = snapshot.find(created.getId());
+        assertThat(published.getName()).isEqualTo("Teclado");
+        assertThat(published.getPrice()).isEqualByComparingTo("199.90");
+        assertThat(published.getVersion()).isEqualTo(created.getVersion());
+        assertThat(publisher.publish()).isNull();
+
+        productService.update(created.getId(), ProductRequest.builder()
+                .name("Teclado mecânico").price(new BigDecimal("299.90")).build(), null);
+        Path next = publisher.publish();
+
+        assertThat(next).isNotNull();
+        assertThat(CatalogSnapshot.open(next).find(created.getId()).getName()).isEqualTo("Teclado mecânico");
+        try (Stream<Path> files = Files.list(SNAPSHOTS)) {
+            assertThat(files).containsExactly(next);
+        }
+    }
+
+    @Test
+    void publish_ShouldPublishAChangeThatCommitsLateBelowTheHighestOffset() {
+        publisher.publish();
+        long last = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from product_change", Long.class);
+        try {
+            // o offset seguinte fica com uma transação que ainda não commitou
+            insertChange(last + 2);
+            assertThat(publisher.publish()).isNull();
+
+            insertChange(last + 1);
+            assertThat(publisher.publish()).isNotNull();
+            assertThat(publisher.publish()).isNull();
+        } finally {
+            jdbcTemplate.update("alter table product_change alter column id restart with " + (last + 3));
+        }
+    }
+
+    private void insertChange(long offset) {
+        jdbcTemplate.update("insert into product_change (id, product_id, type, created_at) values (?, ?, 'DELETED', ?)",
+                offset, offset, Timestamp.from(Instant.now()));
+    }
+}
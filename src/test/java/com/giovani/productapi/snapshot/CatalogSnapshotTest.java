@@ -0,0 +1,284 @@
+package com.giovani.productapi.snapshot;
+
+import com.giovani.productapi.cache.ProductCache;
+import com.giovani.productapi.config.BatchProperties;
+import com.giovani.productapi.config.PaginationProperties;
+import com.giovani.productapi.dto.CursorPageResponse;
+import com.giovani.productapi.dto.PageResponse;
+import com.giovani.productapi.dto.ProductChangeResponse;
+import com.giovani.productapi.dto.ProductResponse;
+import com.giovani.productapi.entity.Product;
+import com.giovani.productapi.event.ProductChangedEvent;
+import com.giovani.productapi.exceptions.ResourceNotFoundException;
+import com.giovani.productapi.feed.ChangeFeedProperties;
+import com.giovani.productapi.feed.ProductChangeFeed;
+import com.giovani.productapi.feed.ProductChangeLog;
+import com.giovani.productapi.pagination.ProductSortField;
+import com.giovani.productapi.repository.ProductRepository;
+import com.giovani.productapi.repository.ProductVersion;
+import com.giovani.productapi.service.ProductService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final ProductChangeLog changeLog = mock(ProductChangeLog.class);
+    private final ProductChangeFeed changeFeed = new ProductChangeFeed(changeLog, new ChangeFeedProperties(1000,
+            Duration.ofSeconds(1), Duration.ofSeconds(15), Duration.ofSeconds(5), 4, Duration.ZERO));
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    void snapshot_ShouldRoundTripProductsAndFindByPrimitiveId() throws IOException {
+        Instant updatedAt = Instant.parse("2026-01-02T03:04:05.123456Z");
+        Path file = write(1, List.of(
+                product(3, "Café ☕", "Moído na hora", "12.50", "/api/v1/images/abc.png", updatedAt),
+                product(7, "Caneca", null, "30", null, null),
+                product(20, "Cafeteira", "", "199.99", null, updatedAt)), SnapshotFormat.SEGMENT_SHIFT);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertThat(snapshot.count()).isEqualTo(3);
+        assertThat(snapshot.version()).isEqualTo(1);
+        assertThat(snapshot.changeId()).isEqualTo(42);
+        ProductResponse coffee = snapshot.find(3);
+        assertThat(coffee.getName()).isEqualTo("Café ☕");
+        assertThat(coffee.getDescription()).isEqualTo("Moído na hora");
+        assertThat(coffee.getPrice()).isEqualTo(new BigDecimal("12.50"));
+        assertThat(coffee.getImageUrl()).isEqualTo("/api/v1/images/abc.png");
+        assertThat(coffee.getVersion()).isEqualTo(3);
+        assertThat(coffee.getUpdatedAt()).isEqualTo(updatedAt);
+        ProductResponse mug = snapshot.find(7);
+        assertThat(mug.getDescription()).isNull();
+        assertThat(mug.getImageUrl()).isNull();
+        assertThat(mug.getUpdatedAt()).isNull();
+        assertThat(snapshot.find(20).getDescription()).isEmpty();
+        assertThat(snapshot.find(1)).isNull();
+        assertThat(snapshot.find(8)).isNull();
+        assertThat(snapshot.find(21)).isNull();
+        assertThat(snapshot.range(1, 5)).extracting(ProductResponse::getId).containsExactly(7L, 20L);
+        assertThat(snapshot.slotOf(8)).isEqualTo(2);
+    }
+
+    @Test
+    void records_ShouldNeverCrossASegmentBoundary() throws IOException {
+        // segmentos de 128 bytes: cada um comporta um registro, e o resto vira preenchimento
+        List<Product> products = LongStream.rangeClosed(1, 50)
+                .mapToObj(id -> product(id, "Produto " + id, "x".repeat((int) id % 40), id + ".99", null, null))
+                .toList();
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(write(1, products, 7));
+
+        for (Product product : products) {
+            ProductResponse found = snapshot.find(product.getId());
+            assertThat(found.getName()).isEqualTo(product.getName());
+            assertThat(found.getDescription()).isEqualTo(product.getDescription());
+            assertThat(found.getPrice()).isEqualTo(product.getPrice());
+        }
+    }
+
+    @Test
+    void writer_ShouldRejectProductsOutOfIdOrder() throws IOException {
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory, 1, 0)) {
+            writer.add(product(2, "B", null, "1", null, null));
+
+            assertThatThrownBy(() -> writer.add(product(1, "A", null, "1", null, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void reader_ShouldSwapToNewerVersionsAndKeepTheCurrentOneOnBrokenFiles() throws IOException {
+        write(1, List.of(product(1, "Antigo", null, "1", null, null)), SnapshotFormat.SEGMENT_SHIFT);
+        CatalogSnapshots snapshots = reader();
+        try {
+            assertThat(snapshots.current().find(1).getName()).isEqualTo("Antigo");
+
+            write(2, List.of(product(1, "Novo", null, "1", null, null)), SnapshotFormat.SEGMENT_SHIFT);
+            assertThat(snapshots.refresh()).isTrue();
+            assertThat(snapshots.current().find(1).getName()).isEqualTo("Novo");
+            assertThat(snapshots.refresh()).isFalse();
+
+            Files.write(directory.resolve(SnapshotFormat.fileName(3)), new byte[]{1, 2, 3});
+            assertThat(snapshots.refresh()).isFalse();
+            assertThat(snapshots.current().version()).isEqualTo(2);
+        } finally {
+            snapshots.destroy();
+        }
+    }
+
+    @Test
+    void productService_OnAReaderNode_ShouldServeReadsWithoutTheDatabase() throws IOException {
+        write(1, LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> product(id * 10, "Produto " + id, null, "10", null, null))
+                .toList(), SnapshotFormat.SEGMENT_SHIFT);
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductCache cache = mock(ProductCache.class);
+        CatalogSnapshots snapshots = reader();
+        ProductService service = new ProductService(repository, new PaginationProperties(20, 100), cache,
+                new BatchProperties(2, 10), mock(ApplicationEventPublisher.class), null,
+                Validation.buildDefaultValidatorFactory().getValidator(), null, null, snapshots,
+                mock(PlatformTransactionManager.class));
+        try {
+            assertThat(service.findById(30L).getName()).isEqualTo("Produto 3");
+            assertThatThrownBy(() -> service.findById(31L)).isInstanceOf(ResourceNotFoundException.class);
+
+            PageResponse<ProductResponse> page = service.findAll(PageRequest.of(1, 4, Sort.by("id")));
+            assertThat(page.getContent()).extracting(ProductResponse::getId).containsExactly(50L, 60L, 70L, 80L);
+            assertThat(page.getTotalElements()).isEqualTo(10);
+
+            CursorPageResponse<ProductResponse> first = service.findAll(null, 4, ProductSortField.ID);
+            assertThat(first.getContent()).extracting(ProductResponse::getId).containsExactly(10L, 20L, 30L, 40L);
+            CursorPageResponse<ProductResponse> second = service.findAll(first.getNext(), 4, ProductSortField.ID);
+            assertThat(second.getContent()).extracting(ProductResponse::getId).containsExactly(50L, 60L, 70L, 80L);
+            CursorPageResponse<ProductResponse> back = service.findAll(second.getPrev(), 4, ProductSortField.ID);
+            assertThat(back.getContent()).extracting(ProductResponse::getId).containsExactly(10L, 20L, 30L, 40L);
+            assertThat(back.getPrev()).isNull();
+
+            assertThat(service.findAllById(List.of(20L, 25L)).getMissing()).containsExactly(25L);
+            verifyNoInteractions(repository);
+            // do cache só o 404 montado para o id inexistente
+            verify(cache, never()).get(any());
+        } finally {
+            snapshots.destroy();
+        }
+    }
+
+    @Test
+    void productService_OnAReaderNode_ShouldReadVersionsAndProductsWrittenSinceTheSnapshotFromTheDatabase()
+            throws IOException {
+        write(1, 42, LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> product(id * 10, "Produto " + id, null, "10", null, null))
+                .toList(), SnapshotFormat.SEGMENT_SHIFT);
+        // produto 30 alterado em outra instância depois do snapshot
+        when(changeLog.readProductIds(42, 1000)).thenReturn(List.of(change(43, 30, Instant.now())));
+        ProductRepository repository = mock(ProductRepository.class);
+        Product changed = product(30, "Produto 3 novo", null, "12", null, null);
+        when(repository.findById(30L)).thenReturn(Optional.of(changed));
+        when(repository.findAllById(List.of(30L))).thenReturn(List.of(changed));
+        when(repository.findVersionById(20L)).thenReturn(Optional.of(new ProductVersion(21L, null)));
+        CatalogSnapshots snapshots = reader();
+        ProductService service = new ProductService(repository, new PaginationProperties(20, 100),
+                mock(ProductCache.class), new BatchProperties(2, 10), mock(ApplicationEventPublisher.class), null,
+                Validation.buildDefaultValidatorFactory().getValidator(), null, null, snapshots,
+                mock(PlatformTransactionManager.class));
+        try {
+            assertThat(service.findById(30L).getName()).isEqualTo("Produto 3 novo");
+            assertThat(service.findAllById(List.of(20L, 30L)).getProducts())
+                    .extracting(ProductResponse::getName).containsExactly("Produto 2", "Produto 3 novo");
+            assertThat(service.findVersion(20L).version()).isEqualTo(21L);
+
+            // exclusão feita nesta instância: fora do snapshot antes de o feed mostrá-la
+            snapshots.onProductChanged(ProductChangedEvent.deleted(40L));
+            assertThatThrownBy(() -> service.findById(40L)).isInstanceOf(ResourceNotFoundException.class);
+
+            // o snapshot novo já contém a mudança 43, mas não a exclusão local
+            write(2, 43, LongStream.rangeClosed(1, 5)
+                    .mapToObj(id -> product(id * 10, "Produto " + id, null, "10", null, null))
+                    .toList(), SnapshotFormat.SEGMENT_SHIFT);
+            assertThat(snapshots.refresh()).isTrue();
+            assertThat(snapshots.isStale(30L)).isFalse();
+            assertThat(snapshots.isStale(40L)).isTrue();
+            assertThat(service.findById(30L).getName()).isEqualTo("Produto 3");
+        } finally {
+            snapshots.destroy();
+        }
+    }
+
+    @Test
+    void reader_ShouldMarkAChangeThatCommitsLateBelowTheLastSeenOffset() throws IOException {
+        write(1, 42, List.of(product(10, "Produto 1", null, "10", null, null),
+                product(50, "Produto 5", null, "10", null, null)), SnapshotFormat.SEGMENT_SHIFT);
+        // 44 já commitou; 43 ainda não
+        when(changeLog.readProductIds(42, 1000)).thenReturn(List.of(change(44, 50, Instant.now())));
+        CatalogSnapshots snapshots = reader();
+        try {
+            assertThat(snapshots.isStale(50L)).isTrue();
+            assertThat(snapshots.isStale(10L)).isFalse();
+
+            // a leitura recomeçou do buraco, então 43 aparece quando commita
+            when(changeLog.readProductIds(42, 1000)).thenReturn(List.of(
+                    change(43, 10, Instant.now()), change(44, 50, Instant.now())));
+            assertThat(snapshots.refresh()).isFalse();
+            assertThat(snapshots.isStale(10L)).isTrue();
+
+            // snapshot publicado até 43: a marca de 44 continua
+            write(2, 43, List.of(product(10, "Produto 1 novo", null, "10", null, null),
+                    product(50, "Produto 5", null, "10", null, null)), SnapshotFormat.SEGMENT_SHIFT);
+            assertThat(snapshots.refresh()).isTrue();
+            assertThat(snapshots.isStale(10L)).isFalse();
+            assertThat(snapshots.isStale(50L)).isTrue();
+        } finally {
+            snapshots.destroy();
+        }
+    }
+
+    private CatalogSnapshots reader() {
+        return new CatalogSnapshots(new SnapshotProperties(SnapshotProperties.Mode.READER, directory,
+                Duration.ofMinutes(1), Duration.ofHours(1), 2), changeFeed);
+    }
+
+    private static ProductChangeResponse change(long offset, long productId, Instant occurredAt) {
+        return ProductChangeResponse.builder().offset(offset).productId(productId).occurredAt(occurredAt).build();
+    }
+
+    private Path write(long version, List<Product> products, int segmentShift) throws IOException {
+        return write(version, 42, products, segmentShift);
+    }
+
+    private Path write(long version, long changeId, List<Product> products, int segmentShift) throws IOException {
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(directory, version, changeId, segmentShift)) {
+            for (Product product : products) {
+                writer.add(product);
+            }
+            return writer.commit();
+        }
+    }
+
+    private static Product product(long id, String name, String description, String price, String imageUrl,
+                                   Instant updatedAt) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(new BigDecimal(price))
+                .imageUrl(imageUrl)
+                .version(id)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
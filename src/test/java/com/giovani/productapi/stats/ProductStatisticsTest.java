@@ -0,0 +1,107 @@
+package com.giovani.productapi.stats;
+
+import com.giovani.productapi.dto.PriceBucket;
+import com.giovani.productapi.dto.ProductStatsResponse;
+import com.giovani.productapi.repository.PriceCount;
+import com.giovani.productapi.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductStatisticsTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+
+    private final ProductStatistics statistics = new ProductStatistics(repository, new ProductStatsProperties(
+            List.of(new BigDecimal("10"), new BigDecimal("100")), Duration.ZERO));
+
+    @AfterEach
+    void tearDown() {
+        statistics.destroy();
+    }
+
+    @Test
+    void emptyCatalog_ShouldHaveNoPrices() {
+        ProductStatsResponse stats = statistics.snapshot();
+
+        assertThat(stats.getCount()).isZero();
+        assertThat(stats.getMinPrice()).isNull();
+        assertThat(stats.getAveragePrice()).isNull();
+        assertThat(stats.getHistogram()).extracting(PriceBucket::getCount).containsExactly(0L, 0L, 0L);
+    }
+
+    @Test
+    void writes_ShouldUpdateCountsPricesAndBuckets() {
+        statistics.record(null, new BigDecimal("5"));
+        statistics.record(null, new BigDecimal("10"));
+        statistics.record(null, new BigDecimal("250.50"));
+        statistics.record(new BigDecimal("5"), new BigDecimal("99.99"));
+        statistics.record(new BigDecimal("250.50"), null);
+
+        ProductStatsResponse stats = statistics.snapshot();
+
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getMinPrice()).isEqualByComparingTo("10");
+        assertThat(stats.getMaxPrice()).isEqualByComparingTo("99.99");
+        assertThat(stats.getAveragePrice()).isEqualByComparingTo("55.00");
+        // um preço igual ao limite cai na faixa de cima
+        assertThat(stats.getHistogram()).extracting(PriceBucket::getCount).containsExactly(0L, 2L, 0L);
+        assertThat(stats.getHistogram().get(2).getFrom()).isEqualByComparingTo("100");
+        assertThat(stats.getHistogram().get(2).getTo()).isNull();
+    }
+
+    @Test
+    void duplicatePrices_ShouldKeepMinUntilTheLastOneIsRemoved() {
+        statistics.record(null, new BigDecimal("20"));
+        statistics.record(null, new BigDecimal("20"));
+        statistics.record(null, new BigDecimal("30"));
+
+        statistics.record(new BigDecimal("20"), null);
+        assertThat(statistics.snapshot().getMinPrice()).isEqualByComparingTo("20");
+
+        statistics.record(new BigDecimal("20"), null);
+        assertThat(statistics.snapshot().getMinPrice()).isEqualByComparingTo("30");
+    }
+
+    @Test
+    void writesInATransaction_ShouldOnlyCountAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statistics.record(null, new BigDecimal("20"));
+            assertThat(statistics.snapshot().getCount()).isZero();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(statistics.snapshot().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_ShouldReplaceDriftedAggregates() {
+        statistics.record(null, new BigDecimal("1"));
+        when(repository.countByPrice()).thenReturn(List.of(
+                new PriceCount(new BigDecimal("50.00"), 3L),
+                new PriceCount(new BigDecimal("150.00"), 1L)));
+
+        statistics.reconcile();
+
+        ProductStatsResponse stats = statistics.snapshot();
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getMinPrice()).isEqualByComparingTo("50");
+        assertThat(stats.getAveragePrice()).isEqualByComparingTo("75.00");
+        assertThat(stats.getHistogram()).extracting(PriceBucket::getCount).containsExactly(0L, 3L, 1L);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+}